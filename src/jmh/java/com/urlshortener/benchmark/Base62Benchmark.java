@@ -0,0 +1,83 @@
+package com.urlshortener.benchmark;
+
+import com.urlshortener.util.Base62Config;
+import com.urlshortener.util.Base62Encoder;
+import com.urlshortener.util.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short code encode/decode on Snowflake-sized ids (10-11 characters),
+ * current encoder vs the pre-rewrite baseline and the scrambled fixed-width mode.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Base62Benchmark {
+
+    private static final int SIZE = 1024;
+
+    private final Base62Encoder encoder = new Base62Encoder();
+    private final LegacyBase62Encoder legacy = new LegacyBase62Encoder();
+    private Base62Encoder scrambled;
+
+    private long[] ids;
+    private String[] codes;
+    private String[] scrambledCodes;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Base62Config config = new Base62Config();
+        config.setFixedWidth(Base62Encoder.MAX_LENGTH);
+        config.setScramble(true);
+        scrambled = new Base62Encoder(config);
+
+        long[] generated = new SnowflakeIdGenerator(0, 1).nextIds(SIZE);
+        ids = generated;
+        codes = new String[SIZE];
+        scrambledCodes = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            codes[i] = encoder.encode(ids[i]);
+            scrambledCodes[i] = scrambled.encode(ids[i]);
+        }
+    }
+
+    private int next() {
+        return index = (index + 1) & (SIZE - 1);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(ids[next()]);
+    }
+
+    @Benchmark
+    public String legacyEncode() {
+        return legacy.encode(ids[next()]);
+    }
+
+    @Benchmark
+    public String scrambledEncode() {
+        return scrambled.encode(ids[next()]);
+    }
+
+    @Benchmark
+    public long decode() {
+        return encoder.decode(codes[next()]);
+    }
+
+    @Benchmark
+    public Long legacyDecode() {
+        return legacy.decode(codes[next()]);
+    }
+
+    @Benchmark
+    public long scrambledDecode() {
+        return scrambled.decode(scrambledCodes[next()]);
+    }
+}
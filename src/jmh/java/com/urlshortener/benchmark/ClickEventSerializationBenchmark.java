@@ -0,0 +1,62 @@
+package com.urlshortener.benchmark;
+
+import com.urlshortener.analytics.ClickEvent;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClickEvent through the same Spring Kafka JSON serializer/deserializer the
+ * producer and consumer are configured with.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClickEventSerializationBenchmark {
+
+    private static final String TOPIC = "click-events";
+
+    private JsonSerializer<ClickEvent> serializer;
+    private JsonDeserializer<ClickEvent> deserializer;
+    private ClickEvent event;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        serializer = new JsonSerializer<>();
+        deserializer = new JsonDeserializer<>(ClickEvent.class);
+        deserializer.addTrustedPackages("com.urlshortener.analytics");
+
+        event = ClickEvent.builder()
+                .shortCode("aB3xK9mQ2pL")
+                .timestamp(LocalDateTime.of(2024, 6, 1, 12, 30, 15, 123_000_000))
+                .ipAddress("203.0.113.42")
+                .userAgent("Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/605.1.15 "
+                        + "(KHTML, like Gecko) Version/17.4 Safari/605.1.15")
+                .referer("https://news.ycombinator.com/item?id=39123456")
+                .build();
+        payload = serializer.serialize(TOPIC, event);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public ClickEvent deserialize() {
+        return deserializer.deserialize(TOPIC, payload);
+    }
+}
@@ -0,0 +1,149 @@
+package com.urlshortener.benchmark;
+
+import com.urlshortener.model.Url;
+import com.urlshortener.repository.CachedLinkView;
+import com.urlshortener.repository.UrlAliasRepository;
+import com.urlshortener.repository.UrlRepository;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Map-backed stand-ins for Redis and JPA, so service code can be benchmarked
+ * in-process. Only the operations the redirect and create paths use are
+ * implemented; anything else throws.
+ */
+final class InMemoryStandIns {
+
+    private InMemoryStandIns() {
+    }
+
+    /**
+     * @param retainWrites false to drop SETs, so every read stays a miss
+     */
+    @SuppressWarnings("unchecked")
+    static RedisTemplate<String, String> redisTemplate(Map<String, String> store, boolean retainWrites) {
+        ValueOperations<String, String> valueOps = (ValueOperations<String, String>) Proxy.newProxyInstance(
+                InMemoryStandIns.class.getClassLoader(),
+                new Class<?>[]{ValueOperations.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "get" -> store.get((String) args[0]);
+                    case "set" -> {
+                        if (retainWrites) {
+                            store.put((String) args[0], (String) args[1]);
+                        }
+                        yield null;
+                    }
+                    case "toString" -> "InMemoryValueOperations";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        return new RedisTemplate<>() {
+            @Override
+            public ValueOperations<String, String> opsForValue() {
+                return valueOps;
+            }
+
+            @Override
+            public Boolean delete(String key) {
+                return store.remove(key) != null;
+            }
+
+            @Override
+            public Long convertAndSend(String channel, Object message) {
+                return 0L;
+            }
+        };
+    }
+
+    /**
+     * Url rows indexed by short code and id, plus the custom alias index
+     */
+    static final class UrlTable {
+
+        private final Map<String, Url> byCode = new ConcurrentHashMap<>();
+        private final Map<Long, Url> byId = new ConcurrentHashMap<>();
+        private final Map<String, Long> aliases = new ConcurrentHashMap<>();
+
+        void put(Url url) {
+            byCode.put(url.getShortCode(), url);
+            byId.put(url.getId(), url);
+        }
+    }
+
+    /**
+     * save assigns ids from a sequence when the row has none
+     */
+    static UrlRepository urlRepository(UrlTable table) {
+        AtomicLong sequence = new AtomicLong();
+        return (UrlRepository) Proxy.newProxyInstance(
+                InMemoryStandIns.class.getClassLoader(),
+                new Class<?>[]{UrlRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByShortCode" -> Optional.ofNullable(table.byCode.get((String) args[0]));
+                    case "findLinkByShortCode" -> Optional.ofNullable(table.byCode.get((String) args[0]))
+                            .map(InMemoryStandIns::link);
+                    case "findLinkById" -> Optional.ofNullable(table.byId.get((Long) args[0]))
+                            .map(InMemoryStandIns::link);
+                    case "existsByShortCode" -> table.byCode.containsKey((String) args[0]);
+                    case "save" -> {
+                        Url url = (Url) args[0];
+                        if (url.getId() == null) {
+                            url.setId(sequence.incrementAndGet());
+                        }
+                        if (url.getShortCode() != null) {
+                            table.put(url);
+                        }
+                        yield url;
+                    }
+                    case "count" -> (long) table.byCode.size();
+                    case "findShortCodesAfter" -> List.of();
+                    case "toString" -> "InMemoryUrlRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    static UrlAliasRepository urlAliasRepository(UrlTable table) {
+        return (UrlAliasRepository) Proxy.newProxyInstance(
+                InMemoryStandIns.class.getClassLoader(),
+                new Class<?>[]{UrlAliasRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findLinkByAlias" -> Optional.ofNullable(table.aliases.get((String) args[0]))
+                            .map(table.byId::get)
+                            .map(InMemoryStandIns::link);
+                    case "toString" -> "InMemoryUrlAliasRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static CachedLinkView link(Url url) {
+        return new CachedLinkView() {
+            @Override
+            public Long getId() {
+                return url.getId();
+            }
+
+            @Override
+            public String getShortCode() {
+                return url.getShortCode();
+            }
+
+            @Override
+            public String getOriginalUrl() {
+                return url.getOriginalUrl();
+            }
+
+            @Override
+            public LocalDateTime getExpiryDate() {
+                return url.getExpiryDate();
+            }
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package com.urlshortener.benchmark;
+
+/**
+ * Base62Encoder as it was before the lookup-table rewrite (StringBuilder.insert
+ * per digit, indexOf per character), kept as a baseline for Base62Benchmark.
+ */
+class LegacyBase62Encoder {
+
+    private static final String BASE62_CHARS = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final int BASE = BASE62_CHARS.length();
+
+    public String encode(Long id) {
+        if (id == null || id == 0) {
+            return BASE62_CHARS.substring(0, 1);
+        }
+
+        StringBuilder encoded = new StringBuilder();
+        long num = id;
+
+        while (num > 0) {
+            int remainder = (int) (num % BASE);
+            encoded.insert(0, BASE62_CHARS.charAt(remainder));
+            num = num / BASE;
+        }
+
+        return encoded.toString();
+    }
+
+    public Long decode(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return 0L;
+        }
+
+        long decoded = 0;
+        for (int i = 0; i < encoded.length(); i++) {
+            char c = encoded.charAt(i);
+            int value = BASE62_CHARS.indexOf(c);
+            if (value == -1) {
+                throw new IllegalArgumentException("Invalid Base62 character: " + c);
+            }
+            decoded = decoded * BASE + value;
+        }
+
+        return decoded;
+    }
+}
@@ -0,0 +1,70 @@
+package com.urlshortener.benchmark;
+
+/**
+ * The original monitor-based Snowflake generator, kept only as a
+ * baseline for SnowflakeContentionBenchmark
+ */
+public class LegacySnowflakeIdGenerator {
+
+    private static final long EPOCH = 1609459200000L;
+
+    private static final long DATACENTER_ID_BITS = 5L;
+    private static final long WORKER_ID_BITS = 5L;
+    private static final long SEQUENCE_BITS = 12L;
+
+    private static final long MAX_SEQUENCE = ~(-1L << SEQUENCE_BITS);
+
+    private static final long WORKER_ID_SHIFT = SEQUENCE_BITS;
+    private static final long DATACENTER_ID_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS;
+    private static final long TIMESTAMP_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS + DATACENTER_ID_BITS;
+
+    private final long datacenterId;
+    private final long workerId;
+
+    private long sequence = 0L;
+    private long lastTimestamp = -1L;
+
+    public LegacySnowflakeIdGenerator(long datacenterId, long workerId) {
+        this.datacenterId = datacenterId;
+        this.workerId = workerId;
+    }
+
+    public synchronized long nextId() {
+        long timestamp = System.currentTimeMillis();
+
+        if (timestamp < lastTimestamp) {
+            long offset = lastTimestamp - timestamp;
+            if (offset <= 5) {
+                try {
+                    wait(offset << 1);
+                    timestamp = System.currentTimeMillis();
+                    if (timestamp < lastTimestamp) {
+                        throw new RuntimeException("Clock moved backwards. Refusing to generate ID");
+                    }
+                } catch (InterruptedException e) {
+                    throw new RuntimeException("Interrupted while waiting for clock sync");
+                }
+            } else {
+                throw new RuntimeException("Clock moved backwards. Refusing to generate ID");
+            }
+        }
+
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & MAX_SEQUENCE;
+            if (sequence == 0) {
+                while (timestamp <= lastTimestamp) {
+                    timestamp = System.currentTimeMillis();
+                }
+            }
+        } else {
+            sequence = 0L;
+        }
+
+        lastTimestamp = timestamp;
+
+        return ((timestamp - EPOCH) << TIMESTAMP_SHIFT)
+                | (datacenterId << DATACENTER_ID_SHIFT)
+                | (workerId << WORKER_ID_SHIFT)
+                | sequence;
+    }
+}
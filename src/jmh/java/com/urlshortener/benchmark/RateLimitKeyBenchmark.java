@@ -0,0 +1,74 @@
+package com.urlshortener.benchmark;
+
+import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.ratelimit.RateLimitConfig;
+import com.urlshortener.ratelimit.RateLimitInterceptor;
+import com.urlshortener.ratelimit.RateLimitResult;
+import com.urlshortener.ratelimit.RateLimitService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimitInterceptor.preHandle with the Redis round trip stubbed out, so the
+ * numbers are the per-request cost of client IP parsing, endpoint
+ * classification and key derivation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitKeyBenchmark {
+
+    public enum Endpoint { REDIRECT, CREATE, STATS, UNLIMITED }
+
+    @Param({"REDIRECT", "CREATE", "STATS", "UNLIMITED"})
+    public Endpoint endpoint;
+
+    // Forwarded-for chain as seen behind an ingress and a CDN
+    @Param({"false", "true"})
+    public boolean proxied;
+
+    private RateLimitInterceptor interceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        RateLimitService allowAll = new RateLimitService(null, null, null) {
+            @Override
+            public RateLimitResult tryConsume(String key, int limit, Duration duration) {
+                return new RateLimitResult(true, limit, limit - 1, 0, 60_000);
+            }
+        };
+        interceptor = new RateLimitInterceptor(allowAll, new RateLimitConfig(),
+                new MetricsService(new SimpleMeterRegistry()));
+
+        request = switch (endpoint) {
+            case REDIRECT -> new MockHttpServletRequest("GET", "/aB3xK9mQ2pL");
+            case CREATE -> new MockHttpServletRequest("POST", "/api/v1/urls");
+            case STATS -> new MockHttpServletRequest("GET", "/api/v1/urls/aB3xK9mQ2pL/stats");
+            case UNLIMITED -> new MockHttpServletRequest("GET", "/actuator/health");
+        };
+        request.setRemoteAddr("10.0.3.17");
+        if (proxied) {
+            request.addHeader("X-Forwarded-For", "203.0.113.42, 198.51.100.7, 10.0.0.12");
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void resetResponse() {
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public boolean preHandle() throws Exception {
+        return interceptor.preHandle(request, response, null);
+    }
+}
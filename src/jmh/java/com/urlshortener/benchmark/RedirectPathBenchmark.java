@@ -0,0 +1,143 @@
+package com.urlshortener.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.urlshortener.analytics.ClickCountConfig;
+import com.urlshortener.analytics.ClickCounter;
+import com.urlshortener.cache.CacheInvalidationService;
+import com.urlshortener.cache.CacheRefresher;
+import com.urlshortener.cache.CachedUrl;
+import com.urlshortener.cache.HotKeyConfig;
+import com.urlshortener.cache.HotKeyTracker;
+import com.urlshortener.cache.LocalCacheConfig;
+import com.urlshortener.cache.LocalUrlCache;
+import com.urlshortener.cache.UrlCacheConfig;
+import com.urlshortener.cache.UrlCacheStore;
+import com.urlshortener.datasource.ReadYourWrites;
+import com.urlshortener.datasource.ReplicaRoutingConfig;
+import com.urlshortener.model.Url;
+import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.security.UrlValidationService;
+import com.urlshortener.service.IdGenerationConfig;
+import com.urlshortener.service.UrlDedupConfig;
+import com.urlshortener.service.ShortCodeNamespace;
+import com.urlshortener.service.UrlDedupService;
+import com.urlshortener.service.UrlResolutionConfig;
+import com.urlshortener.service.UrlService;
+import com.urlshortener.util.Base62Encoder;
+import com.urlshortener.util.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end UrlService.getOriginalUrl in-process, with map-backed Redis and
+ * JPA stand-ins. Each tier forces the lookup to be answered by one layer:
+ * the local cache, Redis, or the database. Network and SQL costs are absent,
+ * so the numbers are the service's own overhead per redirect (metrics,
+ * caching, click counting). Application logging is raised to WARN so console
+ * output doesn't dominate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedirectPathBenchmark {
+
+    private static final int CODES = 10_000;
+
+    public enum Tier { LOCAL, REDIS, DATABASE }
+
+    @Param({"LOCAL", "REDIS", "DATABASE"})
+    public Tier tier;
+
+    private UrlService urlService;
+    private String[] codes;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int index;
+    }
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger("com.urlshortener")).setLevel(Level.WARN);
+
+        MetricsService metricsService = new MetricsService(new SimpleMeterRegistry());
+        Base62Encoder encoder = new Base62Encoder();
+        SnowflakeIdGenerator idGenerator = new SnowflakeIdGenerator(0, 1);
+
+        InMemoryStandIns.UrlTable rows = new InMemoryStandIns.UrlTable();
+        Map<String, String> redis = new ConcurrentHashMap<>();
+        codes = new String[CODES];
+        for (int i = 0; i < CODES; i++) {
+            long id = idGenerator.nextId();
+            String code = encoder.encode(id);
+            String originalUrl = "https://example.com/articles/" + i + "?utm_source=benchmark";
+            codes[i] = code;
+            rows.put(Url.builder()
+                    .id(id)
+                    .shortCode(code)
+                    .originalUrl(originalUrl)
+                    .createdAt(LocalDateTime.now())
+                    .clickCount(0L)
+                    .build());
+            if (tier == Tier.REDIS) {
+                redis.put("url:" + code, CachedUrl.of(originalUrl, CachedUrl.NEVER, Duration.ofHours(24), 1).encode());
+            }
+        }
+
+        LocalCacheConfig localCacheConfig = new LocalCacheConfig();
+        localCacheConfig.setEnabled(tier == Tier.LOCAL);
+        // Redis keeps what it was seeded with; the database tier never gets a Redis hit
+        RedisTemplate<String, String> redisTemplate = InMemoryStandIns.redisTemplate(redis, tier != Tier.DATABASE);
+        LocalUrlCache localUrlCache = new LocalUrlCache(localCacheConfig, metricsService);
+        UrlCacheConfig urlCacheConfig = new UrlCacheConfig();
+        UrlCacheStore urlCacheStore = new UrlCacheStore(redisTemplate, urlCacheConfig);
+
+        urlService = new UrlService(
+                InMemoryStandIns.urlRepository(rows),
+                encoder,
+                urlCacheStore,
+                metricsService,
+                new UrlValidationService(),
+                localUrlCache,
+                new CacheInvalidationService(redisTemplate, localUrlCache, urlCacheStore, localCacheConfig,
+                        metricsService, null),
+                null,
+                new ClickCounter(null, null, null, metricsService),
+                new ClickCountConfig(),
+                null,
+                idGenerator,
+                new IdGenerationConfig(),
+                urlCacheConfig,
+                new CacheRefresher(urlCacheConfig, metricsService),
+                new HotKeyTracker(new HotKeyConfig(), localUrlCache, redisTemplate, metricsService),
+                new ReadYourWrites(new ReplicaRoutingConfig()),
+                InMemoryStandIns.urlAliasRepository(rows),
+                new UrlResolutionConfig(),
+                new UrlDedupService(null, new UrlDedupConfig(), metricsService),
+                new ShortCodeNamespace(encoder, new IdGenerationConfig(), null));
+
+        // Fill the local cache up front so the first iteration isn't all misses
+        for (String code : codes) {
+            urlService.getOriginalUrl(code);
+        }
+    }
+
+    @Benchmark
+    public String getOriginalUrl(Cursor cursor) {
+        String code = codes[cursor.index];
+        cursor.index = cursor.index + 1 == CODES ? 0 : cursor.index + 1;
+        return urlService.getOriginalUrl(code);
+    }
+}
@@ -0,0 +1,164 @@
+package com.urlshortener.benchmark;
+
+import com.urlshortener.cache.CachedUrl;
+import com.urlshortener.cache.UrlCacheConfig;
+import com.urlshortener.cache.UrlCacheStore;
+import com.urlshortener.util.Base62Encoder;
+import com.urlshortener.util.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis memory per cached link: one string key per link vs bucketed hashes,
+ * with and without value compression.
+ *
+ * Needs a real Redis (benchmark.redis.host / benchmark.redis.port, default
+ * localhost:6379). Each iteration FLUSHes benchmark.redis.db (default 15) and
+ * sets hash-max-listpack-value to benchmark.redis.listpack-value (default 256)
+ * so that typical entries keep buckets listpack-encoded, as recommended for
+ * production. The score is the write time; the bytesPerLink secondary metric
+ * is the used_memory growth divided by the number of links.
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="RedisMemoryBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 3)
+@Fork(1)
+public class RedisMemoryBenchmark {
+
+    private static final int PIPELINE_BATCH = 10_000;
+
+    @Param({"KEYS", "BUCKETED", "BUCKETED_COMPRESSED"})
+    public String variant;
+
+    @Param({"100000"})
+    public int links;
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, String> redisTemplate;
+    private UrlCacheStore store;
+    private String[] codes;
+    private CachedUrl[] entries;
+    private long usedMemoryBefore;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Memory {
+        public long bytesPerLink;
+    }
+
+    @Setup(Level.Trial)
+    public void connect() {
+        RedisStandaloneConfiguration redis = new RedisStandaloneConfiguration(
+                System.getProperty("benchmark.redis.host", "localhost"),
+                Integer.getInteger("benchmark.redis.port", 6379));
+        redis.setDatabase(Integer.getInteger("benchmark.redis.db", 15));
+        connectionFactory = new LettuceConnectionFactory(redis);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setDefaultSerializer(new StringRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().setConfig("hash-max-listpack-value",
+                    System.getProperty("benchmark.redis.listpack-value", "256"));
+            return null;
+        });
+
+        UrlCacheConfig config = new UrlCacheConfig();
+        config.setLayout(variant.equals("KEYS") ? UrlCacheConfig.Layout.KEYS : UrlCacheConfig.Layout.BUCKETED);
+        config.setCompressionThreshold(variant.equals("BUCKETED_COMPRESSED") ? 96 : 0);
+        // ~100 links per bucket, as sized for production
+        config.setBucketCount(Math.max(1, links / 100));
+        store = new UrlCacheStore(redisTemplate, config);
+
+        Base62Encoder encoder = new Base62Encoder();
+        SnowflakeIdGenerator idGenerator = new SnowflakeIdGenerator(0, 1);
+        codes = new String[links];
+        entries = new CachedUrl[links];
+        for (int i = 0; i < links; i++) {
+            codes[i] = encoder.encode(idGenerator.nextId());
+            entries[i] = CachedUrl.of(url(i), CachedUrl.NEVER, Duration.ofHours(24), 2);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void flush() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        });
+        usedMemoryBefore = usedMemory();
+    }
+
+    @Benchmark
+    public void writeLinks(Memory memory) {
+        long keepMillis = Duration.ofHours(25).toMillis();
+        for (int start = 0; start < links; start += PIPELINE_BATCH) {
+            int end = Math.min(links, start + PIPELINE_BATCH);
+            if (variant.equals("KEYS")) {
+                int from = start;
+                redisTemplate.executePipelined(new SessionCallback<Object>() {
+                    @Override
+                    public <K, V> Object execute(RedisOperations<K, V> operations) {
+                        for (int i = from; i < end; i++) {
+                            store.put(codes[i], entries[i], keepMillis);
+                        }
+                        return null;
+                    }
+                });
+            } else {
+                Map<String, CachedUrl> batch = new HashMap<>();
+                for (int i = start; i < end; i++) {
+                    batch.put(codes[i], entries[i]);
+                }
+                store.putAll(batch);
+            }
+        }
+        memory.bytesPerLink = (usedMemory() - usedMemoryBefore) / links;
+    }
+
+    @TearDown(Level.Trial)
+    public void disconnect() {
+        if (!variant.equals("KEYS")) {
+            String encoding = redisTemplate.execute((RedisCallback<String>) connection ->
+                    String.valueOf(connection.keyCommands().encodingOf(
+                            ("url:b:" + store.bucketOf(codes[0])).getBytes(StandardCharsets.UTF_8))));
+            System.out.println("Bucket encoding: " + encoding);
+        }
+        connectionFactory.destroy();
+    }
+
+    private long usedMemory() {
+        return redisTemplate.execute((RedisCallback<Long>) connection ->
+                Long.parseLong(connection.serverCommands().info("memory").getProperty("used_memory")));
+    }
+
+    // Mix of short links and tracking-heavy campaign links
+    private static String url(int i) {
+        return switch (i % 4) {
+            case 0 -> "https://example.com/p/" + i;
+            case 1 -> "https://www.example.com/blog/2026/post-" + i;
+            case 2 -> "https://shop.example.com/products/" + i + "?utm_source=newsletter&utm_medium=email"
+                    + "&utm_campaign=autumn-sale";
+            default -> "https://news.example.org/articles/" + i + "/a-fairly-long-headline-slug-for-the-story"
+                    + "?ref=homepage&utm_source=twitter&utm_medium=social&utm_campaign=launch&utm_content=" + i;
+        };
+    }
+}
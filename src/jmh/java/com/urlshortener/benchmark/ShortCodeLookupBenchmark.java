@@ -0,0 +1,136 @@
+package com.urlshortener.benchmark;
+
+import com.urlshortener.model.Url;
+import com.urlshortener.repository.CachedLinkView;
+import com.urlshortener.repository.UrlRepository;
+import com.urlshortener.util.Base62Encoder;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redirect lookups at database level: the managed Url entity by short_code
+ * (the old path), a projection by short_code, and a projection by primary key
+ * after decoding the code (the ID_DECODE path).
+ *
+ * Needs a real Postgres (benchmark.db.url, default
+ * jdbc:postgresql://localhost:5432/urlshortener_bench, with benchmark.db.username
+ * / benchmark.db.password). The urls table is created by Hibernate and topped up
+ * to the rows param once, with ids 1..rows and codes Base62(id); later runs reuse
+ * it. Lookups hit random rows so most of them miss the shared buffers on a small
+ * instance, as production redirects past the cache do.
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="ShortCodeLookupBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ShortCodeLookupBenchmark {
+
+    private static final int SEED_BATCH = 10_000;
+    private static final int CODES = 1 << 16;
+
+    @Param({"10000000"})
+    public long rows;
+
+    private HikariDataSource dataSource;
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private EntityManager entityManager;
+    private UrlRepository urlRepository;
+    private Base62Encoder encoder;
+    private String[] codes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void connect() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(System.getProperty("benchmark.db.url",
+                "jdbc:postgresql://localhost:5432/urlshortener_bench?reWriteBatchedInserts=true"));
+        dataSource.setUsername(System.getProperty("benchmark.db.username", "postgres"));
+        dataSource.setPassword(System.getProperty("benchmark.db.password", "postgres"));
+
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan(Url.class.getPackageName());
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "update"));
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+        entityManager = entityManagerFactory.createEntityManager();
+        urlRepository = new JpaRepositoryFactory(entityManager).getRepository(UrlRepository.class);
+
+        encoder = new Base62Encoder();
+        seed(new JdbcTemplate(dataSource));
+
+        codes = new String[CODES];
+        for (int i = 0; i < CODES; i++) {
+            codes[i] = encoder.encode(ThreadLocalRandom.current().nextLong(1, rows + 1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        entityManager.close();
+        factoryBean.destroy();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public String entityByShortCode() {
+        Optional<Url> url = urlRepository.findByShortCode(nextCode());
+        // Drop the managed entity, as the end of the request's persistence context would
+        entityManager.clear();
+        return url.map(Url::getOriginalUrl).orElseThrow();
+    }
+
+    @Benchmark
+    public String projectionByShortCode() {
+        Optional<CachedLinkView> link = urlRepository.findLinkByShortCode(nextCode());
+        entityManager.clear();
+        return link.map(CachedLinkView::getOriginalUrl).orElseThrow();
+    }
+
+    @Benchmark
+    public String projectionByDecodedId() {
+        String code = nextCode();
+        Optional<CachedLinkView> link = urlRepository.findLinkById(encoder.decode(code))
+                .filter(row -> code.equals(row.getShortCode()));
+        entityManager.clear();
+        return link.map(CachedLinkView::getOriginalUrl).orElseThrow();
+    }
+
+    private String nextCode() {
+        return codes[next++ & (CODES - 1)];
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM urls", Long.class);
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        for (long start = max + 1; start <= rows; start += SEED_BATCH) {
+            long end = Math.min(rows, start + SEED_BATCH - 1);
+            List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+            for (long id = start; id <= end; id++) {
+                batch.add(new Object[]{id, "https://example.com/articles/" + id, encoder.encode(id), createdAt});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO urls (id, original_url, short_code, created_at, click_count) " +
+                    "VALUES (?, ?, ?, ?, 0)", batch);
+        }
+        jdbcTemplate.execute("ANALYZE urls");
+    }
+}
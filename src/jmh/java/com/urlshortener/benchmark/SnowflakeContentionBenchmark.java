@@ -0,0 +1,67 @@
+package com.urlshortener.benchmark;
+
+import com.urlshortener.util.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monitor-based vs lock-free Snowflake generation under contention.
+ *
+ * Both generators are capped at 4096 ids per millisecond; the interesting
+ * numbers are throughput below that cap and the per-call latency spread as
+ * threads are added. Run the 1-64 thread sweep with:
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.main=com.urlshortener.benchmark.SnowflakeContentionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnowflakeContentionBenchmark {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+
+    private LegacySnowflakeIdGenerator legacy;
+    private SnowflakeIdGenerator lockFree;
+
+    @Setup
+    public void setUp() {
+        legacy = new LegacySnowflakeIdGenerator(0, 1);
+        lockFree = new SnowflakeIdGenerator(0, 1);
+    }
+
+    @Benchmark
+    public long legacyNextId() {
+        return legacy.nextId();
+    }
+
+    @Benchmark
+    public long lockFreeNextId() {
+        return lockFree.nextId();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(64)
+    public long lockFreeReserveRange() {
+        return lockFree.reserveRange(64).firstId();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREAD_COUNTS) {
+            Options options = new OptionsBuilder()
+                    .include(SnowflakeContentionBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("target/jmh-snowflake-" + threads + "t.json")
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.urlshortener.benchmark;
+
+import com.urlshortener.security.UrlValidationService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UrlValidationService.validateUrl over corpora resembling create traffic:
+ * short links, long tracking URLs with query strings, and rejected input
+ * (the exception path is part of the cost of abusive traffic).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlValidationBenchmark {
+
+    private static final String[] SHORT = {
+            "https://example.com",
+            "https://github.com/spring-projects/spring-boot",
+            "http://news.ycombinator.com/item?id=39123456",
+            "https://en.wikipedia.org/wiki/Snowflake_ID",
+            "https://docs.oracle.com/en/java/javase/17/",
+            "https://www.youtube.com/watch?v=dQw4w9WgXcQ",
+            "https://stackoverflow.com/questions/12345678/how-to-parse-a-url",
+            "https://blog.example.org/2024/05/17/post-title"
+    };
+
+    private static final String[] TRACKING = {
+            "https://www.amazon.com/dp/B08N5WRWNW/ref=sr_1_1?crid=2M096C61O4MLT&keywords=laptop&qid=1700000000"
+                    + "&sprefix=lap%2Caps%2C283&sr=8-1&th=1&psc=1",
+            "https://shop.example.com/products/item-12345?utm_source=newsletter&utm_medium=email"
+                    + "&utm_campaign=spring_sale_2024&utm_content=hero_banner&utm_term=running+shoes&gclid=abc123XYZ",
+            "https://www.google.com/maps/place/Eiffel+Tower/@48.8583701,2.2922926,17z/data=!3m1!4b1!4m6!3m5"
+                    + "!1s0x47e66e2964e34e2d:0x8ddca9ee380ef7e0!8m2!3d48.8583701!4d2.2944813",
+            "https://calendar.example.com/event?eid=NjdmZGM0ZjEzZWJiNGQ3ZWE5ZTNkMWY1YjQ5NjMxMjAgdXNlckBleGFtcGxlLmNvbQ"
+                    + "&ctz=Europe/Berlin&hl=en&es=1",
+            "https://cdn.example.net/assets/images/2024/06/very/deep/path/structure/with/many/segments/image.png"
+                    + "?width=1200&height=630&format=webp&quality=85&v=1718000000"
+    };
+
+    private static final String[] REJECTED = {
+            "ftp://files.example.com/pub/file.tar.gz",
+            "http://localhost:8080/admin",
+            "https://login.phishing-site.com/verify",
+            "https://example.com/redirect?to=http://evil.example",
+            "javascript:alert(1)",
+            "not a url at all",
+            "https://printer.local/status",
+            "http://127.0.0.1/metrics"
+    };
+
+    public enum Corpus { SHORT, TRACKING, REJECTED, MIXED }
+
+    @Param({"SHORT", "TRACKING", "REJECTED", "MIXED"})
+    public Corpus corpus;
+
+    private final UrlValidationService validationService = new UrlValidationService();
+    private String[] urls;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        urls = switch (corpus) {
+            case SHORT -> SHORT;
+            case TRACKING -> TRACKING;
+            case REJECTED -> REJECTED;
+            // Roughly the shape of real create traffic: mostly valid, some junk
+            case MIXED -> concat(SHORT, SHORT, TRACKING, REJECTED);
+        };
+    }
+
+    @Benchmark
+    public void validateUrl(Blackhole blackhole) {
+        String url = urls[index];
+        index = (index + 1) % urls.length;
+        try {
+            validationService.validateUrl(url);
+            blackhole.consume(true);
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    private static String[] concat(String[]... parts) {
+        return java.util.Arrays.stream(parts).flatMap(java.util.Arrays::stream).toArray(String[]::new);
+    }
+}
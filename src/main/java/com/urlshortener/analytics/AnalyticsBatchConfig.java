@@ -0,0 +1,30 @@
+package com.urlshortener.analytics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "analytics.consumer")
+@Data
+public class AnalyticsBatchConfig {
+
+    private boolean batchEnabled = true;
+
+    // Upper bound on records per poll (max.poll.records)
+    private int maxBatchSize = 500;
+
+    // How long the broker may hold a fetch to fill a batch (fetch.max.wait.ms)
+    private Duration maxWait = Duration.ofMillis(500);
+
+    // Bytes the broker waits for before answering a fetch early (fetch.min.bytes)
+    private int fetchMinBytes = 64 * 1024;
+
+    private int concurrency = 3;
+
+    // Back-off between redeliveries of a poll whose write failed, doubling up to the max; never gives up
+    private Duration retryInitialInterval = Duration.ofSeconds(1);
+    private Duration retryMaxInterval = Duration.ofSeconds(30);
+}
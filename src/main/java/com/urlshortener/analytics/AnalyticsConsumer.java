@@ -1,32 +1,82 @@
 package com.urlshortener.analytics;
 
-import com.urlshortener.repository.UrlRepository;
+import com.urlshortener.cache.ClickRanking;
+import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.repository.ClickCountRepository;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AnalyticsConsumer {
 
-    private final UrlRepository urlRepository;
+    private final ClickCounter clickCounter;
+    private final ClickCountConfig clickCountConfig;
+    private final ClickCountRepository clickCountRepository;
+    private final ClickRanking clickRanking;
+    private final MetricsService metricsService;
+
+    /**
+     * Batch mode: collapse a polled batch into per-code deltas and write them in one transaction.
+     * An exception propagates to the container, so the batch's offsets are only committed
+     * after the write succeeds.
+     */
+    @KafkaListener(topics = "url-clicks", groupId = "url-shortener-analytics", batch = "true",
+            autoStartup = "${analytics.consumer.batch-enabled:true}")
+    public void consumeClickEvents(List<ClickEvent> events) {
+        log.debug("Processing batch of {} click events", events.size());
+        metricsService.recordAnalyticsBatchSize(events.size());
+
+        // In LOCAL mode the redirect path already counted these clicks
+        if (clickCountConfig.getMode() != ClickCountConfig.Mode.KAFKA) {
+            return;
+        }
+
+        Map<String, Long> deltas = aggregate(events);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        Timer.Sample sample = metricsService.startTimer();
+        try {
+            clickCountRepository.incrementClickCounts(deltas);
+            log.debug("Applied {} click events as {} code deltas", events.size(), deltas.size());
+        } finally {
+            metricsService.recordAnalyticsFlushLatency(sample);
+        }
+        clickRanking.record(deltas);
+    }
 
-    @KafkaListener(topics = "url-clicks", groupId = "url-shortener-analytics")
-    @Transactional
+    @KafkaListener(topics = "url-clicks", groupId = "url-shortener-analytics", batch = "false",
+            autoStartup = "#{!${analytics.consumer.batch-enabled:true}}")
     public void consumeClickEvent(ClickEvent event) {
         try {
             log.debug("Processing click event for short code: {}", event.getShortCode());
-            
-            urlRepository.findByShortCode(event.getShortCode())
-                    .ifPresent(url -> {
-                        urlRepository.incrementClickCount(url.getId());
-                        log.debug("Incremented click count for: {}", event.getShortCode());
-                    });
+
+            // In LOCAL mode the redirect path already counted this click
+            if (clickCountConfig.getMode() == ClickCountConfig.Mode.KAFKA) {
+                clickCounter.increment(event.getShortCode());
+            }
         } catch (Exception e) {
             log.error("Error processing click event for short code: {}", event.getShortCode(), e);
         }
     }
+
+    private Map<String, Long> aggregate(List<ClickEvent> events) {
+        Map<String, Long> deltas = new HashMap<>();
+        for (ClickEvent event : events) {
+            if (event != null && event.getShortCode() != null) {
+                deltas.merge(event.getShortCode(), 1L, Long::sum);
+            }
+        }
+        return deltas;
+    }
 }
@@ -0,0 +1,23 @@
+package com.urlshortener.analytics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "click-count")
+@Data
+public class ClickCountConfig {
+
+    /**
+     * Who owns click counting:
+     * LOCAL - the redirect path aggregates clicks in-process
+     * KAFKA - the analytics consumer aggregates published click events
+     */
+    private Mode mode = Mode.LOCAL;
+
+    public enum Mode {
+        LOCAL,
+        KAFKA
+    }
+}
@@ -0,0 +1,120 @@
+package com.urlshortener.analytics;
+
+import com.urlshortener.cache.ClickRanking;
+import com.urlshortener.cache.UrlStatsCache;
+import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.repository.ClickCountRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory click counter table keyed by short code
+ *
+ * Clicks land in a LongAdder per code (striped cells, CAS only), so the hot
+ * path neither locks nor allocates once a code has been seen. Deltas are
+ * flushed to Postgres on an interval in one batched UPDATE, and on shutdown.
+ * Flushed codes are evicted from the bulk stats cache and their deltas added
+ * to the shared click ranking.
+ */
+@Component
+@Slf4j
+public class ClickCounter {
+
+    private final ClickCountRepository clickCountRepository;
+    private final UrlStatsCache urlStatsCache;
+    private final ClickRanking clickRanking;
+    private final MetricsService metricsService;
+    private final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public ClickCounter(ClickCountRepository clickCountRepository, UrlStatsCache urlStatsCache,
+                        ClickRanking clickRanking, MetricsService metricsService) {
+        this.clickCountRepository = clickCountRepository;
+        this.urlStatsCache = urlStatsCache;
+        this.clickRanking = clickRanking;
+        this.metricsService = metricsService;
+
+        metricsService.registerGauge("click.count.pending.codes", "Short codes with unflushed click deltas",
+                counters::size);
+    }
+
+    public void increment(String shortCode) {
+        add(shortCode, 1);
+    }
+
+    public void add(String shortCode, long delta) {
+        LongAdder adder = counters.get(shortCode);
+        if (adder == null) {
+            adder = counters.computeIfAbsent(shortCode, key -> new LongAdder());
+        }
+        adder.add(delta);
+    }
+
+    /**
+     * Clicks recorded for a code that have not been flushed yet
+     */
+    public long pending(String shortCode) {
+        LongAdder adder = counters.get(shortCode);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    /**
+     * Flush accumulated deltas to the database
+     */
+    @Scheduled(fixedDelayString = "${click-count.flush-interval:5000}")
+    public synchronized void flush() {
+        Map<String, Long> deltas = drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            int updated = clickCountRepository.incrementClickCounts(deltas);
+            metricsService.incrementClickCountFlushed(updated);
+            log.debug("Flushed click counts for {} codes ({} rows) in {} ms",
+                    deltas.size(), updated, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to flush click counts for {} codes, will retry", deltas.size(), e);
+            // Put the deltas back so the next flush retries them
+            deltas.forEach(this::add);
+            return;
+        }
+
+        try {
+            // These clicks moved from pending() to the database: a cached count would now miss them
+            urlStatsCache.evictAll(deltas.keySet());
+        } catch (Exception e) {
+            log.warn("Failed to evict cached stats for {} codes", deltas.size(), e);
+        }
+        clickRanking.record(deltas);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Flushing pending click counts before shutdown");
+        flush();
+    }
+
+    private Map<String, Long> drain() {
+        Map<String, Long> deltas = new HashMap<>();
+        for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            LongAdder adder = entry.getValue();
+            long delta = adder.sumThenReset();
+            if (delta == 0 && counters.remove(entry.getKey(), adder)) {
+                // Idle since the last flush; pick up anything that raced with the removal
+                delta = adder.sumThenReset();
+            }
+            if (delta != 0) {
+                deltas.put(entry.getKey(), delta);
+            }
+        }
+        return deltas;
+    }
+}
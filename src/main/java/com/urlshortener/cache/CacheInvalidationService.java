@@ -0,0 +1,115 @@
+package com.urlshortener.cache;
+
+import com.urlshortener.monitoring.MetricsService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Keeps the local cache tier of every node consistent.
+ *
+ * When a link changes or expires, the Redis entry is removed and an
+ * invalidation message is published on a pub/sub channel. Every node
+ * (including this one) drops the code from its local cache on receipt.
+ * Message format: {@code <nodeId>:<shortCode>}
+ */
+@Service
+@Slf4j
+public class CacheInvalidationService implements MessageListener {
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final LocalUrlCache localUrlCache;
+    private final UrlCacheStore urlCacheStore;
+    private final LocalCacheConfig config;
+    private final MetricsService metricsService;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public CacheInvalidationService(RedisTemplate<String, String> redisTemplate,
+                                    LocalUrlCache localUrlCache,
+                                    UrlCacheStore urlCacheStore,
+                                    LocalCacheConfig config,
+                                    MetricsService metricsService,
+                                    RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.localUrlCache = localUrlCache;
+        this.urlCacheStore = urlCacheStore;
+        this.config = config;
+        this.metricsService = metricsService;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @PostConstruct
+    public void registerListener() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(config.getInvalidationChannel()));
+    }
+
+    /**
+     * Subscribe to the invalidation channel, retrying until Redis is reachable
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${local-cache.subscribe-retry-interval:30000}")
+    public void ensureSubscribed() {
+        if (listenerContainer.isRunning()) {
+            return;
+        }
+
+        try {
+            listenerContainer.start();
+            log.info("Subscribed to cache invalidation channel: {}", config.getInvalidationChannel());
+        } catch (Exception e) {
+            log.warn("Unable to subscribe to cache invalidation channel, will retry: {}", e.getMessage());
+            try {
+                listenerContainer.stop();
+            } catch (Exception ignored) {
+                // Container was never fully started
+            }
+        }
+    }
+
+    /**
+     * Remove a short code from every cache tier on every node
+     */
+    public void invalidate(String shortCode) {
+        localUrlCache.invalidate(shortCode);
+
+        try {
+            urlCacheStore.delete(shortCode);
+            metricsService.incrementCacheEviction();
+            redisTemplate.convertAndSend(config.getInvalidationChannel(), nodeId + ":" + shortCode);
+        } catch (Exception e) {
+            log.error("Failed to publish cache invalidation for: {}", shortCode, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        if (separator < 0) {
+            log.warn("Ignoring malformed cache invalidation message: {}", body);
+            return;
+        }
+
+        if (body.startsWith(nodeId) && separator == nodeId.length()) {
+            // Already applied locally
+            return;
+        }
+
+        String shortCode = body.substring(separator + 1);
+        localUrlCache.invalidate(shortCode);
+        log.debug("Invalidated local cache entry from peer: {}", shortCode);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
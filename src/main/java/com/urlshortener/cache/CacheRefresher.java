@@ -0,0 +1,68 @@
+package com.urlshortener.cache;
+
+import com.urlshortener.monitoring.MetricsService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs background refreshes of cache entries, at most one per key at a time
+ */
+@Component
+@Slf4j
+public class CacheRefresher {
+
+    private final MetricsService metricsService;
+    private final ThreadPoolTaskExecutor executor;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    public CacheRefresher(UrlCacheConfig config, MetricsService metricsService) {
+        this.metricsService = metricsService;
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(config.getRefreshThreads());
+        executor.setMaxPoolSize(config.getRefreshThreads());
+        executor.setQueueCapacity(config.getRefreshQueueCapacity());
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.initialize();
+
+        metricsService.registerGauge("cache.refresh.pending", "Background cache refreshes queued or running",
+                refreshing::size);
+    }
+
+    /**
+     * Schedule a refresh unless one is already pending for the key
+     * @param stale True if the entry has passed its TTL (served stale), false for an early refresh
+     */
+    public void refreshAsync(String key, boolean stale, Runnable refresh) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    refresh.run();
+                } catch (Exception e) {
+                    log.warn("Background refresh failed for {}", key, e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+            metricsService.incrementCacheRefresh(stale);
+        } catch (TaskRejectedException e) {
+            refreshing.remove(key);
+            log.debug("Refresh queue full, skipping refresh of {}", key);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,201 @@
+package com.urlshortener.cache;
+
+import com.urlshortener.repository.CachedLinkView;
+import com.urlshortener.repository.UrlRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Preloads the local cache and Redis before a node takes traffic
+ *
+ * Runs once the application is up, in order: the peers' shared heavy-hitter
+ * list and the shared click ranking (both served from Redis where possible,
+ * the rest looked up by short code), then the most recently created links.
+ * Every Postgres read is an index lookup or an id keyset page, never a
+ * table scan, and reads are paced to max-rows-per-second so a rolling deploy
+ * or scale-out of many pods doesn't turn into a load spike. Registered
+ * as the cacheWarmup health indicator and included in the readiness group,
+ * so the node reports OUT_OF_SERVICE until warm-up finishes or times out.
+ */
+@Component("cacheWarmup")
+@Slf4j
+public class CacheWarmer implements HealthIndicator {
+
+    private final CacheWarmupConfig config;
+    private final UrlRepository urlRepository;
+    private final UrlCacheStore urlCacheStore;
+    private final UrlCacheConfig urlCacheConfig;
+    private final LocalUrlCache localUrlCache;
+    private final HotKeyTracker hotKeyTracker;
+    private final ClickRanking clickRanking;
+
+    private final AtomicLong linksWarmed = new AtomicLong();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private volatile long startedAt;
+    private volatile boolean finished;
+    private volatile String outcome = "pending";
+
+    public CacheWarmer(CacheWarmupConfig config,
+                       UrlRepository urlRepository,
+                       UrlCacheStore urlCacheStore,
+                       UrlCacheConfig urlCacheConfig,
+                       LocalUrlCache localUrlCache,
+                       HotKeyTracker hotKeyTracker,
+                       ClickRanking clickRanking) {
+        this.config = config;
+        this.urlRepository = urlRepository;
+        this.urlCacheStore = urlCacheStore;
+        this.urlCacheConfig = urlCacheConfig;
+        this.localUrlCache = localUrlCache;
+        this.hotKeyTracker = hotKeyTracker;
+        this.clickRanking = clickRanking;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!config.isEnabled()) {
+            outcome = "disabled";
+            finished = true;
+            return;
+        }
+
+        Thread thread = new Thread(this::warm, "cache-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public Health health() {
+        boolean timedOut = startedAt != 0 && System.nanoTime() - startedAt >= config.getTimeout().toNanos();
+        Health.Builder builder = finished || timedOut ? Health.up() : Health.outOfService();
+        return builder
+                .withDetail("outcome", finished || !timedOut ? outcome : "timed out, still warming")
+                .withDetail("linksWarmed", linksWarmed.get())
+                .withDetail("rowsRead", rowsRead.get())
+                .build();
+    }
+
+    /**
+     * Run the warm-up on the calling thread
+     */
+    void warm() {
+        startedAt = System.nanoTime();
+        outcome = "running";
+        try {
+            warmPeerHotKeys();
+            warmMostClicked();
+            warmRecentlyCreated();
+            outcome = pastDeadline() ? "timed out" : "completed";
+        } catch (Exception e) {
+            log.warn("Cache warm-up failed, continuing with a partially warm cache", e);
+            outcome = "failed: " + e.getMessage();
+        } finally {
+            finished = true;
+            log.info("Cache warm-up {}: {} links warmed, {} rows read in {} ms", outcome, linksWarmed.get(),
+                    rowsRead.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        }
+    }
+
+    private void warmPeerHotKeys() {
+        if (config.getPeerHotKeys() <= 0) {
+            return;
+        }
+        warmCodes(hotKeyTracker.peerHotKeys(config.getPeerHotKeys()));
+    }
+
+    private void warmMostClicked() {
+        if (config.getMostClicked() <= 0 || pastDeadline()) {
+            return;
+        }
+        warmCodes(clickRanking.top(config.getMostClicked()));
+    }
+
+    /**
+     * Take codes from Redis where cached, and look the rest up by short code
+     */
+    private void warmCodes(List<String> shortCodes) {
+        List<String> missing = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (String shortCode : shortCodes) {
+            CachedUrl cached = urlCacheStore.get(shortCode);
+            if (cached == null) {
+                missing.add(shortCode);
+            } else if (!cached.isLinkExpired(now)) {
+                localUrlCache.putUntil(shortCode, cached.originalUrl(), cached.linkExpiresAt());
+                linksWarmed.incrementAndGet();
+            }
+        }
+
+        for (int from = 0; from < missing.size() && !pastDeadline(); from += config.getPageSize()) {
+            List<String> chunk = missing.subList(from, Math.min(missing.size(), from + config.getPageSize()));
+            fill(urlRepository.findLinksByShortCodeIn(chunk));
+        }
+    }
+
+    private void warmRecentlyCreated() {
+        long beforeId = Long.MAX_VALUE;
+        int loaded = 0;
+        while (loaded < config.getRecentlyCreated() && !pastDeadline()) {
+            int size = Math.min(config.getPageSize(), config.getRecentlyCreated() - loaded);
+            List<CachedLinkView> page = urlRepository.findLinksBefore(beforeId, PageRequest.of(0, size));
+            fill(page);
+            loaded += page.size();
+            if (page.size() < size) {
+                break;
+            }
+            beforeId = page.get(page.size() - 1).getId();
+        }
+    }
+
+    /**
+     * Put rows read from Postgres into both tiers, then wait out the read budget
+     */
+    private void fill(List<CachedLinkView> rows) {
+        long now = System.currentTimeMillis();
+        Map<String, CachedUrl> entries = new HashMap<>();
+        for (CachedLinkView row : rows) {
+            long linkExpiresAt = CachedUrl.linkExpiry(row.getExpiryDate());
+            if (linkExpiresAt != CachedUrl.NEVER && linkExpiresAt <= now) {
+                continue;
+            }
+            entries.put(row.getShortCode(),
+                    CachedUrl.of(row.getOriginalUrl(), linkExpiresAt, urlCacheConfig.getTtl(), 0L));
+            localUrlCache.putUntil(row.getShortCode(), row.getOriginalUrl(), linkExpiresAt);
+        }
+        if (!entries.isEmpty()) {
+            urlCacheStore.putAll(entries);
+        }
+        linksWarmed.addAndGet(entries.size());
+        pace(rows.size());
+    }
+
+    private void pace(int rows) {
+        long read = rowsRead.addAndGet(rows);
+        long earliest = startedAt + TimeUnit.SECONDS.toNanos(read) / config.getMaxRowsPerSecond();
+        long waitNanos = earliest - System.nanoTime();
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private boolean pastDeadline() {
+        return Thread.currentThread().isInterrupted()
+                || System.nanoTime() - startedAt >= config.getTimeout().toNanos();
+    }
+}
@@ -0,0 +1,36 @@
+package com.urlshortener.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "cache-warmup")
+@Data
+public class CacheWarmupConfig {
+
+    private boolean enabled = true;
+
+    // Codes taken from the peers' shared heavy-hitter list
+    private int peerHotKeys = 1000;
+
+    // Most-clicked links, taken from the shared click ranking in Redis (ClickRanking), 0 to skip
+    private int mostClicked = 1000;
+
+    // Sorted set the click count flushes rank codes in, and how many members it keeps
+    private String mostClickedKey = "clicks:ranking";
+    private int mostClickedTracked = 10_000;
+
+    // Most recently created links, read newest first in pages
+    private int recentlyCreated = 5000;
+
+    private int pageSize = 500;
+
+    // Upper bound on rows read from Postgres per second while warming
+    private int maxRowsPerSecond = 2000;
+
+    // Readiness stops waiting after this long; the node then serves with whatever is warm
+    private Duration timeout = Duration.ofSeconds(60);
+}
@@ -0,0 +1,51 @@
+package com.urlshortener.cache;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stats of one link as kept in Redis by UrlStatsCache
+ *
+ * Encoded as id|clickCount|createdAt|expiryDate|originalUrl, with ISO local
+ * date-times and an empty expiryDate for links that never expire. The URL
+ * goes last since it may itself contain the separator.
+ */
+public record CachedStats(long id, long clickCount, LocalDateTime createdAt, LocalDateTime expiryDate,
+                          String originalUrl) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        return Long.toString(id) + SEPARATOR + clickCount + SEPARATOR + createdAt + SEPARATOR
+                + (expiryDate != null ? expiryDate : "") + SEPARATOR + originalUrl;
+    }
+
+    /**
+     * @return the entry, or null if the value is missing or malformed
+     */
+    public static CachedStats decode(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+
+        int[] separators = new int[4];
+        int from = 0;
+        for (int i = 0; i < separators.length; i++) {
+            separators[i] = value.indexOf(SEPARATOR, from);
+            if (separators[i] < 0) {
+                return null;
+            }
+            from = separators[i] + 1;
+        }
+        try {
+            String expiryDate = value.substring(separators[2] + 1, separators[3]);
+            return new CachedStats(
+                    Long.parseLong(value, 0, separators[0], 10),
+                    Long.parseLong(value, separators[0] + 1, separators[1], 10),
+                    LocalDateTime.parse(value.substring(separators[1] + 1, separators[2])),
+                    expiryDate.isEmpty() ? null : LocalDateTime.parse(expiryDate),
+                    value.substring(separators[3] + 1));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
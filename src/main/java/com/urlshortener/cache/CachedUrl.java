@@ -0,0 +1,93 @@
+package com.urlshortener.cache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Redis cache entry for a short code: the original URL and when the link
+ * expires, plus when the entry was written, how long it stays fresh and how
+ * long the database load took
+ *
+ * Stored as "~writtenAt|ttl|loadMillis|linkExpiresAt|url" (epoch millis /
+ * millis, linkExpiresAt 0 for links that never expire), so a cache hit can
+ * reject an expired link without reading the row. Values written before this
+ * format (a bare URL) decode as already stale, so they are served once and
+ * rewritten by a background refresh.
+ */
+public record CachedUrl(String originalUrl, long linkExpiresAt, long writtenAt, long ttlMillis, long loadMillis) {
+
+    public static final long NEVER = 0L;
+
+    private static final char MARKER = '~';
+    private static final char SEPARATOR = '|';
+
+    public static CachedUrl of(String originalUrl, long linkExpiresAt, Duration ttl, long loadMillis) {
+        return new CachedUrl(originalUrl, linkExpiresAt, System.currentTimeMillis(), ttl.toMillis(), loadMillis);
+    }
+
+    /**
+     * Epoch millis for a link expiry date (system time zone, as Url.isExpired uses), or NEVER
+     */
+    public static long linkExpiry(LocalDateTime expiryDate) {
+        return expiryDate != null ? expiryDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : NEVER;
+    }
+
+    public String encode() {
+        return MARKER + Long.toString(writtenAt) + SEPARATOR + ttlMillis + SEPARATOR + loadMillis
+                + SEPARATOR + linkExpiresAt + SEPARATOR + originalUrl;
+    }
+
+    /**
+     * @return the entry, or null if the value is missing or malformed
+     */
+    public static CachedUrl decode(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        if (value.charAt(0) != MARKER) {
+            return new CachedUrl(value, NEVER, 0L, 0L, 0L);
+        }
+
+        int[] separators = new int[4];
+        int from = 1;
+        for (int i = 0; i < separators.length; i++) {
+            separators[i] = value.indexOf(SEPARATOR, from);
+            if (separators[i] < 0) {
+                return null;
+            }
+            from = separators[i] + 1;
+        }
+        try {
+            return new CachedUrl(value.substring(separators[3] + 1),
+                    Long.parseLong(value, separators[2] + 1, separators[3], 10),
+                    Long.parseLong(value, 1, separators[0], 10),
+                    Long.parseLong(value, separators[0] + 1, separators[1], 10),
+                    Long.parseLong(value, separators[1] + 1, separators[2], 10));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public long expiresAt() {
+        return writtenAt + ttlMillis;
+    }
+
+    public boolean isStale(long now) {
+        return now >= expiresAt();
+    }
+
+    public boolean isLinkExpired(long now) {
+        return linkExpiresAt != NEVER && now >= linkExpiresAt;
+    }
+
+    /**
+     * Probabilistic early expiration (XFetch): the closer to expiry and the slower the
+     * load, the likelier a read is to refresh, so one reader refreshes a hot key
+     * shortly before it expires rather than all readers missing together after.
+     * @param random Uniform sample in (0, 1]
+     */
+    public boolean shouldRefreshEarly(long now, double beta, double random) {
+        return now - Math.max(1, loadMillis) * beta * Math.log(random) >= expiresAt();
+    }
+}
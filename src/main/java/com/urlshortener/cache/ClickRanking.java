@@ -0,0 +1,63 @@
+package com.urlshortener.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Shared ranking of the most-clicked short codes, kept as a Redis sorted set
+ *
+ * Every click count flush adds its per-code deltas with pipelined ZINCRBY,
+ * so the ranking costs one round-trip per flush and no Postgres reads.
+ * The set is trimmed to most-clicked-tracked members. Cache warm-up reads the
+ * top of it instead of sorting the urls table by click_count. Clicks counted
+ * before the ranking existed are not in it.
+ */
+@Component
+@Slf4j
+public class ClickRanking {
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final CacheWarmupConfig config;
+
+    public ClickRanking(RedisTemplate<String, String> redisTemplate, CacheWarmupConfig config) {
+        this.redisTemplate = redisTemplate;
+        this.config = config;
+    }
+
+    /**
+     * Add flushed click deltas; best effort, a failure only makes the ranking less complete
+     */
+    public void record(Map<String, Long> deltas) {
+        if (config.getMostClicked() <= 0 || deltas.isEmpty()) {
+            return;
+        }
+
+        byte[] key = config.getMostClickedKey().getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                deltas.forEach((shortCode, delta) ->
+                        connection.zSetCommands().zIncrBy(key, delta, shortCode.getBytes(StandardCharsets.UTF_8)));
+                // Keep the highest-ranked members only
+                connection.zSetCommands().zRemRange(key, 0, -(config.getMostClickedTracked() + 1L));
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Failed to record {} click deltas in the ranking: {}", deltas.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * @return up to limit codes, most clicked first
+     */
+    public List<String> top(int limit) {
+        Set<String> codes = redisTemplate.opsForZSet().reverseRange(config.getMostClickedKey(), 0, limit - 1);
+        return codes != null ? List.copyOf(codes) : List.of();
+    }
+}
@@ -0,0 +1,95 @@
+package com.urlshortener.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Byte encoding for cache values in the bucketed Redis layout
+ *
+ * Values above a size threshold are raw-deflated against a preset dictionary
+ * of common URL fragments (schemes, hosts, tracking parameters), which is
+ * what makes compression pay off on inputs of only a few hundred bytes.
+ * Compressed values start with a 0x01 tag byte; anything else is plain UTF-8
+ * (cache values start with '~' or a URL scheme, never 0x01).
+ */
+final class CompactValueCodec {
+
+    private static final byte DEFLATED = 0x01;
+
+    // Deflate prefers matches near the end of the dictionary, so the most common fragments go last
+    private static final byte[] DICTIONARY = (
+            "&sessionid=&session=&token=&lang=en&page=&sort=&q=&s=&t=&v=&id=&ref="
+            + ".jpg.png.pdf.aspx.php.html/index/search?/products/product/article/articles/blog/news/post/"
+            + "utm_id=&gclid=&fbclid=&utm_term=&utm_content=&utm_campaign=&utm_medium=&utm_source="
+            + "https://docs.google.com/https://github.com/https://www.amazon.com/https://www.youtube.com/watch?v="
+            + ".co.uk/.io/.net/.org/.com/http://www.https://www.").getBytes(StandardCharsets.UTF_8);
+
+    private static final ThreadLocal<Deflater> DEFLATER =
+            ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_COMPRESSION, true));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    private CompactValueCodec() {
+    }
+
+    /**
+     * @param threshold Values up to this many bytes are stored as-is; 0 or less disables compression
+     */
+    static byte[] encode(String value, int threshold) {
+        byte[] plain = value.getBytes(StandardCharsets.UTF_8);
+        if (threshold <= 0 || plain.length <= threshold) {
+            return plain;
+        }
+
+        Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setDictionary(DICTIONARY);
+        deflater.setInput(plain);
+        deflater.finish();
+
+        // Only worth keeping if it comes out smaller, tag byte included
+        byte[] out = new byte[plain.length];
+        out[0] = DEFLATED;
+        int length = 1 + deflater.deflate(out, 1, out.length - 1);
+        if (!deflater.finished()) {
+            return plain;
+        }
+        return Arrays.copyOf(out, length);
+    }
+
+    static String decode(byte[] value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.length == 0 || value[0] != DEFLATED) {
+            return new String(value, StandardCharsets.UTF_8);
+        }
+
+        Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setDictionary(DICTIONARY);
+        // Raw inflate may need one byte past the end of the stream
+        byte[] input = Arrays.copyOfRange(value, 1, value.length + 1);
+        inflater.setInput(input);
+
+        byte[] out = new byte[Math.max(64, value.length * 4)];
+        int length = 0;
+        try {
+            while (!inflater.finished()) {
+                if (length == out.length) {
+                    out = Arrays.copyOf(out, out.length * 2);
+                }
+                int n = inflater.inflate(out, length, out.length - length);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += n;
+            }
+        } catch (DataFormatException e) {
+            return null;
+        }
+        return inflater.finished() ? new String(out, 0, length, StandardCharsets.UTF_8) : null;
+    }
+}
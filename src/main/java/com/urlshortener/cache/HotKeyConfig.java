@@ -0,0 +1,33 @@
+package com.urlshortener.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "hot-keys")
+@Data
+public class HotKeyConfig {
+
+    private boolean enabled = true;
+
+    // Count-Min sketch size; overcount is at most ~e/width of recent traffic
+    private int sketchWidth = 4096;
+
+    private int sketchDepth = 4;
+
+    // How many of the busiest codes are tracked and reported
+    private int topK = 20;
+
+    // Counts are halved on this interval (ms), so they track recent traffic
+    private long decayInterval = 10_000;
+
+    // Codes below this rate (requests/second on this node) are not tracked
+    private double minTrackedRate = 1.0;
+
+    // Codes at or above this rate (requests/second on this node) are pinned in the local cache
+    private double pinRate = 50.0;
+
+    // Redis sorted sets (one per decay window) where nodes share their top keys
+    private String sharedKeyPrefix = "hot-keys:";
+}
@@ -0,0 +1,25 @@
+package com.urlshortener.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint for the busiest short codes on this node
+ * GET /actuator/hotkeys - top K codes with approximate request rates and pin state
+ */
+@Component
+@Endpoint(id = "hotkeys")
+@RequiredArgsConstructor
+public class HotKeyEndpoint {
+
+    private final HotKeyTracker hotKeyTracker;
+
+    @ReadOperation
+    public List<HotKeyTracker.HotKey> topKeys() {
+        return hotKeyTracker.topKeys();
+    }
+}
@@ -0,0 +1,172 @@
+package com.urlshortener.cache;
+
+import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.util.CountMinSketch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming heavy-hitter detection for short codes on the redirect path
+ *
+ * Each redirect adds to a Count-Min sketch (a few atomic increments, no
+ * per-code meters). Codes whose estimate clears the admission count become
+ * candidates in a small bounded set. On every decay tick the candidates are
+ * ranked, the top K are published, codes at or above pin-rate are pinned in
+ * the local cache (and ones that cooled down unpinned), and the sketch is
+ * halved so counts follow recent traffic. With halving every T, a code at a
+ * steady r requests/second sits at about 2rT just before the halving, which
+ * is where rates are read. Each node also adds its top K to a shared Redis
+ * sorted set per decay window, which new nodes read to warm their caches.
+ */
+@Component
+@Slf4j
+public class HotKeyTracker {
+
+    public record HotKey(String shortCode, long estimatedCount, double ratePerSecond, boolean pinned) {
+    }
+
+    private final HotKeyConfig config;
+    private final LocalUrlCache localUrlCache;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final CountMinSketch sketch;
+    private final Set<String> candidates = ConcurrentHashMap.newKeySet();
+    private final int candidateCapacity;
+
+    private volatile long admitCount;
+    private volatile List<HotKey> topKeys = List.of();
+    private volatile Set<String> pinned = Set.of();
+
+    public HotKeyTracker(HotKeyConfig config,
+                         LocalUrlCache localUrlCache,
+                         RedisTemplate<String, String> redisTemplate,
+                         MetricsService metricsService) {
+        this.config = config;
+        this.localUrlCache = localUrlCache;
+        this.redisTemplate = redisTemplate;
+        this.sketch = new CountMinSketch(config.getSketchWidth(), config.getSketchDepth());
+        this.candidateCapacity = config.getTopK() * 8;
+        this.admitCount = countAt(config.getMinTrackedRate());
+
+        metricsService.registerGauge("hot.keys.pinned", "Short codes pinned in the local cache as hot keys",
+                () -> pinned.size());
+    }
+
+    /**
+     * Count one redirect of a short code
+     */
+    public void record(String shortCode) {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        long estimate = sketch.add(shortCode);
+        if (estimate >= admitCount && !candidates.contains(shortCode) && candidates.size() < candidateCapacity) {
+            candidates.add(shortCode);
+        }
+    }
+
+    /**
+     * Busiest codes as of the last decay tick, highest rate first
+     */
+    public List<HotKey> topKeys() {
+        return topKeys;
+    }
+
+    public boolean isPinned(String shortCode) {
+        return pinned.contains(shortCode);
+    }
+
+    /**
+     * Busiest codes across all nodes in the last complete decay window, highest combined rate first
+     */
+    public List<String> peerHotKeys(int limit) {
+        long window = System.currentTimeMillis() / config.getDecayInterval() - 1;
+        Set<String> codes = redisTemplate.opsForZSet().reverseRange(sharedKey(window), 0, limit - 1);
+        return codes != null ? List.copyOf(codes) : List.of();
+    }
+
+    /**
+     * Rank candidates, update pins and age the sketch
+     */
+    @Scheduled(initialDelayString = "${hot-keys.decay-interval:10000}",
+               fixedDelayString = "${hot-keys.decay-interval:10000}")
+    public synchronized void decay() {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        List<HotKey> ranked = candidates.stream()
+                .map(code -> {
+                    long count = sketch.estimate(code);
+                    return new HotKey(code, count, rateOf(count), rateOf(count) >= config.getPinRate());
+                })
+                .sorted(Comparator.comparingLong(HotKey::estimatedCount).reversed())
+                .limit(config.getTopK())
+                .toList();
+
+        Set<String> hot = new HashSet<>();
+        for (HotKey key : ranked) {
+            if (key.pinned()) {
+                hot.add(key.shortCode());
+            }
+        }
+        for (String code : pinned) {
+            if (!hot.contains(code)) {
+                localUrlCache.unpin(code);
+                log.info("Unpinned cooled-down key: {}", code);
+            }
+        }
+        for (String code : hot) {
+            if (!pinned.contains(code)) {
+                localUrlCache.pin(code);
+                log.info("Pinned hot key: {}", code);
+            }
+        }
+        pinned = Set.copyOf(hot);
+        topKeys = ranked;
+        share(ranked);
+
+        candidates.retainAll(ranked.stream().map(HotKey::shortCode).toList());
+        // After the halving, a newcomer has to reach half the current K-th count to be considered
+        long kth = ranked.size() == config.getTopK() ? ranked.get(ranked.size() - 1).estimatedCount() / 2 : 0;
+        admitCount = Math.max(countAt(config.getMinTrackedRate()), kth);
+        sketch.halve();
+    }
+
+    private void share(List<HotKey> ranked) {
+        if (ranked.isEmpty()) {
+            return;
+        }
+        String key = sharedKey(System.currentTimeMillis() / config.getDecayInterval());
+        try {
+            for (HotKey hotKey : ranked) {
+                redisTemplate.opsForZSet().incrementScore(key, hotKey.shortCode(), hotKey.ratePerSecond());
+            }
+            redisTemplate.expire(key, Duration.ofMillis(config.getDecayInterval() * 3));
+        } catch (Exception e) {
+            log.debug("Failed to share hot keys with peers: {}", e.getMessage());
+        }
+    }
+
+    private String sharedKey(long window) {
+        return config.getSharedKeyPrefix() + window;
+    }
+
+    // Count a code at this rate has right after a halving
+    private long countAt(double ratePerSecond) {
+        return Math.max(1L, (long) Math.ceil(ratePerSecond * config.getDecayInterval() / 1000.0));
+    }
+
+    private double rateOf(long count) {
+        return count / (2.0 * config.getDecayInterval() / 1000.0);
+    }
+}
@@ -0,0 +1,22 @@
+package com.urlshortener.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "local-cache")
+@Data
+public class LocalCacheConfig {
+
+    private boolean enabled = true;
+
+    // Approximate size budget in bytes (short code + original URL per entry)
+    private long maximumWeight = 64L * 1024 * 1024;
+
+    private Duration ttl = Duration.ofMinutes(10);
+
+    private String invalidationChannel = "url-invalidation";
+}
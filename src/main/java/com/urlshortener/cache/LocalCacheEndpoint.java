@@ -0,0 +1,33 @@
+package com.urlshortener.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint for the local URL cache
+ * GET  /actuator/urlcache                          - cache stats
+ * POST /actuator/urlcache {"maximumWeight": bytes} - resize at runtime
+ */
+@Component
+@Endpoint(id = "urlcache")
+@RequiredArgsConstructor
+public class LocalCacheEndpoint {
+
+    private final LocalUrlCache localUrlCache;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return localUrlCache.stats();
+    }
+
+    @WriteOperation
+    public Map<String, Object> resize(long maximumWeight) {
+        localUrlCache.resize(maximumWeight);
+        return localUrlCache.stats();
+    }
+}
@@ -0,0 +1,182 @@
+package com.urlshortener.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.urlshortener.monitoring.MetricsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process L1 cache for short code -> original URL mappings.
+ *
+ * Sits in front of Redis. Backed by Caffeine (W-TinyLFU), so admission and
+ * eviction are frequency based and the cache is bounded by weight rather than
+ * entry count. Each entry carries its own expiry. Pinned codes (hot keys)
+ * weigh nothing, so size-based eviction never removes them, and they are
+ * cached even when the local tier is otherwise disabled; they still expire.
+ */
+@Component
+@Slf4j
+public class LocalUrlCache {
+
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final LocalCacheConfig config;
+    private final MetricsService metricsService;
+    private final Cache<String, String> cache;
+    private final Set<String> pinned = ConcurrentHashMap.newKeySet();
+
+    public LocalUrlCache(LocalCacheConfig config, MetricsService metricsService) {
+        this.config = config;
+        this.metricsService = metricsService;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(config.getMaximumWeight())
+                .weigher((String shortCode, String originalUrl) ->
+                        pinned.contains(shortCode) ? 0 : weigh(shortCode, originalUrl))
+                .expireAfter(new Expiry<String, String>() {
+                    @Override
+                    public long expireAfterCreate(String key, String value, long currentTime) {
+                        return config.getTtl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, String value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, String value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .evictionListener((key, value, cause) -> metricsService.incrementLocalCacheEviction())
+                .recordStats()
+                .build();
+
+        log.info("Local URL cache initialized with maximumWeight={}, ttl={}",
+                config.getMaximumWeight(), config.getTtl());
+    }
+
+    /**
+     * Get cached original URL, or null on miss
+     */
+    public String get(String shortCode) {
+        if (!isCached(shortCode)) {
+            return null;
+        }
+
+        String url = cache.getIfPresent(shortCode);
+        if (url != null) {
+            metricsService.incrementLocalCacheHit();
+        } else {
+            metricsService.incrementLocalCacheMiss();
+        }
+        return url;
+    }
+
+    public void put(String shortCode, String originalUrl) {
+        put(shortCode, originalUrl, config.getTtl());
+    }
+
+    /**
+     * Cache a mapping with its own time-to-live
+     */
+    public void put(String shortCode, String originalUrl, Duration ttl) {
+        if (!isCached(shortCode) || ttl.isZero() || ttl.isNegative()) {
+            return;
+        }
+        cache.policy().expireVariably()
+                .ifPresent(expiry -> expiry.put(shortCode, originalUrl, ttl));
+    }
+
+    /**
+     * Cache a mapping for the configured TTL, but no later than the link's own expiry
+     * @param linkExpiresAt Epoch millis the link expires at, or CachedUrl.NEVER
+     */
+    public void putUntil(String shortCode, String originalUrl, long linkExpiresAt) {
+        if (linkExpiresAt == CachedUrl.NEVER) {
+            put(shortCode, originalUrl);
+            return;
+        }
+        Duration remaining = Duration.ofMillis(linkExpiresAt - System.currentTimeMillis());
+        put(shortCode, originalUrl, remaining.compareTo(config.getTtl()) < 0 ? remaining : config.getTtl());
+    }
+
+    /**
+     * Exempt a code from size-based eviction (and from local-cache.enabled=false)
+     */
+    public void pin(String shortCode) {
+        if (pinned.add(shortCode)) {
+            reweigh(shortCode);
+        }
+    }
+
+    public void unpin(String shortCode) {
+        if (pinned.remove(shortCode)) {
+            if (config.isEnabled()) {
+                reweigh(shortCode);
+            } else {
+                cache.invalidate(shortCode);
+            }
+        }
+    }
+
+    public void invalidate(String shortCode) {
+        cache.invalidate(shortCode);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Change the weight budget at runtime
+     */
+    public void resize(long maximumWeight) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("Maximum weight must not be negative");
+        }
+        cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(maximumWeight));
+        config.setMaximumWeight(maximumWeight);
+        log.info("Local URL cache resized to maximumWeight={}", maximumWeight);
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", config.isEnabled());
+        result.put("size", cache.estimatedSize());
+        result.put("weightedSize", cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L));
+        result.put("maximumWeight", cache.policy().eviction()
+                .map(eviction -> eviction.getMaximum()).orElse(0L));
+        result.put("ttl", config.getTtl().toString());
+        result.put("pinned", pinned.size());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+
+    private boolean isCached(String shortCode) {
+        return config.isEnabled() || pinned.contains(shortCode);
+    }
+
+    // Re-insert the current value so Caffeine recomputes its weight; the remaining TTL is kept
+    private void reweigh(String shortCode) {
+        cache.asMap().computeIfPresent(shortCode, (key, value) -> value);
+    }
+
+    private static int weigh(String shortCode, String originalUrl) {
+        return ENTRY_OVERHEAD + shortCode.length() + originalUrl.length();
+    }
+}
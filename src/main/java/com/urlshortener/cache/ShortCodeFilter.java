@@ -0,0 +1,252 @@
+package com.urlshortener.cache;
+
+import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.repository.ShortCodeView;
+import com.urlshortener.repository.UrlRepository;
+import com.urlshortener.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Per-node probabilistic membership filter of all existing short codes
+ *
+ * Lets the redirect path answer "definitely not found" for scanner and typo
+ * traffic without touching Redis or the database. Built from the urls table
+ * at startup, updated on create (locally and on peers via pub/sub) and
+ * periodically rebuilt to pick up anything a peer message missed.
+ * Until the first build completes every code is treated as possibly present.
+ *
+ * Pub/sub is fire-and-forget, so a lost message, a listener not yet
+ * subscribed or a failed publish would leave a real code rejected until the
+ * next rebuild. Ids only grow (Snowflake ids are time-ordered, IDENTITY ids
+ * come from a sequence), so every catch-up-interval the filter also reads the
+ * rows added since its previous catch-up by id keyset. Each catch-up starts
+ * where the one before the previous started, so a row whose insert commits
+ * one interval late is still picked up.
+ *
+ * Links acknowledged but not yet in the urls table (write-behind) are not
+ * found by the scan; their owners register them through registerPendingCodes
+ * and every rebuild adds them.
+ */
+@Component
+@Slf4j
+public class ShortCodeFilter implements MessageListener {
+
+    private final UrlRepository urlRepository;
+    private final ShortCodeFilterConfig config;
+    private final MetricsService metricsService;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter rebuilding;
+
+    private final List<Supplier<? extends Collection<String>>> pendingCodes = new CopyOnWriteArrayList<>();
+
+    // Catch-up keyset cursors: where the previous scan ended, and where the one before it ended
+    private long lastScanEnd;
+    private long catchUpFrom;
+
+    public ShortCodeFilter(UrlRepository urlRepository,
+                           ShortCodeFilterConfig config,
+                           MetricsService metricsService,
+                           RedisTemplate<String, String> redisTemplate,
+                           RedisMessageListenerContainer listenerContainer) {
+        this.urlRepository = urlRepository;
+        this.config = config;
+        this.metricsService = metricsService;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+
+        metricsService.registerGauge("short.code.filter.size.bits", "Size of the short code filter in bits",
+                () -> filter != null ? filter.bitSize() : 0);
+        metricsService.registerGauge("short.code.filter.fill.ratio", "Fraction of filter bits set",
+                () -> filter != null ? filter.fillRatio() : 0);
+        metricsService.registerGauge("short.code.filter.false.positive.rate", "Estimated false positive rate",
+                () -> filter != null ? filter.expectedFalsePositiveRate() : 0);
+    }
+
+    @PostConstruct
+    public void registerListener() {
+        if (config.isEnabled()) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(config.getChannel()));
+        }
+    }
+
+    /**
+     * @return false if the short code definitely does not exist
+     */
+    public boolean mightContain(String shortCode) {
+        BloomFilter current = filter;
+        if (!config.isEnabled() || current == null) {
+            return true;
+        }
+
+        if (current.mightContain(shortCode)) {
+            return true;
+        }
+        metricsService.incrementShortCodeFilterRejected();
+        return false;
+    }
+
+    /**
+     * Record a newly created short code on this node and on every peer
+     */
+    public void add(String shortCode) {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        addLocal(shortCode);
+        try {
+            redisTemplate.convertAndSend(config.getChannel(), shortCode);
+        } catch (Exception e) {
+            log.error("Failed to publish short code to peers: {}", shortCode, e);
+        }
+    }
+
+    /**
+     * Codes that exist for clients but may not have a row yet; added on every rebuild
+     */
+    public void registerPendingCodes(Supplier<? extends Collection<String>> codes) {
+        pendingCodes.add(codes);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        addLocal(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${short-code-filter.rebuild-interval:3600000}",
+               fixedDelayString = "${short-code-filter.rebuild-interval:3600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Add the codes of rows inserted since the previous catch-up, in case their pub/sub message was lost
+     */
+    @Scheduled(initialDelayString = "${short-code-filter.catch-up-interval:5000}",
+               fixedDelayString = "${short-code-filter.catch-up-interval:5000}")
+    public synchronized void catchUp() {
+        BloomFilter current = filter;
+        if (!config.isEnabled() || current == null) {
+            return;
+        }
+
+        try {
+            long[] missed = new long[1];
+            long end = scan(catchUpFrom, code -> {
+                if (!current.mightContain(code)) {
+                    missed[0]++;
+                }
+                current.put(code);
+            });
+            advance(end);
+            if (missed[0] > 0) {
+                log.warn("Short code filter catch-up added {} codes missed by peer updates", missed[0]);
+                metricsService.incrementShortCodeFilterCaughtUp(missed[0]);
+            }
+        } catch (Exception e) {
+            log.error("Short code filter catch-up failed, retrying from the same id", e);
+        }
+    }
+
+    /**
+     * Rebuild the filter from the urls table and swap it in
+     */
+    public synchronized void rebuild() {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            long expected = Math.max(config.getExpectedInsertions(), urlRepository.count() * 2);
+            BloomFilter next = BloomFilter.create(expected, config.getFalsePositiveRate());
+            // Codes created while the scan runs go into both filters
+            rebuilding = next;
+            // Taken before the scan: a code leaves the pending set only once its row is committed
+            List<Collection<String>> pending = pendingCodes.stream().<Collection<String>>map(Supplier::get).toList();
+
+            long[] loaded = new long[1];
+            long end = scan(0L, code -> {
+                next.put(code);
+                loaded[0]++;
+            });
+
+            for (Collection<String> codes : pending) {
+                codes.forEach(next::put);
+                loaded[0] += codes.size();
+            }
+            filter = next;
+            advance(end);
+            log.info("Short code filter rebuilt with {} codes in {} ms (bits={}, hashes={})",
+                    loaded[0], System.currentTimeMillis() - start, next.bitSize(), next.hashFunctions());
+        } catch (Exception e) {
+            log.error("Failed to rebuild short code filter, keeping previous filter", e);
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    /**
+     * Keyset scan of the codes of rows with an id above afterId
+     * @return the highest id seen, or afterId if there were none
+     */
+    private long scan(long afterId, Consumer<String> codes) {
+        List<ShortCodeView> page;
+        do {
+            page = urlRepository.findShortCodesAfter(afterId, PageRequest.of(0, config.getRebuildPageSize()));
+            for (ShortCodeView row : page) {
+                if (row.getShortCode() != null) {
+                    codes.accept(row.getShortCode());
+                }
+                afterId = row.getId();
+            }
+        } while (page.size() == config.getRebuildPageSize());
+        return afterId;
+    }
+
+    /**
+     * The next catch-up starts where the previous scan started from, not where it ended,
+     * so an insert that commits up to one interval after a higher id is still seen
+     */
+    private void advance(long scanEnd) {
+        catchUpFrom = lastScanEnd > 0 ? Math.min(lastScanEnd, scanEnd) : scanEnd;
+        lastScanEnd = Math.max(lastScanEnd, scanEnd);
+    }
+
+    private void addLocal(String shortCode) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(shortCode);
+        }
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(shortCode);
+        }
+    }
+}
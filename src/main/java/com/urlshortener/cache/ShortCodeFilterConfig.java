@@ -0,0 +1,22 @@
+package com.urlshortener.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "short-code-filter")
+@Data
+public class ShortCodeFilterConfig {
+
+    private boolean enabled = true;
+
+    // Minimum capacity; the filter is sized to twice the row count if larger
+    private long expectedInsertions = 10_000_000L;
+
+    private double falsePositiveRate = 0.01;
+
+    private int rebuildPageSize = 10_000;
+
+    private String channel = "short-code-created";
+}
@@ -0,0 +1,49 @@
+package com.urlshortener.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "url-cache")
+@Data
+public class UrlCacheConfig {
+
+    public enum Layout {
+        // One string key per link: url:<code>
+        KEYS,
+        // Links spread over a fixed number of small hashes (url:b:<n>) that Redis stores as listpacks
+        BUCKETED
+    }
+
+    private Layout layout = Layout.KEYS;
+
+    // BUCKETED: size for ~100 links per bucket so buckets stay under hash-max-listpack-entries
+    private int bucketCount = 1 << 20;
+
+    // BUCKETED: values longer than this many bytes are deflated; 0 disables compression
+    private int compressionThreshold = 96;
+
+    // BUCKETED: buckets each node sweeps for dead fields per sweep-interval; a full pass
+    // takes bucket-count / sweep-buckets intervals. 0 disables the sweep
+    private int sweepBuckets = 500;
+
+    // Keys read and rewritten per round trip when migrating url:<code> keys into buckets
+    private int migrationBatchSize = 1000;
+
+    // How long a Redis entry counts as fresh
+    private Duration ttl = Duration.ofHours(24);
+
+    // How long past its TTL an entry is still served while a background refresh runs
+    private Duration staleWindow = Duration.ofHours(1);
+
+    // XFetch beta: above 1 refreshes earlier, below 1 later, 0 disables early refresh
+    private double earlyRefreshBeta = 1.0;
+
+    private int refreshThreads = 2;
+
+    // Refreshes beyond this are dropped; the entry is refreshed on a later read
+    private int refreshQueueCapacity = 1000;
+}
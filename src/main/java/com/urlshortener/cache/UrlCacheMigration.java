@@ -0,0 +1,150 @@
+package com.urlshortener.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves url:&lt;code&gt; string keys into the bucketed hash layout
+ *
+ * Run after switching url-cache.layout to BUCKETED: SCANs the old keys in
+ * batches, writes each batch into its buckets in one pipeline and deletes the
+ * originals. Bare-URL values from before the CachedUrl format carry no write
+ * time and would be dropped on first read in a bucket, so they are deleted
+ * rather than copied. Progress is exposed through the urlcachemigration
+ * actuator endpoint; the scan is safe to re-run after an interruption.
+ */
+@Component
+@Slf4j
+public class UrlCacheMigration {
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final UrlCacheStore urlCacheStore;
+    private final UrlCacheConfig config;
+
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong migrated = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean running;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public UrlCacheMigration(RedisTemplate<String, String> redisTemplate,
+                             UrlCacheStore urlCacheStore,
+                             UrlCacheConfig config) {
+        this.redisTemplate = redisTemplate;
+        this.urlCacheStore = urlCacheStore;
+        this.config = config;
+    }
+
+    /**
+     * Start the migration on a background thread
+     * @return false if one is already running
+     */
+    public synchronized boolean start() {
+        if (config.getLayout() != UrlCacheConfig.Layout.BUCKETED) {
+            throw new IllegalStateException("Switch url-cache.layout to BUCKETED before migrating");
+        }
+        if (running) {
+            return false;
+        }
+
+        running = true;
+        Thread thread = new Thread(this::runAndRecord, "url-cache-migration");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("layout", config.getLayout());
+        result.put("running", running);
+        result.put("startedAt", startedAt);
+        result.put("finishedAt", finishedAt);
+        result.put("scanned", scanned.get());
+        result.put("migrated", migrated.get());
+        result.put("dropped", dropped.get());
+        result.put("error", error);
+        return result;
+    }
+
+    private void runAndRecord() {
+        try {
+            run();
+        } catch (Exception e) {
+            log.error("URL cache migration failed after {} keys", scanned.get(), e);
+            error = e.getMessage();
+        } finally {
+            finishedAt = Instant.now();
+            running = false;
+        }
+    }
+
+    /**
+     * Migrate every url:&lt;code&gt; key on the calling thread
+     */
+    void run() {
+        startedAt = Instant.now();
+        finishedAt = null;
+        error = null;
+        scanned.set(0);
+        migrated.set(0);
+        dropped.set(0);
+
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(UrlCacheStore.KEY_PREFIX + "*")
+                .count(config.getMigrationBatchSize())
+                .build();
+        List<String> batch = new ArrayList<>(config.getMigrationBatchSize());
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                String key = cursor.next();
+                if (key.startsWith(UrlCacheStore.BUCKET_PREFIX)) {
+                    continue;
+                }
+                batch.add(key);
+                if (batch.size() == config.getMigrationBatchSize()) {
+                    migrateBatch(batch);
+                    batch = new ArrayList<>(config.getMigrationBatchSize());
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            migrateBatch(batch);
+        }
+        log.info("URL cache migration finished: scanned={}, migrated={}, dropped={}",
+                scanned.get(), migrated.get(), dropped.get());
+    }
+
+    private void migrateBatch(List<String> keys) {
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        Map<String, CachedUrl> entries = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            CachedUrl entry = values != null ? CachedUrl.decode(values.get(i)) : null;
+            if (entry != null && entry.writtenAt() > 0) {
+                entries.put(keys.get(i).substring(UrlCacheStore.KEY_PREFIX.length()), entry);
+            }
+        }
+
+        if (!entries.isEmpty()) {
+            urlCacheStore.putAll(entries);
+        }
+        redisTemplate.delete(keys);
+
+        scanned.addAndGet(keys.size());
+        migrated.addAndGet(entries.size());
+        dropped.addAndGet(keys.size() - entries.size());
+    }
+}
@@ -0,0 +1,33 @@
+package com.urlshortener.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint for migrating the Redis URL cache to the bucketed layout
+ * GET  /actuator/urlcachemigration - progress
+ * POST /actuator/urlcachemigration - start (no-op if already running)
+ */
+@Component
+@Endpoint(id = "urlcachemigration")
+@RequiredArgsConstructor
+public class UrlCacheMigrationEndpoint {
+
+    private final UrlCacheMigration urlCacheMigration;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return urlCacheMigration.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> start() {
+        urlCacheMigration.start();
+        return urlCacheMigration.status();
+    }
+}
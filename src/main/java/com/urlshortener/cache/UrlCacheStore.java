@@ -0,0 +1,227 @@
+package com.urlshortener.cache;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis storage for short code -> CachedUrl entries, in one of two layouts
+ *
+ * KEYS stores each link as its own string key (url:&lt;code&gt;) with a
+ * per-key TTL. BUCKETED hashes the code into one of bucket-count hashes
+ * (url:b:&lt;n&gt;, field = code), so each link costs a listpack entry instead
+ * of a top-level key. Hash fields carry no TTL, so in that layout expiry is
+ * read from the entry itself. Dead fields are removed when read, and by
+ * UrlCacheSweeper walking the buckets in the background: each write pushes
+ * the bucket's own expiry (ttl + stale window) back, so a busy bucket would
+ * otherwise keep fields nobody reads again forever. Redis keeps a hash in
+ * listpack encoding only while it stays under hash-max-listpack-entries and
+ * every value under hash-max-listpack-value, so raise the latter (default
+ * 64 bytes) to cover typical entries.
+ */
+@Component
+public class UrlCacheStore {
+
+    static final String KEY_PREFIX = "url:";
+    static final String BUCKET_PREFIX = "url:b:";
+
+    // Buckets are sized to stay listpacks, which HSCAN returns whole regardless
+    private static final int SWEEP_SCAN_COUNT = 256;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final UrlCacheConfig config;
+
+    public UrlCacheStore(RedisTemplate<String, String> redisTemplate, UrlCacheConfig config) {
+        this.redisTemplate = redisTemplate;
+        this.config = config;
+    }
+
+    /**
+     * @return the entry, or null on a miss or an unreadable value
+     */
+    public CachedUrl get(String shortCode) {
+        if (config.getLayout() == UrlCacheConfig.Layout.KEYS) {
+            return CachedUrl.decode(redisTemplate.opsForValue().get(KEY_PREFIX + shortCode));
+        }
+
+        byte[] bucket = bucketKey(shortCode);
+        byte[] field = bytes(shortCode);
+        byte[] value = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.hashCommands().hGet(bucket, field));
+        if (value == null) {
+            return null;
+        }
+
+        CachedUrl entry = CachedUrl.decode(CompactValueCodec.decode(value));
+        if (entry == null || System.currentTimeMillis() >= keepUntil(entry)) {
+            // No per-field TTL in a hash: drop what a string key would already have lost
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.hashCommands().hDel(bucket, field));
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Read many entries in one round-trip: MGET in the KEYS layout, a pipeline of
+     * HGETs in the BUCKETED one. Dead hash fields are skipped here and left for
+     * get or the sweep to remove.
+     * @return the live entries found, by short code
+     */
+    public Map<String, CachedUrl> getAll(List<String> shortCodes) {
+        Map<String, CachedUrl> found = new HashMap<>();
+        if (shortCodes.isEmpty()) {
+            return found;
+        }
+
+        if (config.getLayout() == UrlCacheConfig.Layout.KEYS) {
+            List<String> values = redisTemplate.opsForValue().multiGet(
+                    shortCodes.stream().map(shortCode -> KEY_PREFIX + shortCode).toList());
+            for (int i = 0; values != null && i < shortCodes.size(); i++) {
+                CachedUrl entry = CachedUrl.decode(values.get(i));
+                if (entry != null) {
+                    found.put(shortCodes.get(i), entry);
+                }
+            }
+            return found;
+        }
+
+        List<Object> values = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String shortCode : shortCodes) {
+                connection.hashCommands().hGet(bucketKey(shortCode), bytes(shortCode));
+            }
+            return null;
+        }, RedisSerializer.byteArray());
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < shortCodes.size(); i++) {
+            if (values.get(i) instanceof byte[] value) {
+                CachedUrl entry = CachedUrl.decode(CompactValueCodec.decode(value));
+                if (entry != null && now < keepUntil(entry)) {
+                    found.put(shortCodes.get(i), entry);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @param keepMillis How long Redis should keep the entry (its TTL in the KEYS layout)
+     */
+    public void put(String shortCode, CachedUrl entry, long keepMillis) {
+        if (config.getLayout() == UrlCacheConfig.Layout.KEYS) {
+            redisTemplate.opsForValue().set(KEY_PREFIX + shortCode, entry.encode(), keepMillis, TimeUnit.MILLISECONDS);
+            return;
+        }
+
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            writeBucketed(connection, shortCode, entry);
+            return null;
+        }, true, true);
+    }
+
+    /**
+     * Write many entries in one pipeline. Each is kept until its stale window ends
+     * or its link expires; entries already past that are skipped.
+     */
+    public void putAll(Map<String, CachedUrl> entries) {
+        long now = System.currentTimeMillis();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            entries.forEach((shortCode, entry) -> {
+                long keepMillis = keepUntil(entry) - now;
+                if (keepMillis <= 0) {
+                    return;
+                }
+                if (config.getLayout() == UrlCacheConfig.Layout.KEYS) {
+                    connection.stringCommands().pSetEx(bytes(KEY_PREFIX + shortCode), keepMillis, bytes(entry.encode()));
+                } else {
+                    writeBucketed(connection, shortCode, entry);
+                }
+            });
+            return null;
+        });
+    }
+
+    public void delete(String shortCode) {
+        if (config.getLayout() == UrlCacheConfig.Layout.KEYS) {
+            redisTemplate.delete(KEY_PREFIX + shortCode);
+            return;
+        }
+
+        byte[] bucket = bucketKey(shortCode);
+        byte[] field = bytes(shortCode);
+        redisTemplate.execute((RedisCallback<Long>) connection -> connection.hashCommands().hDel(bucket, field));
+    }
+
+    /**
+     * HSCAN one bucket and HDEL the fields past their stale window or link expiry.
+     * A field rewritten between the scan and the delete is lost, which is only a
+     * cache miss: codes are written once and refreshed from the database.
+     * @return fields removed
+     */
+    public long sweep(long bucket) {
+        byte[] key = bytes(BUCKET_PREFIX + bucket);
+        ScanOptions options = ScanOptions.scanOptions().count(SWEEP_SCAN_COUNT).build();
+        Long removed = redisTemplate.execute((RedisCallback<Long>) connection -> {
+            long now = System.currentTimeMillis();
+            List<byte[]> dead = new ArrayList<>();
+            try (Cursor<Map.Entry<byte[], byte[]>> fields = connection.hashCommands().hScan(key, options)) {
+                while (fields.hasNext()) {
+                    Map.Entry<byte[], byte[]> field = fields.next();
+                    CachedUrl entry = CachedUrl.decode(CompactValueCodec.decode(field.getValue()));
+                    if (entry == null || now >= keepUntil(entry)) {
+                        dead.add(field.getKey());
+                    }
+                }
+            }
+            return dead.isEmpty() ? 0L : connection.hashCommands().hDel(key, dead.toArray(new byte[0][]));
+        });
+        return removed != null ? removed : 0L;
+    }
+
+    /**
+     * Bucket a code is stored in under the BUCKETED layout
+     */
+    public long bucketOf(String shortCode) {
+        return Math.floorMod(mix(shortCode.hashCode()), (long) config.getBucketCount());
+    }
+
+    private void writeBucketed(RedisConnection connection, String shortCode, CachedUrl entry) {
+        byte[] bucket = bucketKey(shortCode);
+        connection.hashCommands().hSet(bucket, bytes(shortCode),
+                CompactValueCodec.encode(entry.encode(), config.getCompressionThreshold()));
+        connection.keyCommands().pExpire(bucket, config.getTtl().plus(config.getStaleWindow()).toMillis());
+    }
+
+    private long keepUntil(CachedUrl entry) {
+        long keepUntil = entry.expiresAt() + config.getStaleWindow().toMillis();
+        return entry.linkExpiresAt() != CachedUrl.NEVER ? Math.min(keepUntil, entry.linkExpiresAt()) : keepUntil;
+    }
+
+    private byte[] bucketKey(String shortCode) {
+        return bytes(BUCKET_PREFIX + bucketOf(shortCode));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // MurmurHash3 fmix64 finalizer; String.hashCode alone clusters similar codes
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,58 @@
+package com.urlshortener.cache;
+
+import com.urlshortener.monitoring.MetricsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Removes dead fields from the bucketed Redis layout
+ *
+ * Walks url:b:0 .. url:b:&lt;bucket-count - 1&gt; round-robin, sweep-buckets per
+ * run, so the Redis work per interval is bounded and a full pass takes
+ * bucket-count / sweep-buckets intervals. Each node starts at a random
+ * bucket; sweeping a bucket twice is harmless.
+ */
+@Component
+@Slf4j
+public class UrlCacheSweeper {
+
+    private final UrlCacheStore urlCacheStore;
+    private final UrlCacheConfig config;
+    private final MetricsService metricsService;
+
+    // Only touched by the scheduler thread
+    private long nextBucket;
+
+    public UrlCacheSweeper(UrlCacheStore urlCacheStore, UrlCacheConfig config, MetricsService metricsService) {
+        this.urlCacheStore = urlCacheStore;
+        this.config = config;
+        this.metricsService = metricsService;
+        this.nextBucket = ThreadLocalRandom.current().nextLong(Math.max(1, config.getBucketCount()));
+    }
+
+    @Scheduled(initialDelayString = "${url-cache.sweep-interval:1000}",
+            fixedDelayString = "${url-cache.sweep-interval:1000}")
+    public void sweep() {
+        if (config.getLayout() != UrlCacheConfig.Layout.BUCKETED || config.getSweepBuckets() <= 0) {
+            return;
+        }
+
+        long removed = 0;
+        try {
+            for (int i = 0; i < config.getSweepBuckets(); i++) {
+                nextBucket = (nextBucket + 1) % config.getBucketCount();
+                removed += urlCacheStore.sweep(nextBucket);
+            }
+        } catch (Exception e) {
+            // Redis unavailable: carry on from the same bucket next run
+            log.warn("URL cache sweep stopped at bucket {}", nextBucket, e);
+        }
+        if (removed > 0) {
+            metricsService.incrementUrlCacheSwept(removed);
+            log.debug("Swept {} dead URL cache fields", removed);
+        }
+    }
+}
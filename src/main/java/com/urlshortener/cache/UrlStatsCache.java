@@ -0,0 +1,77 @@
+package com.urlshortener.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Short-lived per-link stats in Redis (stats:&lt;code&gt;), for the bulk stats endpoint
+ *
+ * Every call is one round-trip whatever the number of codes: MGET to read,
+ * a pipeline of PSETEX to write, one multi-key DEL to evict. ClickCounter
+ * evicts the codes it flushes, so a cached count never drops below what the
+ * database plus the node's pending deltas would give.
+ */
+@Component
+@RequiredArgsConstructor
+public class UrlStatsCache {
+
+    static final String KEY_PREFIX = "stats:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    /**
+     * @return the cached entries found, by short code
+     */
+    public Map<String, CachedStats> getAll(List<String> shortCodes) {
+        Map<String, CachedStats> found = new HashMap<>();
+        if (shortCodes.isEmpty()) {
+            return found;
+        }
+
+        List<String> values = redisTemplate.opsForValue().multiGet(keys(shortCodes));
+        if (values == null) {
+            return found;
+        }
+        for (int i = 0; i < shortCodes.size(); i++) {
+            CachedStats entry = CachedStats.decode(values.get(i));
+            if (entry != null) {
+                found.put(shortCodes.get(i), entry);
+            }
+        }
+        return found;
+    }
+
+    public void putAll(Map<String, CachedStats> entries, Duration ttl) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            entries.forEach((shortCode, entry) -> connection.stringCommands().pSetEx(
+                    bytes(KEY_PREFIX + shortCode), ttl.toMillis(), bytes(entry.encode())));
+            return null;
+        });
+    }
+
+    public void evictAll(Collection<String> shortCodes) {
+        if (!shortCodes.isEmpty()) {
+            redisTemplate.delete(keys(shortCodes));
+        }
+    }
+
+    private static List<String> keys(Collection<String> shortCodes) {
+        return shortCodes.stream().map(shortCode -> KEY_PREFIX + shortCode).toList();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
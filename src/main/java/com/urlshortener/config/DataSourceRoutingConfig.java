@@ -0,0 +1,79 @@
+package com.urlshortener.config;
+
+import com.urlshortener.datasource.ReplicaLagMonitor;
+import com.urlshortener.datasource.ReplicaRoutingConfig;
+import com.urlshortener.datasource.ReplicaRoutingDataSource;
+import com.urlshortener.datasource.ReplicaTarget;
+import com.urlshortener.monitoring.MetricsService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Primary + replica pools behind a routing data source (datasource-routing.enabled=true)
+ *
+ * The primary pool is built from spring.datasource as before; each replica
+ * gets its own Hikari pool. Pools are named after their target, so the
+ * hikaricp.connections.* metrics (active, pending, acquire and usage times)
+ * are reported per target.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource-routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        dataSource.setMetricRegistry(meterRegistry);
+        return dataSource;
+    }
+
+    @Bean
+    public List<ReplicaTarget> replicaTargets(ReplicaRoutingConfig config, DataSourceProperties properties,
+                                              MeterRegistry meterRegistry) {
+        List<ReplicaTarget> targets = new ArrayList<>();
+        for (int i = 0; i < config.getReplicas().size(); i++) {
+            ReplicaRoutingConfig.Replica replica = config.getReplicas().get(i);
+            String name = replica.getName() != null ? replica.getName() : "replica-" + (i + 1);
+
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(name);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : properties.getUsername());
+            dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : properties.getPassword());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            // A replica that is down at startup is simply skipped until its lag check succeeds
+            dataSource.setInitializationFailTimeout(-1);
+            dataSource.setMetricRegistry(meterRegistry);
+            targets.add(new ReplicaTarget(name, dataSource));
+        }
+        return targets;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingConfig config, List<ReplicaTarget> replicaTargets,
+                                               MetricsService metricsService) {
+        return new ReplicaLagMonitor(config, replicaTargets, metricsService);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, List<ReplicaTarget> replicaTargets,
+                                 MetricsService metricsService) {
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primaryDataSource, replicaTargets, metricsService));
+    }
+}
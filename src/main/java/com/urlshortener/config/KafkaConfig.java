@@ -1,6 +1,8 @@
 package com.urlshortener.config;
 
+import com.urlshortener.analytics.AnalyticsBatchConfig;
 import com.urlshortener.analytics.ClickEvent;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -11,8 +13,12 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.ExponentialBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -41,7 +47,8 @@ public class KafkaConfig {
     }
 
     @Bean
-    public ConsumerFactory<String, ClickEvent> consumerFactory() {
+    public ConsumerFactory<String, ClickEvent> consumerFactory(AnalyticsBatchConfig batchConfig,
+                                                               MeterRegistry meterRegistry) {
         Map<String, Object> config = new HashMap<>();
         config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ConsumerConfig.GROUP_ID_CONFIG, "url-shortener-analytics");
@@ -50,15 +57,44 @@ public class KafkaConfig {
         config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
         config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, ClickEvent.class.getName());
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        return new DefaultKafkaConsumerFactory<>(config);
+        // Offsets are committed by the container after the listener succeeds
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchConfig.getMaxBatchSize());
+        if (batchConfig.isBatchEnabled()) {
+            config.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, batchConfig.getFetchMinBytes());
+            config.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, (int) batchConfig.getMaxWait().toMillis());
+        }
+
+        DefaultKafkaConsumerFactory<String, ClickEvent> factory = new DefaultKafkaConsumerFactory<>(config);
+        // Exports client metrics, including kafka.consumer.fetch.manager.records.lag.max
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, ClickEvent> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, ClickEvent> kafkaListenerContainerFactory(
+            ConsumerFactory<String, ClickEvent> consumerFactory,
+            AnalyticsBatchConfig batchConfig) {
         ConcurrentKafkaListenerContainerFactory<String, ClickEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
-        factory.setConcurrency(3); // 3 concurrent consumers
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(batchConfig.getConcurrency());
+        factory.setBatchListener(batchConfig.isBatchEnabled());
+        // Commit a poll's offsets only once the listener has returned normally
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        // A failed write redelivers the batch until it succeeds; its offsets stay uncommitted meanwhile
+        factory.setCommonErrorHandler(new DefaultErrorHandler(analyticsRetryBackOff(batchConfig)));
         return factory;
     }
+
+    /**
+     * Exponential back-off without an attempt or elapsed-time limit. A long database
+     * outage stalls consumption (and shows as consumer lag) instead of skipping clicks.
+     */
+    static BackOff analyticsRetryBackOff(AnalyticsBatchConfig batchConfig) {
+        ExponentialBackOff backOff = new ExponentialBackOff(batchConfig.getRetryInitialInterval().toMillis(), 2.0);
+        backOff.setMaxInterval(batchConfig.getRetryMaxInterval().toMillis());
+        backOff.setMaxElapsedTime(Long.MAX_VALUE);
+        return backOff;
+    }
 }
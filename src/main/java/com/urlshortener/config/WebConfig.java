@@ -1,5 +1,6 @@
 package com.urlshortener.config;
 
+import com.urlshortener.ratelimit.ConcurrencyLimitInterceptor;
 import com.urlshortener.ratelimit.RateLimitInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
@@ -11,9 +12,14 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebConfig implements WebMvcConfigurer {
 
     private final RateLimitInterceptor rateLimitInterceptor;
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        // Shed overload first, before spending a Redis call on rate limiting
+        registry.addInterceptor(concurrencyLimitInterceptor)
+                .addPathPatterns("/**")
+                .excludePathPatterns("/actuator/**", "/error");
         registry.addInterceptor(rateLimitInterceptor)
                 .addPathPatterns("/**")
                 .excludePathPatterns("/actuator/**", "/error");
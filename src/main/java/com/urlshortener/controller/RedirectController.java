@@ -2,6 +2,8 @@ package com.urlshortener.controller;
 
 import com.urlshortener.analytics.AnalyticsProducer;
 import com.urlshortener.analytics.ClickEvent;
+import com.urlshortener.cache.ShortCodeFilter;
+import com.urlshortener.dto.ErrorResponse;
 import com.urlshortener.service.UrlService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -23,13 +25,24 @@ public class RedirectController {
 
     private final UrlService urlService;
     private final AnalyticsProducer analyticsProducer;
+    private final ShortCodeFilter shortCodeFilter;
 
     /**
      * Redirect short URL to original URL
      * GET /{shortCode}
      */
     @GetMapping("/{shortCode}")
-    public ResponseEntity<Void> redirect(@PathVariable String shortCode, HttpServletRequest request) {
+    public ResponseEntity<?> redirect(@PathVariable String shortCode, HttpServletRequest request) {
+        // Definitely unknown code: answer without Redis, DB or exception handling
+        if (!shortCodeFilter.mightContain(shortCode)) {
+            log.debug("Short code rejected by filter: {}", shortCode);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ErrorResponse.of(
+                    HttpStatus.NOT_FOUND.value(),
+                    "Short URL not found: " + shortCode,
+                    "NOT_FOUND"
+            ));
+        }
+
         log.info("Redirecting short code: {}", shortCode);
         String originalUrl = urlService.getOriginalUrl(shortCode);
         
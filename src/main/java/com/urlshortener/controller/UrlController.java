@@ -1,8 +1,15 @@
 package com.urlshortener.controller;
 
+import com.urlshortener.dto.BatchCreateUrlRequest;
+import com.urlshortener.dto.BatchCreateUrlResponse;
+import com.urlshortener.dto.BulkResolveResponse;
+import com.urlshortener.dto.BulkStatsResponse;
 import com.urlshortener.dto.CreateUrlRequest;
 import com.urlshortener.dto.UrlResponse;
+import com.urlshortener.service.UrlBatchService;
+import com.urlshortener.service.UrlLookupService;
 import com.urlshortener.service.UrlService;
+import com.urlshortener.service.UrlWriteBehindService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/urls")
@@ -20,6 +28,9 @@ import java.net.URI;
 public class UrlController {
 
     private final UrlService urlService;
+    private final UrlBatchService urlBatchService;
+    private final UrlLookupService urlLookupService;
+    private final UrlWriteBehindService urlWriteBehindService;
 
     /**
      * Create a new short URL
@@ -28,10 +39,24 @@ public class UrlController {
     @PostMapping
     public ResponseEntity<UrlResponse> createShortUrl(@Valid @RequestBody CreateUrlRequest request) {
         log.info("Received request to create short URL");
-        UrlResponse response = urlService.createShortUrl(request);
+        UrlResponse response = urlWriteBehindService.accepts(request)
+                ? urlWriteBehindService.createShortUrl(request)
+                : urlService.createShortUrl(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Create up to 10000 short URLs; 201 if all were created, else 207 with per-item results
+     * POST /api/v1/urls/batch
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchCreateUrlResponse> createShortUrls(@Valid @RequestBody BatchCreateUrlRequest request) {
+        log.info("Received request to create {} short URLs", request.getUrls().size());
+        BatchCreateUrlResponse response = urlBatchService.createShortUrls(request.getUrls());
+        HttpStatus status = response.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(response);
+    }
+
     /**
      * Get URL statistics
      * GET /api/v1/urls/{shortCode}/stats
@@ -42,4 +67,24 @@ public class UrlController {
         UrlResponse response = urlService.getUrlStats(shortCode);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Statistics for several short codes in one call
+     * GET /api/v1/urls/stats?codes=abc,def
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<BulkStatsResponse> getUrlStats(@RequestParam("codes") List<String> shortCodes) {
+        log.info("Fetching stats for {} short codes", shortCodes.size());
+        return ResponseEntity.ok(urlLookupService.getUrlStats(shortCodes));
+    }
+
+    /**
+     * Original URLs for several short codes, without redirecting or counting a click
+     * GET /api/v1/urls/resolve?codes=abc,def
+     */
+    @GetMapping("/resolve")
+    public ResponseEntity<BulkResolveResponse> resolveUrls(@RequestParam("codes") List<String> shortCodes) {
+        log.info("Resolving {} short codes", shortCodes.size());
+        return ResponseEntity.ok(urlLookupService.resolveUrls(shortCodes));
+    }
 }
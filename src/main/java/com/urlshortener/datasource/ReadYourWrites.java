@@ -0,0 +1,72 @@
+package com.urlshortener.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps reads of links this node just wrote on the primary
+ *
+ * Codes written here are remembered for read-your-writes-window. A read-only
+ * transaction that looks one of them up calls beforeRead first, which pins
+ * the rest of that transaction to the primary; the routing data source
+ * acquires its connection lazily, at the first statement, so this still
+ * takes effect. Only this node's writes are tracked: a peer's fresh link is
+ * kept safe by max-lag instead. No-op while routing is disabled.
+ */
+@Component
+public class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final ReplicaRoutingConfig config;
+    private final Cache<String, Boolean> recentWrites;
+
+    public ReadYourWrites(ReplicaRoutingConfig config) {
+        this.config = config;
+        this.recentWrites = Caffeine.newBuilder()
+                .maximumSize(config.getReadYourWritesCapacity())
+                .expireAfterWrite(config.getReadYourWritesWindow())
+                .build();
+    }
+
+    public void written(String shortCode) {
+        if (config.isEnabled()) {
+            recentWrites.put(shortCode, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Route the current transaction to the primary if the code was written recently
+     */
+    public void beforeRead(String shortCode) {
+        if (!config.isEnabled() || recentWrites.getIfPresent(shortCode) == null) {
+            return;
+        }
+        requirePrimary();
+    }
+
+    /**
+     * Route the rest of the current transaction to the primary (no-op outside a transaction,
+     * where reads already go there)
+     */
+    public static void requirePrimary() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || Boolean.TRUE.equals(PRIMARY_REQUIRED.get())) {
+            return;
+        }
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                PRIMARY_REQUIRED.remove();
+            }
+        });
+    }
+
+    static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+}
@@ -0,0 +1,80 @@
+package com.urlshortener.datasource;
+
+import com.urlshortener.monitoring.MetricsService;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+
+/**
+ * Measures each replica's replication lag with lag-query and marks replicas
+ * more than max-lag behind, or unreachable, as unusable for reads. Owns the
+ * replica pools and closes them on shutdown.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final ReplicaRoutingConfig config;
+    private final List<ReplicaTarget> replicas;
+    private final MetricsService metricsService;
+
+    public ReplicaLagMonitor(ReplicaRoutingConfig config, List<ReplicaTarget> replicas, MetricsService metricsService) {
+        this.config = config;
+        this.replicas = List.copyOf(replicas);
+        this.metricsService = metricsService;
+
+        for (ReplicaTarget replica : this.replicas) {
+            metricsService.registerGauge("datasource.replica.lag.seconds", "Replication lag last measured on the replica",
+                    "replica", replica.getName(), replica::getLagSeconds);
+            metricsService.registerGauge("datasource.replica.healthy", "1 if the replica is taking reads, else 0",
+                    "replica", replica.getName(), () -> replica.isHealthy() ? 1 : 0);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${datasource-routing.lag-check-interval:5000}")
+    public void check() {
+        for (ReplicaTarget replica : replicas) {
+            check(replica);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ReplicaTarget replica : replicas) {
+            if (replica.getDataSource() instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close replica pool {}", replica.getName(), e);
+                }
+            }
+        }
+    }
+
+    void check(ReplicaTarget replica) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(replica.getDataSource());
+        jdbcTemplate.setQueryTimeout((int) Math.max(1, config.getMaxLag().toSeconds()));
+
+        Timer.Sample sample = metricsService.startTimer();
+        try {
+            Double lag = jdbcTemplate.queryForObject(config.getLagQuery(), Double.class);
+            double lagSeconds = lag != null ? lag : 0.0;
+            boolean healthy = lagSeconds * 1000 <= config.getMaxLag().toMillis();
+            if (healthy != replica.isHealthy()) {
+                log.info("Replica {} {} reads (lag {} s)", replica.getName(), healthy ? "taking" : "removed from",
+                        lagSeconds);
+            }
+            replica.update(lagSeconds, healthy);
+        } catch (Exception e) {
+            if (replica.isHealthy()) {
+                log.warn("Replica {} lag check failed, routing its reads to the primary", replica.getName(), e);
+            }
+            replica.update(Double.NaN, false);
+        } finally {
+            metricsService.recordReplicaLagCheck(replica.getName(), sample);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.urlshortener.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "datasource-routing")
+@Data
+public class ReplicaRoutingConfig {
+
+    // Off: spring.datasource is the only pool and every transaction uses it
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    // Replicas further behind than this are skipped until they catch up
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    private long lagCheckInterval = 5000;
+
+    // Seconds behind the primary; 0 on a server that is not a standby, so a plain second instance works locally
+    private String lagQuery = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+            + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    // Reads of a code this node wrote within the window go to the primary
+    private Duration readYourWritesWindow = Duration.ofSeconds(30);
+
+    private long readYourWritesCapacity = 100_000;
+
+    @Data
+    public static class Replica {
+
+        private String name;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int maximumPoolSize = 10;
+    }
+}
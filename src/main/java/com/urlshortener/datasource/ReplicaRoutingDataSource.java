@@ -0,0 +1,73 @@
+package com.urlshortener.datasource;
+
+import com.urlshortener.monitoring.MetricsService;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary
+ *
+ * Replicas are tried round-robin, skipping any the lag monitor has marked
+ * unhealthy (too far behind or unreachable); with none left, or when
+ * ReadYourWrites has pinned the transaction, the read falls back to the
+ * primary. The lookup happens when a connection is acquired, so this must be
+ * wrapped in a LazyConnectionDataSourceProxy: the transaction's read-only
+ * flag is only set after the transaction manager has begun it.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final List<ReplicaTarget> replicas;
+    private final MetricsService metricsService;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<ReplicaTarget> replicas, MetricsService metricsService) {
+        this.replicas = List.copyOf(replicas);
+        this.metricsService = metricsService;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (ReplicaTarget replica : replicas) {
+            targets.put(replica.getName(), replica.getDataSource());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String target = route();
+        metricsService.incrementDataSourceRoute(target);
+        return target;
+    }
+
+    private String route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        if (ReadYourWrites.isPrimaryRequired()) {
+            metricsService.incrementReplicaFallback("read-your-writes");
+            return PRIMARY;
+        }
+
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, size));
+        for (int i = 0; i < size; i++) {
+            ReplicaTarget replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                return replica.getName();
+            }
+        }
+        metricsService.incrementReplicaFallback("no-healthy-replica");
+        return PRIMARY;
+    }
+}
@@ -0,0 +1,42 @@
+package com.urlshortener.datasource;
+
+import javax.sql.DataSource;
+
+/**
+ * A replica pool and its last measured replication lag
+ */
+public class ReplicaTarget {
+
+    private final String name;
+    private final DataSource dataSource;
+
+    // Unusable until the first lag check succeeds
+    private volatile boolean healthy;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaTarget(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+
+    void update(double lagSeconds, boolean healthy) {
+        this.lagSeconds = lagSeconds;
+        this.healthy = healthy;
+    }
+}
@@ -0,0 +1,25 @@
+package com.urlshortener.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Items are validated one by one by the batch service, so a bad item fails
+ * on its own instead of rejecting the whole request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreateUrlRequest {
+
+    @NotEmpty(message = "At least one URL is required")
+    @Size(max = 10000, message = "At most 10000 URLs per batch")
+    private List<CreateUrlRequest> urls;
+}
@@ -0,0 +1,19 @@
+package com.urlshortener.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreateUrlResponse {
+
+    private int created;
+    private int failed;
+    private List<BatchCreateUrlResult> results;
+}
@@ -0,0 +1,25 @@
+package com.urlshortener.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a batch, in request order: the created URL, or the
+ * error the single-create endpoint would have answered with
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchCreateUrlResult {
+
+    private int index;
+    private int status;
+    private UrlResponse url;
+    private String error;
+    private String message;
+}
@@ -0,0 +1,21 @@
+package com.urlshortener.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResolveResponse {
+
+    // Short code -> original URL, in request order
+    private Map<String, String> urls;
+    private List<String> notFound;
+    private List<String> expired;
+}
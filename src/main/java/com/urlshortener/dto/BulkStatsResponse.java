@@ -0,0 +1,19 @@
+package com.urlshortener.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatsResponse {
+
+    // In request order, one per code found
+    private List<UrlResponse> urls;
+    private List<String> notFound;
+}
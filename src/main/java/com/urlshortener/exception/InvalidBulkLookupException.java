@@ -0,0 +1,7 @@
+package com.urlshortener.exception;
+
+public class InvalidBulkLookupException extends RuntimeException {
+    public InvalidBulkLookupException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.urlshortener.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class WriteBehindBacklogException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public WriteBehindBacklogException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
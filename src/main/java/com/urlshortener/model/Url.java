@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "urls", indexes = {
-    @Index(name = "idx_short_code", columnList = "short_code", unique = true)
+    @Index(name = "idx_short_code", columnList = "short_code", unique = true),
+    @Index(name = "idx_url_hash", columnList = "url_hash")
 })
 @Data
 @Builder
@@ -25,7 +26,7 @@ public class Url {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String originalUrl;
 
-    @Column(nullable = false, unique = true, length = 10)
+    @Column(nullable = false, unique = true, length = 11)
     private String shortCode;
 
     @Column(nullable = false)
@@ -38,6 +39,10 @@ public class Url {
     @Builder.Default
     private Long clickCount = 0L;
 
+    // Hash of the normalized URL, set on generated-code rows when url-dedup is enabled
+    @Column(length = 32)
+    private String urlHash;
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
@@ -46,6 +51,10 @@ public class Url {
     }
 
     public boolean isExpired() {
+        return isExpired(expiryDate);
+    }
+
+    public static boolean isExpired(LocalDateTime expiryDate) {
         return expiryDate != null && LocalDateTime.now().isAfter(expiryDate);
     }
 }
@@ -0,0 +1,27 @@
+package com.urlshortener.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Custom alias -> url row. Generated codes are never stored here: they are
+ * resolved by decoding the code to the row's id.
+ */
+@Entity
+@Table(name = "url_aliases")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UrlAlias {
+
+    @Id
+    @Column(length = 11)
+    private String alias;
+
+    @Column(nullable = false)
+    private Long urlId;
+}
@@ -1,23 +1,67 @@
 package com.urlshortener.monitoring;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
 @Component
 @Slf4j
 public class MetricsService {
 
+    private final MeterRegistry meterRegistry;
     private final Counter urlCreationCounter;
     private final Counter redirectCounter;
     private final Counter cacheHitCounter;
     private final Counter cacheMissCounter;
+    private final Counter cacheEvictionCounter;
+    private final Counter localCacheHitCounter;
+    private final Counter localCacheMissCounter;
+    private final Counter localCacheEvictionCounter;
+    private final Counter cacheLoadCoalescedCounter;
+    private final Counter cacheEarlyRefreshCounter;
+    private final Counter cacheStaleRefreshCounter;
     private final Timer redirectLatencyTimer;
     private final Counter rateLimitExceededCounter;
+    private final Counter rateLimitLeaseGrantedCounter;
+    private final Counter rateLimitLeaseExhaustedCounter;
+    private final Counter rateLimitLeaseFallbackCounter;
+    private final Counter shortCodeFilterRejectedCounter;
+    private final Counter shortCodeFilterCaughtUpCounter;
+    private final Counter clickCountFlushedCounter;
+    private final DistributionSummary analyticsBatchSizeSummary;
+    private final Timer analyticsFlushLatencyTimer;
+    private final Counter generatedCodeConflictCounter;
+    private final Counter urlCacheSweptCounter;
+    private final Counter urlBatchCreatedCounter;
+    private final Counter urlBatchFailedCounter;
+    private final Timer urlBatchLatencyTimer;
+    private final Counter writeBehindWrittenCounter;
+    private final Counter writeBehindConflictCounter;
+    private final Timer writeBehindFlushLatencyTimer;
+    private final Counter writeBehindLostCounter;
+    private final Counter writeBehindRejectedCounter;
+
+    // Meters tagged with a value known only at the call site, registered on first use
+    private final Map<String, Counter> concurrencyRejectedCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> urlResolveCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> urlDedupCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> dataSourceRouteCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> replicaFallbackCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> bulkLookupHitCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> bulkLookupMissCounters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> replicaLagCheckTimers = new ConcurrentHashMap<>();
 
     public MetricsService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
         // URL Creation metrics
         this.urlCreationCounter = Counter.builder("url.creation.total")
                 .description("Total number of URLs created")
@@ -28,13 +72,49 @@ public class MetricsService {
                 .description("Total number of redirects")
                 .register(meterRegistry);
 
-        // Cache metrics
+        // Cache metrics (per tier: local in-process cache, then Redis)
         this.cacheHitCounter = Counter.builder("cache.hit.total")
                 .description("Total cache hits")
+                .tag("tier", "redis")
                 .register(meterRegistry);
 
         this.cacheMissCounter = Counter.builder("cache.miss.total")
                 .description("Total cache misses")
+                .tag("tier", "redis")
+                .register(meterRegistry);
+
+        this.cacheEvictionCounter = Counter.builder("cache.eviction.total")
+                .description("Total cache evictions")
+                .tag("tier", "redis")
+                .register(meterRegistry);
+
+        this.localCacheHitCounter = Counter.builder("cache.hit.total")
+                .description("Total cache hits")
+                .tag("tier", "local")
+                .register(meterRegistry);
+
+        this.localCacheMissCounter = Counter.builder("cache.miss.total")
+                .description("Total cache misses")
+                .tag("tier", "local")
+                .register(meterRegistry);
+
+        this.localCacheEvictionCounter = Counter.builder("cache.eviction.total")
+                .description("Total cache evictions")
+                .tag("tier", "local")
+                .register(meterRegistry);
+
+        this.cacheLoadCoalescedCounter = Counter.builder("cache.load.coalesced.total")
+                .description("Cache misses answered by another request's database load")
+                .register(meterRegistry);
+
+        this.cacheEarlyRefreshCounter = Counter.builder("cache.refresh.total")
+                .description("Background refreshes of Redis entries")
+                .tag("reason", "early")
+                .register(meterRegistry);
+
+        this.cacheStaleRefreshCounter = Counter.builder("cache.refresh.total")
+                .description("Background refreshes of Redis entries")
+                .tag("reason", "stale")
                 .register(meterRegistry);
 
         // Latency metrics
@@ -46,6 +126,107 @@ public class MetricsService {
         this.rateLimitExceededCounter = Counter.builder("rate.limit.exceeded.total")
                 .description("Total rate limit violations")
                 .register(meterRegistry);
+
+        this.rateLimitLeaseGrantedCounter = Counter.builder("rate.limit.lease.total")
+                .description("Quota leases requested from the shared Redis bucket")
+                .tag("outcome", "granted")
+                .register(meterRegistry);
+
+        this.rateLimitLeaseExhaustedCounter = Counter.builder("rate.limit.lease.total")
+                .description("Quota leases requested from the shared Redis bucket")
+                .tag("outcome", "exhausted")
+                .register(meterRegistry);
+
+        this.rateLimitLeaseFallbackCounter = Counter.builder("rate.limit.lease.total")
+                .description("Quota leases requested from the shared Redis bucket")
+                .tag("outcome", "fallback")
+                .register(meterRegistry);
+
+        // Short code filter metrics
+        this.shortCodeFilterRejectedCounter = Counter.builder("short.code.filter.rejected.total")
+                .description("Lookups rejected by the short code filter without touching Redis or the database")
+                .register(meterRegistry);
+        this.shortCodeFilterCaughtUpCounter = Counter.builder("short.code.filter.caught.up.total")
+                .description("Codes the short code filter learned from its catch-up scan because their peer update was lost")
+                .register(meterRegistry);
+
+        // Click aggregation metrics
+        this.clickCountFlushedCounter = Counter.builder("click.count.flushed.total")
+                .description("Total url rows updated by batched click count flushes")
+                .register(meterRegistry);
+
+        // Analytics consumer metrics
+        this.analyticsBatchSizeSummary = DistributionSummary.builder("analytics.batch.size")
+                .description("Click events per consumed Kafka batch")
+                .register(meterRegistry);
+
+        this.analyticsFlushLatencyTimer = Timer.builder("analytics.batch.flush.latency")
+                .description("Time to write one aggregated Kafka batch to the database")
+                .register(meterRegistry);
+
+        // URL write path metrics
+        this.generatedCodeConflictCounter = Counter.builder("url.generated.code.conflict.total")
+                .description("Generated short codes already held by a custom alias")
+                .register(meterRegistry);
+
+        this.urlBatchCreatedCounter = Counter.builder("url.batch.items.total")
+                .description("Items of batch create requests, by outcome")
+                .tag("result", "created")
+                .register(meterRegistry);
+
+        this.urlBatchFailedCounter = Counter.builder("url.batch.items.total")
+                .description("Items of batch create requests, by outcome")
+                .tag("result", "failed")
+                .register(meterRegistry);
+
+        this.urlBatchLatencyTimer = Timer.builder("url.batch.latency")
+                .description("Time to validate, insert and cache one batch of URLs")
+                .register(meterRegistry);
+
+        // Write-behind metrics
+        this.writeBehindWrittenCounter = Counter.builder("url.write.behind.flushed.total")
+                .description("Write-behind links written to Postgres by the flusher, by outcome")
+                .tag("result", "written")
+                .register(meterRegistry);
+
+        this.writeBehindConflictCounter = Counter.builder("url.write.behind.flushed.total")
+                .description("Write-behind links written to Postgres by the flusher, by outcome")
+                .tag("result", "conflict")
+                .register(meterRegistry);
+
+        this.writeBehindFlushLatencyTimer = Timer.builder("url.write.behind.flush.latency")
+                .description("Time to insert and commit one write-behind batch")
+                .register(meterRegistry);
+
+        this.writeBehindLostCounter = Counter.builder("url.write.behind.lost.total")
+                .description("Acknowledged write-behind links dropped because their short code was taken; alert on any increase")
+                .register(meterRegistry);
+
+        this.writeBehindRejectedCounter = Counter.builder("url.write.behind.rejected.total")
+                .description("Creates rejected because max-pending write-behind links were waiting")
+                .register(meterRegistry);
+
+        // Redis URL cache sweep metrics
+        this.urlCacheSweptCounter = Counter.builder("cache.sweep.removed.total")
+                .description("Expired entries removed from bucketed Redis URL cache hashes")
+                .tag("tier", "redis")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Register a gauge that samples the supplied value on each scrape
+     */
+    public void registerGauge(String name, String description, Supplier<Number> value) {
+        Gauge.builder(name, value)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    public void registerGauge(String name, String description, String tagKey, String tagValue, Supplier<Number> value) {
+        Gauge.builder(name, value)
+                .description(description)
+                .tag(tagKey, tagValue)
+                .register(meterRegistry);
     }
 
     public void incrementUrlCreation() {
@@ -64,6 +245,34 @@ public class MetricsService {
         cacheMissCounter.increment();
     }
 
+    public void incrementCacheLoadCoalesced() {
+        cacheLoadCoalescedCounter.increment();
+    }
+
+    public void incrementCacheRefresh(boolean stale) {
+        if (stale) {
+            cacheStaleRefreshCounter.increment();
+        } else {
+            cacheEarlyRefreshCounter.increment();
+        }
+    }
+
+    public void incrementCacheEviction() {
+        cacheEvictionCounter.increment();
+    }
+
+    public void incrementLocalCacheHit() {
+        localCacheHitCounter.increment();
+    }
+
+    public void incrementLocalCacheMiss() {
+        localCacheMissCounter.increment();
+    }
+
+    public void incrementLocalCacheEviction() {
+        localCacheEvictionCounter.increment();
+    }
+
     public Timer.Sample startTimer() {
         return Timer.start();
     }
@@ -75,4 +284,161 @@ public class MetricsService {
     public void incrementRateLimitExceeded() {
         rateLimitExceededCounter.increment();
     }
+
+    /**
+     * Requests shed by the adaptive concurrency limiter, per traffic class
+     */
+    public void incrementConcurrencyRejected(String endpointClass) {
+        concurrencyRejectedCounters.computeIfAbsent(endpointClass, c -> Counter.builder("concurrency.rejected.total")
+                .description("Requests rejected with 503 by the adaptive concurrency limiter")
+                .tag("class", c)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * Cache-miss lookups answered by each resolution path (id, alias, short_code)
+     */
+    public void incrementUrlResolve(String path) {
+        urlResolveCounters.computeIfAbsent(path, p -> Counter.builder("url.resolve.total")
+                .description("Database lookups of short codes, by the index that answered")
+                .tag("path", p)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * Generated codes found taken by a custom alias at insert; the create retries with a fresh id
+     */
+    public void incrementGeneratedCodeConflicts(int count) {
+        generatedCodeConflictCounter.increment(count);
+    }
+
+    /**
+     * Dedup lookups of creates: answered by the recent-URL cache, by the url_hash index, or a miss
+     */
+    public void incrementUrlDedup(String result) {
+        urlDedupCounters.computeIfAbsent(result, r -> Counter.builder("url.dedup.total")
+                .description("Create requests checked for an existing link of the same URL, by outcome")
+                .tag("result", r)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * Connections handed out by the replica routing data source, per target pool
+     */
+    public void incrementDataSourceRoute(String target) {
+        dataSourceRouteCounters.computeIfAbsent(target, t -> Counter.builder("datasource.routing.total")
+                .description("Connections acquired through the routing data source")
+                .tag("target", t)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * Read-only transactions sent to the primary instead of a replica, per reason
+     */
+    public void incrementReplicaFallback(String reason) {
+        replicaFallbackCounters.computeIfAbsent(reason, r -> Counter.builder("datasource.replica.fallback.total")
+                .description("Read-only transactions routed to the primary instead of a replica")
+                .tag("reason", r)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * Dead fields removed from Redis URL buckets by the background sweep
+     */
+    public void incrementUrlCacheSwept(long fields) {
+        urlCacheSweptCounter.increment(fields);
+    }
+
+    /**
+     * Codes of one bulk stats or resolve request, answered from a cache (hit) or the database (miss)
+     */
+    public void recordBulkLookup(String endpoint, int hits, int misses) {
+        bulkLookupHitCounters.computeIfAbsent(endpoint, e -> bulkLookupCounter(e, "hit")).increment(hits);
+        bulkLookupMissCounters.computeIfAbsent(endpoint, e -> bulkLookupCounter(e, "miss")).increment(misses);
+    }
+
+    private Counter bulkLookupCounter(String endpoint, String result) {
+        return Counter.builder("url.bulk.lookup.codes.total")
+                .description("Short codes looked up by the bulk endpoints, by where they were answered")
+                .tag("endpoint", endpoint)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * One batch create: its items by outcome, and the time for the whole batch
+     */
+    public void recordUrlBatch(int created, int failed, Timer.Sample sample) {
+        urlCreationCounter.increment(created);
+        urlBatchCreatedCounter.increment(created);
+        urlBatchFailedCounter.increment(failed);
+        sample.stop(urlBatchLatencyTimer);
+    }
+
+    /**
+     * One flusher batch of write-behind links: rows written, links dropped on a taken code, and its time
+     */
+    public void recordWriteBehindFlush(int written, int conflicts, Timer.Sample sample) {
+        writeBehindWrittenCounter.increment(written);
+        writeBehindConflictCounter.increment(conflicts);
+        sample.stop(writeBehindFlushLatencyTimer);
+    }
+
+    /**
+     * Acknowledged write-behind links dropped because their code was already taken when flushed
+     */
+    public void incrementWriteBehindLost() {
+        writeBehindLostCounter.increment();
+    }
+
+    /**
+     * Creates rejected with 503 because the write-behind backlog is full
+     */
+    public void incrementWriteBehindRejected() {
+        writeBehindRejectedCounter.increment();
+    }
+
+    public void recordReplicaLagCheck(String replica, Timer.Sample sample) {
+        sample.stop(replicaLagCheckTimers.computeIfAbsent(replica, r -> Timer.builder("datasource.replica.lag.check.latency")
+                .description("Round trip of the replication lag query")
+                .tag("replica", r)
+                .register(meterRegistry)));
+    }
+
+    public void incrementRateLimitLeaseGranted() {
+        rateLimitLeaseGrantedCounter.increment();
+    }
+
+    public void incrementRateLimitLeaseExhausted() {
+        rateLimitLeaseExhaustedCounter.increment();
+    }
+
+    public void incrementRateLimitLeaseFallback() {
+        rateLimitLeaseFallbackCounter.increment();
+    }
+
+    public void incrementShortCodeFilterRejected() {
+        shortCodeFilterRejectedCounter.increment();
+    }
+
+    public void incrementShortCodeFilterCaughtUp(long codes) {
+        shortCodeFilterCaughtUpCounter.increment(codes);
+    }
+
+    public void incrementClickCountFlushed(long rows) {
+        clickCountFlushedCounter.increment(rows);
+    }
+
+    public void recordAnalyticsBatchSize(int size) {
+        analyticsBatchSizeSummary.record(size);
+    }
+
+    public void recordAnalyticsFlushLatency(Timer.Sample sample) {
+        sample.stop(analyticsFlushLatencyTimer);
+    }
 }
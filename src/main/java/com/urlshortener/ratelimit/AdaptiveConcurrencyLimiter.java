@@ -0,0 +1,145 @@
+package com.urlshortener.ratelimit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that adapts to observed latency (gradient algorithm)
+ *
+ * Tracks a slow-moving baseline latency and the average of the latest sample
+ * window. While recent latency stays within tolerance of the baseline the
+ * limit grows by about sqrt(limit) per window, as long as there is demand for
+ * it; when latency rises the limit shrinks in proportion (down to half per
+ * window), and a window with server errors backs off multiplicatively
+ * (AIMD). Requests beyond the limit are rejected immediately instead of
+ * queueing on Tomcat threads behind a slow database or Redis.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    // Baseline EWMA weight: roughly the last 100 windows
+    private static final double BASELINE_WEIGHT = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long sampleWindowNanos;
+    private final int minSamples;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    private double estimatedLimit;
+
+    // Current sample window
+    private final LongAdder windowLatencySum = new LongAdder();
+    private final LongAdder windowCount = new LongAdder();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private volatile boolean windowDropped;
+    private volatile long windowStart = System.nanoTime();
+    private final AtomicBoolean updating = new AtomicBoolean();
+
+    private double baselineLatency;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitConfig.ClassLimit classLimit, ConcurrencyLimitConfig config) {
+        if (classLimit.getMinLimit() < 1 || classLimit.getMaxLimit() < classLimit.getMinLimit()) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= max");
+        }
+        this.minLimit = classLimit.getMinLimit();
+        this.maxLimit = classLimit.getMaxLimit();
+        this.sampleWindowNanos = config.getSampleWindow().toNanos();
+        this.minSamples = config.getMinSamples();
+        this.tolerance = config.getTolerance();
+        this.smoothing = config.getSmoothing();
+        this.backoffRatio = config.getBackoffRatio();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, classLimit.getInitialLimit()));
+        this.estimatedLimit = limit;
+    }
+
+    /**
+     * Take a slot if the limit allows; every successful call must be paired with release()
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                windowMaxInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param latencyNanos How long the request held its slot
+     * @param dropped True if the request failed in a way that signals overload (5xx)
+     */
+    public void release(long latencyNanos, boolean dropped) {
+        inFlight.decrementAndGet();
+
+        windowLatencySum.add(latencyNanos);
+        windowCount.increment();
+        if (dropped) {
+            windowDropped = true;
+        }
+
+        if (windowCount.sum() >= minSamples && System.nanoTime() - windowStart >= sampleWindowNanos
+                && updating.compareAndSet(false, true)) {
+            try {
+                closeWindow();
+            } finally {
+                updating.set(false);
+            }
+        }
+    }
+
+    private void closeWindow() {
+        long count = windowCount.sumThenReset();
+        long latencySum = windowLatencySum.sumThenReset();
+        int maxInFlight = windowMaxInFlight.getAndSet(inFlight.get());
+        boolean dropped = windowDropped;
+        windowDropped = false;
+        windowStart = System.nanoTime();
+        if (count == 0) {
+            return;
+        }
+
+        double recentLatency = (double) latencySum / count;
+        if (baselineLatency == 0) {
+            baselineLatency = recentLatency;
+        } else {
+            baselineLatency += (recentLatency - baselineLatency) * BASELINE_WEIGHT;
+            // Latency well below the baseline means the baseline is stale (e.g. after an incident)
+            if (baselineLatency > 2 * recentLatency) {
+                baselineLatency *= 0.95;
+            }
+        }
+
+        double next;
+        if (dropped) {
+            next = estimatedLimit * backoffRatio;
+        } else {
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineLatency / recentLatency));
+            next = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            // Don't grow a limit the traffic isn't using
+            if (maxInFlight < estimatedLimit / 2) {
+                next = Math.min(next, estimatedLimit);
+            }
+        }
+
+        next = estimatedLimit * (1 - smoothing) + next * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+        limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,50 @@
+package com.urlshortener.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "concurrency-limit")
+@Data
+public class ConcurrencyLimitConfig {
+
+    private boolean enabled = true;
+
+    private ClassLimit redirect = new ClassLimit(100, 10, 1000);
+    private ClassLimit create = new ClassLimit(20, 2, 200);
+    private ClassLimit batchCreate = new ClassLimit(4, 1, 16);
+    private ClassLimit stats = new ClassLimit(20, 2, 200);
+
+    // Latency samples are averaged over windows of at least this long and this many requests
+    private Duration sampleWindow = Duration.ofMillis(100);
+    private int minSamples = 20;
+
+    // How far recent latency may rise above the long-term baseline before the limit shrinks
+    private double tolerance = 1.5;
+
+    // Weight of each new estimate in the limit (0-1)
+    private double smoothing = 0.2;
+
+    // Multiplicative decrease after a window with server errors
+    private double backoffRatio = 0.9;
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    @Data
+    public static class ClassLimit {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+
+        public ClassLimit() {}
+
+        public ClassLimit(int initialLimit, int minLimit, int maxLimit) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.urlshortener.ratelimit;
+
+import com.urlshortener.monitoring.MetricsService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sheds load with a fast 503 once a traffic class reaches its adaptive concurrency limit
+ */
+@Component
+@Slf4j
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String LIMITER_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".limiter";
+    private static final String START_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".start";
+
+    private final ConcurrencyLimitConfig config;
+    private final MetricsService metricsService;
+    private final Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+
+    public ConcurrencyLimitInterceptor(ConcurrencyLimitConfig config, MetricsService metricsService) {
+        this.config = config;
+        this.metricsService = metricsService;
+
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            ConcurrencyLimitConfig.ClassLimit classLimit = switch (endpointClass) {
+                case REDIRECT -> config.getRedirect();
+                case CREATE -> config.getCreate();
+                case BATCH_CREATE -> config.getBatchCreate();
+                case STATS -> config.getStats();
+            };
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(classLimit, config);
+            limiters.put(endpointClass, limiter);
+
+            metricsService.registerGauge("concurrency.limit", "Current adaptive concurrency limit",
+                    "class", endpointClass.key(), limiter::getLimit);
+            metricsService.registerGauge("concurrency.in.flight", "Requests currently holding a concurrency slot",
+                    "class", endpointClass.key(), limiter::getInFlight);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!config.isEnabled()) {
+            return true;
+        }
+
+        EndpointClass endpointClass = EndpointClass.of(request);
+        if (endpointClass == null) {
+            return true;
+        }
+
+        AdaptiveConcurrencyLimiter limiter = limiters.get(endpointClass);
+        if (!limiter.tryAcquire()) {
+            metricsService.incrementConcurrencyRejected(endpointClass.key());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.addHeader("Retry-After", String.valueOf(Math.max(1, config.getRetryAfter().toSeconds())));
+            response.setContentType("application/json");
+            response.getWriter().write(String.format(
+                "{\"status\": 503, \"error\": \"SERVICE_UNAVAILABLE\", \"message\": \"Server is overloaded. Try again later.\", \"timestamp\": %d}",
+                System.currentTimeMillis()
+            ));
+            return false;
+        }
+
+        request.setAttribute(LIMITER_ATTRIBUTE, limiter);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(LIMITER_ATTRIBUTE) instanceof AdaptiveConcurrencyLimiter limiter)) {
+            return;
+        }
+        request.removeAttribute(LIMITER_ATTRIBUTE);
+
+        long latency = System.nanoTime() - (long) request.getAttribute(START_ATTRIBUTE);
+        boolean dropped = ex != null || response.getStatus() >= 500;
+        limiter.release(latency, dropped);
+    }
+
+    AdaptiveConcurrencyLimiter limiter(EndpointClass endpointClass) {
+        return limiters.get(endpointClass);
+    }
+}
@@ -0,0 +1,54 @@
+package com.urlshortener.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.regex.Pattern;
+
+/**
+ * Traffic classes that get their own rate and concurrency limits
+ */
+public enum EndpointClass {
+
+    CREATE("create"),
+    BATCH_CREATE("batch-create"),
+    REDIRECT("redirect"),
+    STATS("stats");
+
+    private static final Pattern REDIRECT_PATH = Pattern.compile("^/[a-zA-Z0-9]+$");
+
+    private final String key;
+
+    EndpointClass(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Short name used in limiter keys and metric tags
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * @return the class of the request, or null for endpoints that aren't limited
+     */
+    public static EndpointClass of(HttpServletRequest request) {
+        String requestUri = request.getRequestURI();
+        String method = request.getMethod();
+
+        if ("/api/v1/urls/batch".equals(requestUri) && "POST".equals(method)) {
+            return BATCH_CREATE;
+        }
+        if (requestUri.startsWith("/api/v1/urls") && "POST".equals(method)) {
+            return CREATE;
+        }
+        if ("GET".equals(method) && REDIRECT_PATH.matcher(requestUri).matches()) {
+            return REDIRECT;
+        }
+        // Bulk resolve is a dashboard read like stats, not a redirect
+        if (requestUri.contains("/stats") || "/api/v1/urls/resolve".equals(requestUri)) {
+            return STATS;
+        }
+        return null;
+    }
+}
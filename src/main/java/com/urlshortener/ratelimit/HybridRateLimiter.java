@@ -0,0 +1,246 @@
+package com.urlshortener.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.urlshortener.monitoring.MetricsService;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.redis.lettuce.cas.LettuceBasedProxyManager;
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limiter that decides most requests from local memory
+ *
+ * Each node keeps a local token count per key and leases chunks of quota
+ * (lease-fraction of the limit) from a shared Bucket4j bucket in Redis.
+ * Requests are served from the leased tokens with one atomic decrement; Redis
+ * is only called when a node runs out. A global limit can be overshot by at
+ * most one unused lease per node, and leases expire after lease-ttl so idle
+ * nodes don't hold quota. While Redis is unreachable a node admits at most
+ * allowed-overshoot of the limit per period on its own.
+ */
+@Component
+@Slf4j
+public class HybridRateLimiter {
+
+    private static final String KEY_PREFIX = "rate_limit:shared:";
+
+    private final RedisConnectionFactory connectionFactory;
+    private final RateLimitConfig.Hybrid config;
+    private final MetricsService metricsService;
+    private final Cache<String, LocalBucket> localBuckets;
+
+    private volatile ProxyManager<String> proxyManager;
+    private volatile AutoCloseable connection;
+    private volatile long unavailableUntil;
+
+    public HybridRateLimiter(RedisConnectionFactory connectionFactory,
+                             RateLimitConfig rateLimitConfig,
+                             MetricsService metricsService) {
+        this.connectionFactory = connectionFactory;
+        this.config = rateLimitConfig.getHybrid();
+        this.metricsService = metricsService;
+        this.localBuckets = Caffeine.newBuilder()
+                .maximumSize(config.getMaxLocalBuckets())
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+
+        metricsService.registerGauge("rate.limit.local.buckets", "Keys with a local rate limit bucket",
+                localBuckets::estimatedSize);
+    }
+
+    public RateLimitResult tryConsume(String key, int limit, Duration period) {
+        LocalBucket bucket = localBuckets.get(key, k -> new LocalBucket());
+        long now = System.currentTimeMillis();
+
+        long remaining = bucket.tryTake(now);
+        if (remaining >= 0) {
+            return new RateLimitResult(true, limit, remaining, 0, bucket.expiresAt - now);
+        }
+        return lease(key, bucket, limit, period, now);
+    }
+
+    private RateLimitResult lease(String key, LocalBucket bucket, int limit, Duration period, long now) {
+        synchronized (bucket) {
+            // Another thread may have leased while we waited
+            long remaining = bucket.tryTake(now);
+            if (remaining >= 0) {
+                return new RateLimitResult(true, limit, remaining, 0, bucket.expiresAt - now);
+            }
+            if (now < bucket.exhaustedUntil) {
+                return denied(limit, bucket.exhaustedUntil - now);
+            }
+
+            ProxyManager<String> shared = now < unavailableUntil ? null : proxyManager();
+            if (shared == null) {
+                return fallback(bucket, limit, period, now);
+            }
+
+            long granted;
+            try {
+                long leaseSize = Math.max(1, (long) Math.ceil(limit * config.getLeaseFraction()));
+                granted = shared.builder()
+                        .build(KEY_PREFIX + key, () -> configuration(limit, period))
+                        .tryConsumeAsMuchAsPossible(leaseSize);
+            } catch (Exception e) {
+                log.warn("Failed to lease rate limit quota for key {}, using local fallback", key, e);
+                unavailableUntil = now + config.getUnavailableBackoff().toMillis();
+                return fallback(bucket, limit, period, now);
+            }
+
+            if (granted == 0) {
+                metricsService.incrementRateLimitLeaseExhausted();
+                // Roughly when the shared bucket has refilled one token
+                long retryAfter = Math.max(1, period.toMillis() / limit);
+                bucket.exhaustedUntil = now + retryAfter;
+                return denied(limit, retryAfter);
+            }
+
+            metricsService.incrementRateLimitLeaseGranted();
+            // This request takes one of the granted tokens
+            long leaseTtl = config.getLeaseTtl().toMillis();
+            bucket.grant(granted - 1, now + leaseTtl);
+            return new RateLimitResult(true, limit, granted - 1, 0, leaseTtl);
+        }
+    }
+
+    /**
+     * Local-only admission while the shared bucket can't be reached, capped per period
+     */
+    private RateLimitResult fallback(LocalBucket bucket, int limit, Duration period, long now) {
+        metricsService.incrementRateLimitLeaseFallback();
+
+        long periodMillis = period.toMillis();
+        if (now - bucket.fallbackWindowStart >= periodMillis) {
+            bucket.fallbackWindowStart = now;
+            bucket.fallbackUsed = 0;
+        }
+
+        long allowance = (long) Math.ceil(limit * config.getAllowedOvershoot());
+        long resetAfter = bucket.fallbackWindowStart + periodMillis - now;
+        if (bucket.fallbackUsed >= allowance) {
+            return denied(limit, resetAfter);
+        }
+        bucket.fallbackUsed++;
+        return new RateLimitResult(true, limit, allowance - bucket.fallbackUsed, 0, resetAfter);
+    }
+
+    private BucketConfiguration configuration(int limit, Duration period) {
+        Bandwidth bandwidth = config.getRefill() == RateLimitConfig.RefillPolicy.INTERVALLY
+                ? Bandwidth.builder().capacity(limit).refillIntervally(limit, period).build()
+                : Bandwidth.builder().capacity(limit).refillGreedy(limit, period).build();
+        return BucketConfiguration.builder()
+                .addLimit(bandwidth)
+                .build();
+    }
+
+    private static RateLimitResult denied(int limit, long retryAfter) {
+        return new RateLimitResult(false, limit, 0, retryAfter, retryAfter);
+    }
+
+    /**
+     * Shared bucket proxy on a dedicated Lettuce connection, opened on first use
+     * @return null if Redis can't be reached right now
+     */
+    ProxyManager<String> proxyManager() {
+        ProxyManager<String> current = proxyManager;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (proxyManager != null) {
+                return proxyManager;
+            }
+            try {
+                proxyManager = connect();
+                return proxyManager;
+            } catch (Exception e) {
+                log.warn("Cannot connect hybrid rate limiter to Redis", e);
+                unavailableUntil = System.currentTimeMillis() + config.getUnavailableBackoff().toMillis();
+                return null;
+            }
+        }
+    }
+
+    private ProxyManager<String> connect() {
+        if (!(connectionFactory instanceof LettuceConnectionFactory lettuce)) {
+            throw new IllegalStateException("Hybrid rate limiting requires the Lettuce Redis client");
+        }
+
+        // Keys as strings, bucket state as raw bytes
+        RedisCodec<String, byte[]> codec = RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE);
+        ExpirationAfterWriteStrategy expiration =
+                ExpirationAfterWriteStrategy.basedOnTimeForRefillingBucketUpToMax(Duration.ofSeconds(10));
+
+        AbstractRedisClient client = lettuce.getRequiredNativeClient();
+        if (client instanceof RedisClusterClient clusterClient) {
+            StatefulRedisClusterConnection<String, byte[]> clusterConnection = clusterClient.connect(codec);
+            connection = clusterConnection;
+            return LettuceBasedProxyManager.builderFor(clusterConnection)
+                    .withExpirationStrategy(expiration)
+                    .build();
+        }
+
+        StatefulRedisConnection<String, byte[]> standalone = ((RedisClient) client).connect(codec);
+        connection = standalone;
+        return LettuceBasedProxyManager.builderFor(standalone)
+                .withExpirationStrategy(expiration)
+                .build();
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        AutoCloseable current = connection;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    /**
+     * Tokens leased to this node for one key
+     */
+    static final class LocalBucket {
+
+        private final AtomicLong tokens = new AtomicLong();
+        private volatile long expiresAt;
+        private volatile long exhaustedUntil;
+
+        // Fallback window, guarded by the bucket monitor
+        private long fallbackWindowStart;
+        private long fallbackUsed;
+
+        /**
+         * @return tokens left after taking one, or -1 if the lease is used up or expired
+         */
+        long tryTake(long now) {
+            if (now >= expiresAt) {
+                return -1;
+            }
+            long left = tokens.decrementAndGet();
+            return left >= 0 ? left : -1;
+        }
+
+        void grant(long granted, long validUntil) {
+            tokens.set(granted);
+            expiresAt = validUntil;
+        }
+    }
+}
@@ -12,9 +12,47 @@ import java.time.Duration;
 public class RateLimitConfig {
 
     private EndpointLimit createUrl = new EndpointLimit(10, Duration.ofMinutes(1));
+    // Per request, not per item: a batch carries up to 10000 URLs
+    private EndpointLimit batchCreate = new EndpointLimit(5, Duration.ofMinutes(1));
     private EndpointLimit redirect = new EndpointLimit(100, Duration.ofMinutes(1));
     private EndpointLimit stats = new EndpointLimit(30, Duration.ofMinutes(1));
 
+    // DISTRIBUTED: every request runs the Redis script; HYBRID: local buckets leasing quota from Redis
+    private Mode mode = Mode.DISTRIBUTED;
+
+    private Hybrid hybrid = new Hybrid();
+
+    public enum Mode {
+        DISTRIBUTED,
+        HYBRID
+    }
+
+    public enum RefillPolicy {
+        // Tokens trickle back continuously (limit / period)
+        GREEDY,
+        // The whole limit comes back at once every period
+        INTERVALLY
+    }
+
+    @Data
+    public static class Hybrid {
+        // Share of the limit taken from the shared bucket per lease (at least one token)
+        private double leaseFraction = 0.1;
+
+        // Unused leased tokens are dropped after this long, so idle nodes don't sit on quota
+        private Duration leaseTtl = Duration.ofSeconds(5);
+
+        private RefillPolicy refill = RefillPolicy.GREEDY;
+
+        // Share of the limit a node may admit per period on its own while Redis is unreachable
+        private double allowedOvershoot = 0.1;
+
+        // Skip Redis for this long after a failed lease instead of timing out on every request
+        private Duration unavailableBackoff = Duration.ofSeconds(1);
+
+        private long maxLocalBuckets = 100_000;
+    }
+
     @Data
     public static class EndpointLimit {
         private int limit;
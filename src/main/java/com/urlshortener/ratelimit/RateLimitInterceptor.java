@@ -5,11 +5,10 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
-import java.time.Duration;
-
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -21,33 +20,33 @@ public class RateLimitInterceptor implements HandlerInterceptor {
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        String clientIp = getClientIp(request);
-        String requestUri = request.getRequestURI();
-        String method = request.getMethod();
-
-        // Determine rate limit based on endpoint
-        int limit;
-        Duration duration;
-
-        if (requestUri.startsWith("/api/v1/urls") && "POST".equals(method)) {
-            limit = rateLimitConfig.getCreateUrl().getLimit();
-            duration = rateLimitConfig.getCreateUrl().getDuration();
-        } else if (requestUri.matches("^/[a-zA-Z0-9]+$") && "GET".equals(method)) {
-            limit = rateLimitConfig.getRedirect().getLimit();
-            duration = rateLimitConfig.getRedirect().getDuration();
-        } else if (requestUri.contains("/stats")) {
-            limit = rateLimitConfig.getStats().getLimit();
-            duration = rateLimitConfig.getStats().getDuration();
-        } else {
+        EndpointClass endpointClass = EndpointClass.of(request);
+        if (endpointClass == null) {
             // No rate limit for other endpoints
             return true;
         }
 
-        String rateLimitKey = clientIp + ":" + requestUri;
+        RateLimitConfig.EndpointLimit endpointLimit = switch (endpointClass) {
+            case CREATE -> rateLimitConfig.getCreateUrl();
+            case BATCH_CREATE -> rateLimitConfig.getBatchCreate();
+            case REDIRECT -> rateLimitConfig.getRedirect();
+            case STATS -> rateLimitConfig.getStats();
+        };
 
-        if (!rateLimitService.isAllowed(rateLimitKey, limit, duration)) {
+        // One bucket per client per endpoint class, not per client per short code
+        String rateLimitKey = endpointClass.key() + ":" + getClientIp(request);
+        int limit = endpointLimit.getLimit();
+
+        RateLimitResult result = rateLimitService.tryConsume(rateLimitKey, limit, endpointLimit.getDuration());
+
+        response.addHeader("X-RateLimit-Limit", String.valueOf(limit));
+        response.addHeader("X-RateLimit-Remaining", String.valueOf(result.remaining()));
+        response.addHeader("X-RateLimit-Reset", String.valueOf(toSeconds(result.resetAfterMillis())));
+
+        if (!result.allowed()) {
             metricsService.incrementRateLimitExceeded();
-            response.setStatus(HttpServletResponse.SC_TOO_MANY_REQUESTS);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.addHeader("Retry-After", String.valueOf(toSeconds(result.retryAfterMillis())));
             response.setContentType("application/json");
             response.getWriter().write(String.format(
                 "{\"status\": 429, \"error\": \"TOO_MANY_REQUESTS\", \"message\": \"Rate limit exceeded. Try again later.\", \"timestamp\": %d}",
@@ -56,14 +55,13 @@ public class RateLimitInterceptor implements HandlerInterceptor {
             return false;
         }
 
-        // Add rate limit headers
-        long remaining = rateLimitService.getRemainingRequests(rateLimitKey, limit);
-        response.addHeader("X-RateLimit-Limit", String.valueOf(limit));
-        response.addHeader("X-RateLimit-Remaining", String.valueOf(remaining));
-
         return true;
     }
 
+    private static long toSeconds(long millis) {
+        return (millis + 999) / 1000;
+    }
+
     private String getClientIp(HttpServletRequest request) {
         String ip = request.getHeader("X-Forwarded-For");
         if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
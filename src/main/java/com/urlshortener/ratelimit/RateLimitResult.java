@@ -0,0 +1,18 @@
+package com.urlshortener.ratelimit;
+
+/**
+ * Outcome of one rate limit check
+ * @param remaining Requests still allowed right now
+ * @param retryAfterMillis When denied, how long until the next request would be allowed
+ * @param resetAfterMillis How long until the full quota is available again
+ */
+public record RateLimitResult(boolean allowed, int limit, long remaining,
+                              long retryAfterMillis, long resetAfterMillis) {
+
+    /**
+     * Used when the limiter can't be consulted: let the request through
+     */
+    public static RateLimitResult failOpen(int limit) {
+        return new RateLimitResult(true, limit, limit, 0, 0);
+    }
+}
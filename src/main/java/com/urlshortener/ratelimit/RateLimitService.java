@@ -1,16 +1,13 @@
 package com.urlshortener.ratelimit;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.BucketConfiguration;
-import io.github.bucket4j.distributed.proxy.ProxyManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.util.function.Supplier;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -18,53 +15,81 @@ import java.util.function.Supplier;
 public class RateLimitService {
 
     private final RedisTemplate<String, String> redisTemplate;
+    private final RateLimitConfig rateLimitConfig;
+    private final HybridRateLimiter hybridRateLimiter;
     
     private static final String RATE_LIMIT_PREFIX = "rate_limit:";
 
     /**
-     * Check if request is allowed based on rate limit
-     * @param key Unique identifier (e.g., IP address)
-     * @param limit Number of requests allowed
+     * GCRA (generic cell rate algorithm): the key holds the theoretical arrival time (TAT)
+     * of the next request in ms. Each request pushes it forward by period / limit; a request
+     * is denied while TAT would run more than one period ahead of now. Uses the Redis clock,
+     * so app nodes with skewed clocks share one view of time.
+     * Returns {allowed, remaining, retry_after_ms, reset_after_ms}.
+     */
+    private static final RedisScript<List<Long>> GCRA_SCRIPT = listScript("""
+            if redis.replicate_commands then
+                redis.replicate_commands()
+            end
+            local limit = tonumber(ARGV[1])
+            local period = tonumber(ARGV[2])
+            local emission = period / limit
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + tonumber(time[2]) / 1000
+            local tat = tonumber(redis.call('GET', KEYS[1])) or now
+            if tat < now then
+                tat = now
+            end
+            local new_tat = tat + emission
+            local allow_at = new_tat - period
+            if now < allow_at then
+                return {0, 0, math.ceil(allow_at - now), math.ceil(tat - now)}
+            end
+            redis.call('SET', KEYS[1], tostring(new_tat), 'PX', math.ceil(new_tat - now))
+            local remaining = math.floor((now - allow_at) / emission)
+            return {1, remaining, 0, math.ceil(new_tat - now)}
+            """);
+
+    /**
+     * Check and consume one request in a single atomic round trip
+     * (or mostly locally, in HYBRID mode)
+     * @param key Unique identifier (e.g., endpoint class and client IP)
+     * @param limit Number of requests allowed per period (also the burst size)
      * @param duration Time window
-     * @return true if request is allowed, false if rate limited
      */
-    public boolean isAllowed(String key, int limit, Duration duration) {
+    public RateLimitResult tryConsume(String key, int limit, Duration duration) {
+        if (rateLimitConfig.getMode() == RateLimitConfig.Mode.HYBRID) {
+            return hybridRateLimiter.tryConsume(key, limit, duration);
+        }
+
         String redisKey = RATE_LIMIT_PREFIX + key;
-        
+
         try {
-            // Get current count
-            String countStr = redisTemplate.opsForValue().get(redisKey);
-            long currentCount = countStr != null ? Long.parseLong(countStr) : 0;
-            
-            if (currentCount >= limit) {
-                log.warn("Rate limit exceeded for key: {}", key);
-                return false;
+            List<Long> result = redisTemplate.execute(GCRA_SCRIPT, List.of(redisKey),
+                    String.valueOf(limit), String.valueOf(duration.toMillis()));
+            if (result == null || result.size() < 4) {
+                log.error("Unexpected rate limit script result for key {}: {}", key, result);
+                return RateLimitResult.failOpen(limit);
             }
-            
-            // Increment counter
-            Long newCount = redisTemplate.opsForValue().increment(redisKey);
-            
-            // Set expiry on first request
-            if (newCount == 1) {
-                redisTemplate.expire(redisKey, duration);
+
+            boolean allowed = result.get(0) == 1L;
+            if (!allowed) {
+                log.warn("Rate limit exceeded for key: {}", key);
             }
-            
-            return true;
+            return new RateLimitResult(allowed, limit, result.get(1), result.get(2), result.get(3));
         } catch (Exception e) {
             log.error("Error checking rate limit for key: {}", key, e);
             // Fail open - allow request if Redis fails
-            return true;
+            return RateLimitResult.failOpen(limit);
         }
     }
 
     /**
-     * Get remaining requests for a key
+     * Check if request is allowed based on rate limit
+     * @return true if request is allowed, false if rate limited
      */
-    public long getRemainingRequests(String key, int limit) {
-        String redisKey = RATE_LIMIT_PREFIX + key;
-        String countStr = redisTemplate.opsForValue().get(redisKey);
-        long currentCount = countStr != null ? Long.parseLong(countStr) : 0;
-        return Math.max(0, limit - currentCount);
+    public boolean isAllowed(String key, int limit, Duration duration) {
+        return tryConsume(key, limit, duration).allowed();
     }
 
     /**
@@ -74,4 +99,12 @@ public class RateLimitService {
         String redisKey = RATE_LIMIT_PREFIX + key;
         redisTemplate.delete(redisKey);
     }
+
+    /**
+     * RedisScript.of only takes a raw class; the script returns Lua integers, i.e. Longs
+     */
+    @SuppressWarnings("unchecked")
+    private static RedisScript<List<Long>> listScript(String script) {
+        return (RedisScript<List<Long>>) (RedisScript<?>) RedisScript.of(script, List.class);
+    }
 }
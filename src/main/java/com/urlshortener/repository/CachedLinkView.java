@@ -0,0 +1,17 @@
+package com.urlshortener.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a URL row with just what the caches need
+ */
+public interface CachedLinkView {
+
+    Long getId();
+
+    String getShortCode();
+
+    String getOriginalUrl();
+
+    LocalDateTime getExpiryDate();
+}
@@ -0,0 +1,54 @@
+package com.urlshortener.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class ClickCountRepository {
+
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Apply click count deltas keyed by short code
+     * One UPDATE ... FROM (VALUES ...) statement per 1000 codes, all in one transaction
+     * @return number of rows updated
+     */
+    @Transactional
+    public int incrementClickCounts(Map<String, Long> deltas) {
+        int updated = 0;
+        Iterator<Map.Entry<String, Long>> iterator = deltas.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            StringBuilder sql = new StringBuilder(
+                    "UPDATE urls u SET click_count = u.click_count + v.delta FROM (VALUES ");
+            List<Object> args = new ArrayList<>();
+
+            int rows = 0;
+            while (iterator.hasNext() && rows < MAX_ROWS_PER_STATEMENT) {
+                Map.Entry<String, Long> entry = iterator.next();
+                if (rows > 0) {
+                    sql.append(", ");
+                }
+                sql.append("(CAST(? AS VARCHAR), CAST(? AS BIGINT))");
+                args.add(entry.getKey());
+                args.add(entry.getValue());
+                rows++;
+            }
+            sql.append(") AS v(short_code, delta) WHERE u.short_code = v.short_code");
+
+            updated += jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+
+        return updated;
+    }
+}
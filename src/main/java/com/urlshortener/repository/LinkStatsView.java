@@ -0,0 +1,21 @@
+package com.urlshortener.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a URL row with what the stats endpoints report
+ */
+public interface LinkStatsView {
+
+    Long getId();
+
+    String getShortCode();
+
+    String getOriginalUrl();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getExpiryDate();
+
+    Long getClickCount();
+}
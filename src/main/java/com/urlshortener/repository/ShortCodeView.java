@@ -0,0 +1,11 @@
+package com.urlshortener.repository;
+
+/**
+ * Lightweight projection of a URL row: id and short code only
+ */
+public interface ShortCodeView {
+
+    Long getId();
+
+    String getShortCode();
+}
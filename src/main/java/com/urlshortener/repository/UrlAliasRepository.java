@@ -0,0 +1,19 @@
+package com.urlshortener.repository;
+
+import com.urlshortener.model.UrlAlias;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UrlAliasRepository extends JpaRepository<UrlAlias, String> {
+
+    /**
+     * Alias primary-key lookup joined to its url row, as a projection
+     */
+    @Query("SELECT u.id AS id, u.shortCode AS shortCode, u.originalUrl AS originalUrl, u.expiryDate AS expiryDate " +
+           "FROM UrlAlias a JOIN Url u ON u.id = a.urlId WHERE a.alias = :alias")
+    Optional<CachedLinkView> findLinkByAlias(String alias);
+}
@@ -0,0 +1,121 @@
+package com.urlshortener.repository;
+
+import com.urlshortener.model.Url;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Plain JDBC writes for URL rows where JPA would cost extra round-trips
+ */
+@Repository
+@RequiredArgsConstructor
+public class UrlJdbcRepository {
+
+    private static final String INSERT_IF_ABSENT_SQL =
+            "INSERT INTO urls (id, original_url, short_code, created_at, expiry_date, click_count, url_hash) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT (short_code) DO NOTHING";
+
+    private static final String INSERT_ALIAS_SQL = "INSERT INTO url_aliases (alias, url_id) VALUES (?, ?)";
+
+    private static final String NEXT_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('urls', 'id')) FROM generate_series(1, ?)";
+
+    // Reads the sequence without advancing it; null until the first nextval
+    private static final String CURRENT_ID_SQL =
+            "SELECT COALESCE(pg_sequence_last_value(pg_get_serial_sequence('urls', 'id')::regclass), 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert a URL with a pre-assigned id in a single statement
+     * @return false if the short code is already taken (nothing was written)
+     */
+    public boolean insertIfAbsent(Url url) {
+        int rows = jdbcTemplate.update(INSERT_IF_ABSENT_SQL,
+                url.getId(),
+                url.getOriginalUrl(),
+                url.getShortCode(),
+                Timestamp.valueOf(url.getCreatedAt()),
+                url.getExpiryDate() != null ? Timestamp.valueOf(url.getExpiryDate()) : null,
+                url.getClickCount(),
+                url.getUrlHash());
+        return rows == 1;
+    }
+
+    /**
+     * Insert URLs with pre-assigned ids as one JDBC batch
+     * @return per row, false if its short code was already taken (that row was not written)
+     * @throws IllegalStateException if the driver does not report per-row update counts
+     */
+    public boolean[] insertAllIfAbsent(List<Url> urls) {
+        int[] rows = jdbcTemplate.batchUpdate(INSERT_IF_ABSENT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Url url = urls.get(i);
+                ps.setLong(1, url.getId());
+                ps.setString(2, url.getOriginalUrl());
+                ps.setString(3, url.getShortCode());
+                ps.setTimestamp(4, Timestamp.valueOf(url.getCreatedAt()));
+                ps.setTimestamp(5, url.getExpiryDate() != null ? Timestamp.valueOf(url.getExpiryDate()) : null);
+                ps.setLong(6, url.getClickCount());
+                ps.setString(7, url.getUrlHash());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return urls.size();
+            }
+        });
+
+        boolean[] inserted = new boolean[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            // A driver rewriting the batch (reWriteBatchedInserts) reports SUCCESS_NO_INFO for every row,
+            // which would hide taken codes; refuse rather than guess
+            if (rows[i] == Statement.SUCCESS_NO_INFO) {
+                throw new IllegalStateException("Batch insert returned no per-row update counts; " +
+                        "disable batch rewriting on the JDBC driver");
+            }
+            inserted[i] = rows[i] == 1;
+        }
+        return inserted;
+    }
+
+    /**
+     * Reserve n ids from the urls identity sequence in one round-trip
+     */
+    public List<Long> nextIds(int n) {
+        return jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, n);
+    }
+
+    /**
+     * Last id handed out by the urls identity sequence, or 0 if none has been
+     */
+    public long currentId() {
+        Long id = jdbcTemplate.queryForObject(CURRENT_ID_SQL, Long.class);
+        return id != null ? id : 0L;
+    }
+
+    /**
+     * Register a custom alias for a row; the alias must already hold the row's short_code,
+     * whose unique index is what rejects a taken alias
+     */
+    public void insertAlias(String alias, long urlId) {
+        jdbcTemplate.update(INSERT_ALIAS_SQL, alias, urlId);
+    }
+
+    public void insertAliases(List<Url> urls) {
+        jdbcTemplate.batchUpdate(INSERT_ALIAS_SQL, urls, urls.size(),
+                (ps, url) -> {
+                    ps.setString(1, url.getShortCode());
+                    ps.setLong(2, url.getId());
+                });
+    }
+}
@@ -1,11 +1,14 @@
 package com.urlshortener.repository;
 
 import com.urlshortener.model.Url;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,7 +18,46 @@ public interface UrlRepository extends JpaRepository<Url, Long> {
 
     boolean existsByShortCode(String shortCode);
 
+    /**
+     * Primary-key lookup of a generated code's row, as a projection (no managed entity)
+     */
+    @Query("SELECT u.id AS id, u.shortCode AS shortCode, u.originalUrl AS originalUrl, u.expiryDate AS expiryDate " +
+           "FROM Url u WHERE u.id = :id")
+    Optional<CachedLinkView> findLinkById(Long id);
+
+    @Query("SELECT u.id AS id, u.shortCode AS shortCode, u.originalUrl AS originalUrl, u.expiryDate AS expiryDate " +
+           "FROM Url u WHERE u.shortCode = :shortCode")
+    Optional<CachedLinkView> findLinkByShortCode(String shortCode);
+
     @Modifying
     @Query("UPDATE Url u SET u.clickCount = u.clickCount + 1 WHERE u.id = :id")
     void incrementClickCount(Long id);
+
+    /**
+     * Keyset-paged scan of short codes, ordered by id
+     */
+    @Query("SELECT u.id AS id, u.shortCode AS shortCode FROM Url u WHERE u.id > :afterId ORDER BY u.id")
+    List<ShortCodeView> findShortCodesAfter(Long afterId, Pageable pageable);
+
+    /**
+     * Keyset-paged scan of links, newest id first
+     */
+    @Query("SELECT u.id AS id, u.shortCode AS shortCode, u.originalUrl AS originalUrl, u.expiryDate AS expiryDate " +
+           "FROM Url u WHERE u.id < :beforeId ORDER BY u.id DESC")
+    List<CachedLinkView> findLinksBefore(Long beforeId, Pageable pageable);
+
+    @Query("SELECT u.id AS id, u.shortCode AS shortCode, u.originalUrl AS originalUrl, u.expiryDate AS expiryDate " +
+           "FROM Url u WHERE u.shortCode IN :shortCodes")
+    List<CachedLinkView> findLinksByShortCodeIn(Collection<String> shortCodes);
+
+    @Query("SELECT u.id AS id, u.shortCode AS shortCode, u.originalUrl AS originalUrl, u.createdAt AS createdAt, " +
+           "u.expiryDate AS expiryDate, u.clickCount AS clickCount FROM Url u WHERE u.shortCode IN :shortCodes")
+    List<LinkStatsView> findStatsByShortCodeIn(Collection<String> shortCodes);
+
+    /**
+     * Dedup candidates for a URL hash, oldest first; callers compare the URL itself
+     */
+    @Query("SELECT u.id AS id, u.shortCode AS shortCode, u.originalUrl AS originalUrl, u.createdAt AS createdAt, " +
+           "u.expiryDate AS expiryDate, u.clickCount AS clickCount FROM Url u WHERE u.urlHash = :urlHash ORDER BY u.id")
+    List<LinkStatsView> findStatsByUrlHash(String urlHash);
 }
@@ -0,0 +1,19 @@
+package com.urlshortener.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "bulk-lookup")
+@Data
+public class BulkLookupConfig {
+
+    // Most codes one bulk stats or resolve request may ask for
+    private int maxCodes = 100;
+
+    // How long the bulk stats endpoint keeps a link's stats in Redis; ClickCounter flushes evict earlier
+    private Duration statsCacheTtl = Duration.ofSeconds(30);
+}
@@ -0,0 +1,32 @@
+package com.urlshortener.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "id-generation")
+@Data
+public class IdGenerationConfig {
+
+    /**
+     * How new URL rows get their id (and so their generated short code):
+     * IDENTITY  - database identity column; insert, then update with the encoded id
+     * SNOWFLAKE - SnowflakeIdGenerator assigns the id up front; one INSERT per create
+     */
+    private Strategy strategy = Strategy.IDENTITY;
+
+    // SNOWFLAKE: custom aliases that decode to an id generated this recently, or later, are refused;
+    // covers clock skew between nodes and links still waiting in the write-behind queue
+    private Duration aliasReserveWindow = Duration.ofDays(1);
+
+    // IDENTITY: custom aliases that decode to an id within this many of the current sequence value are refused
+    private long aliasReserveIds = 10_000L;
+
+    public enum Strategy {
+        IDENTITY,
+        SNOWFLAKE
+    }
+}
@@ -0,0 +1,77 @@
+package com.urlshortener.service;
+
+import com.urlshortener.repository.UrlJdbcRepository;
+import com.urlshortener.util.Base62Encoder;
+import com.urlshortener.util.SnowflakeIdGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Keeps generated short codes and custom aliases apart
+ *
+ * A generated code is the canonical encoding of an id: it decodes, and the id
+ * encodes back to the same string. Ids only grow, so an alias that is the
+ * encoding of an id not yet handed out would later take that id's code.
+ * Aliases of ids about to be handed out are reserved: under SNOWFLAKE
+ * everything from alias-reserve-window ago on, under IDENTITY the ids within
+ * alias-reserve-ids of the current sequence value. Codes of ids already used
+ * are held by their rows; an id that reaches an alias created further ahead
+ * finds its code taken and the create moves on to a fresh id.
+ */
+@Component
+@RequiredArgsConstructor
+public class ShortCodeNamespace {
+
+    private final Base62Encoder base62Encoder;
+    private final IdGenerationConfig idGenerationConfig;
+    private final UrlJdbcRepository urlJdbcRepository;
+
+    /**
+     * @return the id this code was generated from, or empty if no id encodes to it
+     */
+    public Optional<Long> generatedId(String shortCode) {
+        try {
+            long id = base62Encoder.decode(shortCode);
+            return base62Encoder.encode(id).equals(shortCode) ? Optional.of(id) : Optional.empty();
+        } catch (IllegalArgumentException e) {
+            // Not a code this encoder could have generated
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Whether a custom alias could collide with a generated code
+     */
+    public boolean isReserved(String alias) {
+        Optional<Long> id = generatedId(alias);
+        return id.isPresent() && reservedIds().contains(id.get());
+    }
+
+    /**
+     * Ids whose codes are about to be generated. Under IDENTITY this reads the
+     * sequence, so look it up once per request
+     */
+    public ReservedIds reservedIds() {
+        if (idGenerationConfig.getStrategy() == IdGenerationConfig.Strategy.SNOWFLAKE) {
+            return new ReservedIds(SnowflakeIdGenerator.firstIdAt(
+                    System.currentTimeMillis() - idGenerationConfig.getAliasReserveWindow().toMillis()),
+                    Long.MAX_VALUE);
+        }
+        // Also below the current value: an id taken but not yet committed has no code on its row yet
+        long current = urlJdbcRepository.currentId();
+        long window = idGenerationConfig.getAliasReserveIds();
+        return new ReservedIds(Math.max(0L, current - window), current + window);
+    }
+
+    /**
+     * Inclusive id range
+     */
+    public record ReservedIds(long from, long to) {
+
+        public boolean contains(long id) {
+            return id >= from && id <= to;
+        }
+    }
+}
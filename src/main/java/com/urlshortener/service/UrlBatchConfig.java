@@ -0,0 +1,17 @@
+package com.urlshortener.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "url-batch")
+@Data
+public class UrlBatchConfig {
+
+    // Rows per JDBC batch; each chunk commits on its own, so a failed chunk only fails its items
+    private int insertChunkSize = 1000;
+
+    // Write created links to Redis in one pipeline (the local cache is skipped: a batch isn't hot)
+    private boolean warmCache = true;
+}
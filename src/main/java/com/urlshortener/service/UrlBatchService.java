@@ -0,0 +1,308 @@
+package com.urlshortener.service;
+
+import com.urlshortener.cache.CachedUrl;
+import com.urlshortener.cache.ShortCodeFilter;
+import com.urlshortener.cache.UrlCacheConfig;
+import com.urlshortener.cache.UrlCacheStore;
+import com.urlshortener.datasource.ReadYourWrites;
+import com.urlshortener.dto.BatchCreateUrlResponse;
+import com.urlshortener.dto.BatchCreateUrlResult;
+import com.urlshortener.dto.CreateUrlRequest;
+import com.urlshortener.dto.UrlResponse;
+import com.urlshortener.model.Url;
+import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.repository.UrlJdbcRepository;
+import com.urlshortener.security.UrlValidationService;
+import com.urlshortener.util.Base62Encoder;
+import com.urlshortener.util.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Creates many short URLs per request
+ *
+ * Items are validated in parallel, ids are reserved as one block, rows go to
+ * the database as JDBC batches of insert-chunk-size (one transaction each)
+ * and the created links are written to Redis in a single pipeline. Every item
+ * gets its own result; a failing item, or a failing chunk, doesn't fail the
+ * others.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UrlBatchService {
+
+    private final Validator validator;
+    private final UrlValidationService urlValidationService;
+    private final Base62Encoder base62Encoder;
+    private final SnowflakeIdGenerator snowflakeIdGenerator;
+    private final IdGenerationConfig idGenerationConfig;
+    private final UrlJdbcRepository urlJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final UrlCacheStore urlCacheStore;
+    private final UrlCacheConfig urlCacheConfig;
+    private final ShortCodeFilter shortCodeFilter;
+    private final ReadYourWrites readYourWrites;
+    private final MetricsService metricsService;
+    private final UrlBatchConfig urlBatchConfig;
+    private final ShortCodeNamespace shortCodeNamespace;
+
+    @Value("${app.base-url:http://localhost:8080}")
+    private String baseUrl;
+
+    public BatchCreateUrlResponse createShortUrls(List<CreateUrlRequest> requests) {
+        Timer.Sample sample = metricsService.startTimer();
+        int size = requests.size();
+        BatchCreateUrlResult[] results = new BatchCreateUrlResult[size];
+
+        // Validation is CPU-only, so it runs on the common pool
+        Url[] drafts = new Url[size];
+        IntStream.range(0, size).parallel().forEach(i -> {
+            try {
+                drafts[i] = draft(requests.get(i));
+            } catch (IllegalArgumentException e) {
+                results[i] = failure(i, HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", e.getMessage());
+            }
+        });
+        rejectReservedAliases(requests, drafts, results);
+
+        List<Url> valid = new ArrayList<>(size);
+        int[] positions = new int[size];
+        for (int i = 0; i < size; i++) {
+            if (drafts[i] != null) {
+                positions[valid.size()] = i;
+                valid.add(drafts[i]);
+            }
+        }
+        assignIds(valid);
+
+        int created = 0;
+        Map<String, CachedUrl> cacheEntries = new HashMap<>();
+        int chunkSize = Math.max(1, urlBatchConfig.getInsertChunkSize());
+        for (int start = 0; start < valid.size(); start += chunkSize) {
+            int from = start;
+            List<Url> chunk = valid.subList(start, Math.min(valid.size(), start + chunkSize));
+            boolean[] inserted;
+            try {
+                inserted = transactionTemplate.execute(status ->
+                        insert(chunk, i -> isAlias(requests.get(positions[from + i]))));
+            } catch (RuntimeException e) {
+                log.error("Batch insert of {} URLs failed", chunk.size(), e);
+                for (int i = 0; i < chunk.size(); i++) {
+                    int index = positions[from + i];
+                    results[index] = failure(index, HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_ERROR",
+                            "An unexpected error occurred");
+                }
+                continue;
+            }
+
+            for (int i = 0; i < chunk.size(); i++) {
+                Url url = chunk.get(i);
+                int index = positions[from + i];
+                if (!inserted[i]) {
+                    results[index] = isAlias(requests.get(index))
+                            ? failure(index, HttpStatus.CONFLICT, "CONFLICT",
+                                    "Custom alias already exists: " + url.getShortCode())
+                            : failure(index, HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_ERROR",
+                                    "Generated short code already in use: " + url.getShortCode());
+                    continue;
+                }
+                created++;
+                shortCodeFilter.add(url.getShortCode());
+                readYourWrites.written(url.getShortCode());
+                cacheEntries.put(url.getShortCode(), CachedUrl.of(url.getOriginalUrl(),
+                        CachedUrl.linkExpiry(url.getExpiryDate()), urlCacheConfig.getTtl(), 0L));
+                results[index] = BatchCreateUrlResult.builder()
+                        .index(index)
+                        .status(HttpStatus.CREATED.value())
+                        .url(buildUrlResponse(url))
+                        .build();
+            }
+        }
+
+        warmCache(cacheEntries);
+
+        metricsService.recordUrlBatch(created, size - created, sample);
+        log.info("Batch created {} of {} short URLs", created, size);
+
+        return BatchCreateUrlResponse.builder()
+                .created(created)
+                .failed(size - created)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    /**
+     * Check one item as the single-create endpoint would, without its id
+     * @throws IllegalArgumentException with the message to report for the item
+     */
+    private Url draft(CreateUrlRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Item is empty");
+        }
+        Set<ConstraintViolation<CreateUrlRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        urlValidationService.validateUrl(request.getOriginalUrl());
+
+        LocalDateTime expiryDate = null;
+        if (request.getExpiryDate() != null && !request.getExpiryDate().isEmpty()) {
+            try {
+                expiryDate = LocalDateTime.parse(request.getExpiryDate(), DateTimeFormatter.ISO_DATE_TIME);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid expiry date: " + request.getExpiryDate());
+            }
+        }
+
+        return Url.builder()
+                .originalUrl(request.getOriginalUrl())
+                .shortCode(isAlias(request) ? request.getCustomAlias() : null)
+                .createdAt(LocalDateTime.now())
+                .expiryDate(expiryDate)
+                .clickCount(0L)
+                .build();
+    }
+
+    /**
+     * Aliases that ids still to be handed out would encode to belong to generated codes
+     */
+    private void rejectReservedAliases(List<CreateUrlRequest> requests, Url[] drafts, BatchCreateUrlResult[] results) {
+        ShortCodeNamespace.ReservedIds reserved = null;
+        for (int i = 0; i < drafts.length; i++) {
+            if (drafts[i] == null || !isAlias(requests.get(i))) {
+                continue;
+            }
+            Optional<Long> id = shortCodeNamespace.generatedId(drafts[i].getShortCode());
+            if (id.isEmpty()) {
+                continue;
+            }
+            if (reserved == null) {
+                reserved = shortCodeNamespace.reservedIds();
+            }
+            if (reserved.contains(id.get())) {
+                results[i] = failure(i, HttpStatus.CONFLICT, "CONFLICT",
+                        "Custom alias is reserved for generated short codes: " + drafts[i].getShortCode());
+                drafts[i] = null;
+            }
+        }
+    }
+
+    /**
+     * One id block for the whole batch, from the Snowflake generator or the identity sequence
+     */
+    private void assignIds(List<Url> urls) {
+        if (urls.isEmpty()) {
+            return;
+        }
+        long[] ids = idGenerationConfig.getStrategy() == IdGenerationConfig.Strategy.SNOWFLAKE
+                ? snowflakeIdGenerator.nextIds(urls.size())
+                : urlJdbcRepository.nextIds(urls.size()).stream().mapToLong(Long::longValue).toArray();
+        for (int i = 0; i < urls.size(); i++) {
+            Url url = urls.get(i);
+            url.setId(ids[i]);
+            if (url.getShortCode() == null) {
+                url.setShortCode(base62Encoder.encode(ids[i]));
+            }
+        }
+    }
+
+    private boolean[] insert(List<Url> chunk, IntPredicate isAlias) {
+        boolean[] inserted = urlJdbcRepository.insertAllIfAbsent(chunk);
+
+        // A generated code can only be held by an alias created before reservation; give those rows new ids
+        for (int attempt = 1; attempt < UrlService.MAX_GENERATE_ATTEMPTS; attempt++) {
+            List<Integer> taken = IntStream.range(0, chunk.size())
+                    .filter(i -> !inserted[i] && !isAlias.test(i))
+                    .boxed()
+                    .toList();
+            if (taken.isEmpty()) {
+                break;
+            }
+            log.warn("{} generated short codes are held by custom aliases, taking new ids", taken.size());
+            metricsService.incrementGeneratedCodeConflicts(taken.size());
+            List<Url> retry = taken.stream().map(chunk::get).toList();
+            retry.forEach(url -> url.setShortCode(null));
+            assignIds(retry);
+            boolean[] retried = urlJdbcRepository.insertAllIfAbsent(retry);
+            for (int i = 0; i < taken.size(); i++) {
+                inserted[taken.get(i)] = retried[i];
+            }
+        }
+
+        List<Url> aliases = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            // Generated codes resolve by id; only aliases need the alias index
+            if (inserted[i] && isAlias.test(i)) {
+                aliases.add(chunk.get(i));
+            }
+        }
+        if (!aliases.isEmpty()) {
+            urlJdbcRepository.insertAliases(aliases);
+        }
+        return inserted;
+    }
+
+    /**
+     * The links are committed either way; on a Redis failure they are cached on first redirect
+     */
+    private void warmCache(Map<String, CachedUrl> entries) {
+        if (!urlBatchConfig.isWarmCache() || entries.isEmpty()) {
+            return;
+        }
+        try {
+            urlCacheStore.putAll(entries);
+        } catch (RuntimeException e) {
+            log.warn("Failed to cache {} batch-created URLs", entries.size(), e);
+        }
+    }
+
+    private static boolean isAlias(CreateUrlRequest request) {
+        return request.getCustomAlias() != null && !request.getCustomAlias().isEmpty();
+    }
+
+    private static BatchCreateUrlResult failure(int index, HttpStatus status, String error, String message) {
+        return BatchCreateUrlResult.builder()
+                .index(index)
+                .status(status.value())
+                .error(error)
+                .message(message)
+                .build();
+    }
+
+    private UrlResponse buildUrlResponse(Url url) {
+        return UrlResponse.builder()
+                .id(url.getId())
+                .originalUrl(url.getOriginalUrl())
+                .shortCode(url.getShortCode())
+                .shortUrl(baseUrl + "/" + url.getShortCode())
+                .createdAt(url.getCreatedAt())
+                .expiryDate(url.getExpiryDate())
+                .clickCount(url.getClickCount())
+                .build();
+    }
+}
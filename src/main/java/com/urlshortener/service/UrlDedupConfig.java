@@ -0,0 +1,24 @@
+package com.urlshortener.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "url-dedup")
+@Data
+public class UrlDedupConfig {
+
+    /**
+     * A create without a custom alias returns the existing generated code for the same
+     * normalized URL and the same expiry date, if that link hasn't expired, instead of inserting
+     */
+    private boolean enabled = false;
+
+    // URLs this node created or matched recently, answered without a query
+    private long recentMaximumSize = 100_000;
+
+    private Duration recentTtl = Duration.ofMinutes(10);
+}
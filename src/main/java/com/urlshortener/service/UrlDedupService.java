@@ -0,0 +1,194 @@
+package com.urlshortener.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.urlshortener.model.Url;
+import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.repository.LinkStatsView;
+import com.urlshortener.repository.UrlRepository;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Finds the existing link for a repeated create
+ *
+ * Rows with a generated code store url_hash, the first 16 bytes of the
+ * SHA-256 of the normalized URL (hex, indexed). A repeat is a create without
+ * a custom alias whose normalized URL and expiry date both match a link that
+ * hasn't expired; a different expiry gets its own link, and custom aliases
+ * are never matched or returned. Candidates are compared on the normalized
+ * URL, so a hash collision can't return the wrong link. Concurrent first
+ * creates of the same URL can still produce two links; repeats then get the
+ * oldest.
+ */
+@Service
+public class UrlDedupService {
+
+    private static final int HASH_BYTES = 16;
+
+    private final UrlRepository urlRepository;
+    private final UrlDedupConfig config;
+    private final MetricsService metricsService;
+
+    // "<hash>|<expiry>" -> link, for repeats that arrive close together on this node
+    private final Cache<String, Url> recent;
+
+    public UrlDedupService(UrlRepository urlRepository, UrlDedupConfig config, MetricsService metricsService) {
+        this.urlRepository = urlRepository;
+        this.config = config;
+        this.metricsService = metricsService;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(config.getRecentMaximumSize())
+                .expireAfterWrite(config.getRecentTtl())
+                .build();
+    }
+
+    /**
+     * Whether a create is deduplicated (otherwise it always gets a new link, and no url_hash)
+     */
+    public boolean applies(String customAlias) {
+        return config.isEnabled() && (customAlias == null || customAlias.isEmpty());
+    }
+
+    /**
+     * The recent-URL cache, then the url_hash index
+     */
+    public Optional<Url> findExisting(String originalUrl, LocalDateTime expiryDate) {
+        String normalized = normalize(originalUrl);
+        String hash = digest(normalized);
+        Optional<Url> url = recent(hash, expiryDate);
+        if (url.isPresent()) {
+            return url;
+        }
+
+        url = urlRepository.findStatsByUrlHash(hash).stream()
+                .filter(row -> Objects.equals(row.getExpiryDate(), expiryDate) && !Url.isExpired(row.getExpiryDate()))
+                .filter(row -> normalize(row.getOriginalUrl()).equals(normalized))
+                .findFirst()
+                .map(row -> toUrl(row, hash));
+        metricsService.incrementUrlDedup(url.isPresent() ? "database" : "miss");
+        url.ifPresent(this::remember);
+        return url;
+    }
+
+    /**
+     * The recent-URL cache only; for create paths that must not touch the database
+     */
+    public Optional<Url> findRecent(String originalUrl, LocalDateTime expiryDate) {
+        Optional<Url> url = recent(hash(originalUrl), expiryDate);
+        if (url.isEmpty()) {
+            metricsService.incrementUrlDedup("miss");
+        }
+        return url;
+    }
+
+    /**
+     * Record a link with a url_hash so the next repeat on this node needs no query
+     */
+    public void remember(Url url) {
+        if (url.getUrlHash() != null) {
+            recent.put(key(url.getUrlHash(), url.getExpiryDate()), url);
+        }
+    }
+
+    /**
+     * Stop handing out a link that was never stored; leaves a newer link for the same URL alone
+     */
+    public void forget(Url url) {
+        if (url.getUrlHash() != null) {
+            recent.asMap().computeIfPresent(key(url.getUrlHash(), url.getExpiryDate()),
+                    (key, cached) -> url.getShortCode().equals(cached.getShortCode()) ? null : cached);
+        }
+    }
+
+    /**
+     * The url_hash of a URL, as stored on its row
+     */
+    public String hash(String originalUrl) {
+        return digest(normalize(originalUrl));
+    }
+
+    private static String digest(String normalized) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, HASH_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Lowercase scheme and host, drop the default port, "/" for an empty path.
+     * Path, query and fragment are kept as sent: they can change the destination.
+     */
+    static String normalize(String originalUrl) {
+        String trimmed = originalUrl.trim();
+        try {
+            URI uri = new URI(trimmed);
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                return trimmed;
+            }
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            int port = uri.getPort();
+            if (("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443)) {
+                port = -1;
+            }
+
+            StringBuilder normalized = new StringBuilder(trimmed.length()).append(scheme).append("://");
+            if (uri.getRawUserInfo() != null) {
+                normalized.append(uri.getRawUserInfo()).append('@');
+            }
+            normalized.append(uri.getHost().toLowerCase(Locale.ROOT));
+            if (port != -1) {
+                normalized.append(':').append(port);
+            }
+            String path = uri.getRawPath();
+            normalized.append(path == null || path.isEmpty() ? "/" : path);
+            if (uri.getRawQuery() != null) {
+                normalized.append('?').append(uri.getRawQuery());
+            }
+            if (uri.getRawFragment() != null) {
+                normalized.append('#').append(uri.getRawFragment());
+            }
+            return normalized.toString();
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+    }
+
+    private Optional<Url> recent(String hash, LocalDateTime expiryDate) {
+        Url url = recent.getIfPresent(key(hash, expiryDate));
+        if (url == null || Url.isExpired(url.getExpiryDate())) {
+            return Optional.empty();
+        }
+        metricsService.incrementUrlDedup("recent");
+        return Optional.of(url);
+    }
+
+    private static String key(String hash, LocalDateTime expiryDate) {
+        return hash + "|" + (expiryDate != null ? expiryDate : "");
+    }
+
+    private static Url toUrl(LinkStatsView row, String hash) {
+        return Url.builder()
+                .id(row.getId())
+                .shortCode(row.getShortCode())
+                .originalUrl(row.getOriginalUrl())
+                .createdAt(row.getCreatedAt())
+                .expiryDate(row.getExpiryDate())
+                .clickCount(row.getClickCount())
+                .urlHash(hash)
+                .build();
+    }
+}
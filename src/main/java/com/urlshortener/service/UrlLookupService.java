@@ -0,0 +1,194 @@
+package com.urlshortener.service;
+
+import com.urlshortener.analytics.ClickCounter;
+import com.urlshortener.cache.CachedStats;
+import com.urlshortener.cache.CachedUrl;
+import com.urlshortener.cache.LocalUrlCache;
+import com.urlshortener.cache.ShortCodeFilter;
+import com.urlshortener.cache.UrlCacheConfig;
+import com.urlshortener.cache.UrlCacheStore;
+import com.urlshortener.cache.UrlStatsCache;
+import com.urlshortener.datasource.ReadYourWrites;
+import com.urlshortener.dto.BulkResolveResponse;
+import com.urlshortener.dto.BulkStatsResponse;
+import com.urlshortener.dto.UrlResponse;
+import com.urlshortener.exception.InvalidBulkLookupException;
+import com.urlshortener.model.Url;
+import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.repository.CachedLinkView;
+import com.urlshortener.repository.LinkStatsView;
+import com.urlshortener.repository.UrlRepository;
+import com.urlshortener.util.Base62Encoder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Multi-code stats and resolve lookups
+ *
+ * Whatever the number of codes, a lookup costs one Redis read for all of
+ * them, one IN-list query for the misses and one pipelined Redis write to
+ * cache what the query loaded.
+ */
+@Service
+@RequiredArgsConstructor
+public class UrlLookupService {
+
+    private final UrlRepository urlRepository;
+    private final UrlCacheStore urlCacheStore;
+    private final UrlCacheConfig urlCacheConfig;
+    private final UrlStatsCache urlStatsCache;
+    private final LocalUrlCache localUrlCache;
+    private final ShortCodeFilter shortCodeFilter;
+    private final ClickCounter clickCounter;
+    private final ReadYourWrites readYourWrites;
+    private final MetricsService metricsService;
+    private final BulkLookupConfig bulkLookupConfig;
+
+    // Generated codes and custom aliases are both 1-11 alphanumeric characters
+    private static final Pattern SHORT_CODE = Pattern.compile("[a-zA-Z0-9]{1," + Base62Encoder.MAX_LENGTH + "}");
+
+    @Value("${app.base-url:http://localhost:8080}")
+    private String baseUrl;
+
+    /**
+     * Stats for many codes, click counts including this node's unflushed clicks
+     */
+    @Transactional(readOnly = true)
+    public BulkStatsResponse getUrlStats(List<String> shortCodes) {
+        List<String> codes = distinct(shortCodes);
+        List<String> known = codes.stream().filter(shortCodeFilter::mightContain).toList();
+
+        Map<String, CachedStats> stats = urlStatsCache.getAll(known);
+        List<String> misses = known.stream().filter(code -> !stats.containsKey(code)).toList();
+        metricsService.recordBulkLookup("stats", stats.size(), misses.size());
+
+        if (!misses.isEmpty()) {
+            misses.forEach(readYourWrites::beforeRead);
+            Map<String, CachedStats> loaded = new HashMap<>();
+            for (LinkStatsView row : urlRepository.findStatsByShortCodeIn(misses)) {
+                loaded.put(row.getShortCode(), new CachedStats(row.getId(), row.getClickCount(),
+                        row.getCreatedAt(), row.getExpiryDate(), row.getOriginalUrl()));
+            }
+            urlStatsCache.putAll(loaded, bulkLookupConfig.getStatsCacheTtl());
+            stats.putAll(loaded);
+        }
+
+        List<UrlResponse> urls = new ArrayList<>();
+        List<String> notFound = new ArrayList<>();
+        for (String code : codes) {
+            CachedStats entry = stats.get(code);
+            if (entry == null) {
+                notFound.add(code);
+                continue;
+            }
+            urls.add(UrlResponse.builder()
+                    .id(entry.id())
+                    .originalUrl(entry.originalUrl())
+                    .shortCode(code)
+                    .shortUrl(baseUrl + "/" + code)
+                    .createdAt(entry.createdAt())
+                    .expiryDate(entry.expiryDate())
+                    .clickCount(entry.clickCount() + clickCounter.pending(code))
+                    .build());
+        }
+        return BulkStatsResponse.builder()
+                .urls(urls)
+                .notFound(notFound)
+                .build();
+    }
+
+    /**
+     * Original URLs for many codes, without redirecting or counting clicks
+     */
+    @Transactional(readOnly = true)
+    public BulkResolveResponse resolveUrls(List<String> shortCodes) {
+        List<String> codes = distinct(shortCodes);
+        Map<String, String> resolved = new HashMap<>();
+        List<String> notFound = new ArrayList<>();
+        List<String> expired = new ArrayList<>();
+
+        // The local cache and the membership filter are in-process: no round-trip
+        List<String> remote = new ArrayList<>();
+        for (String code : codes) {
+            String localUrl = localUrlCache.get(code);
+            if (localUrl != null) {
+                resolved.put(code, localUrl);
+            } else if (!shortCodeFilter.mightContain(code)) {
+                notFound.add(code);
+            } else {
+                remote.add(code);
+            }
+        }
+
+        Map<String, CachedUrl> cached = urlCacheStore.getAll(remote);
+        metricsService.recordBulkLookup("resolve", resolved.size() + cached.size(), remote.size() - cached.size());
+        long now = System.currentTimeMillis();
+        List<String> misses = new ArrayList<>();
+        for (String code : remote) {
+            CachedUrl entry = cached.get(code);
+            if (entry == null) {
+                misses.add(code);
+            } else if (entry.isLinkExpired(now)) {
+                expired.add(code);
+            } else {
+                resolved.put(code, entry.originalUrl());
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            misses.forEach(readYourWrites::beforeRead);
+            Map<String, CachedUrl> loaded = new HashMap<>();
+            for (CachedLinkView link : urlRepository.findLinksByShortCodeIn(misses)) {
+                if (Url.isExpired(link.getExpiryDate())) {
+                    expired.add(link.getShortCode());
+                    continue;
+                }
+                resolved.put(link.getShortCode(), link.getOriginalUrl());
+                loaded.put(link.getShortCode(), CachedUrl.of(link.getOriginalUrl(),
+                        CachedUrl.linkExpiry(link.getExpiryDate()), urlCacheConfig.getTtl(), 0L));
+            }
+            urlCacheStore.putAll(loaded);
+            misses.stream()
+                    .filter(code -> !resolved.containsKey(code) && !expired.contains(code))
+                    .forEach(notFound::add);
+        }
+
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (String code : codes) {
+            if (resolved.containsKey(code)) {
+                urls.put(code, resolved.get(code));
+            }
+        }
+        return BulkResolveResponse.builder()
+                .urls(urls)
+                .notFound(notFound)
+                .expired(expired)
+                .build();
+    }
+
+    /**
+     * @throws InvalidBulkLookupException for too many codes, or one that no link could have
+     */
+    private List<String> distinct(List<String> shortCodes) {
+        List<String> codes = new ArrayList<>(new LinkedHashSet<>(shortCodes));
+        if (codes.size() > bulkLookupConfig.getMaxCodes()) {
+            throw new InvalidBulkLookupException("At most " + bulkLookupConfig.getMaxCodes() + " short codes per request");
+        }
+        for (String code : codes) {
+            if (code == null || !SHORT_CODE.matcher(code).matches()) {
+                throw new InvalidBulkLookupException("Invalid short code: " + code);
+            }
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,28 @@
+package com.urlshortener.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "url-resolution")
+@Data
+public class UrlResolutionConfig {
+
+    /**
+     * How a cache miss finds its row:
+     * ID_DECODE  - decode generated codes to their id (primary key), look custom aliases up in url_aliases
+     * SHORT_CODE - look every code up in the urls.short_code index
+     */
+    private Strategy strategy = Strategy.ID_DECODE;
+
+    // Under ID_DECODE, try the short_code index last for codes that decode to an id, for aliases
+    // created before url_aliases existed and codes generated under a different Base62 alphabet or
+    // width. Other codes can only be aliases and stop after url_aliases
+    private boolean shortCodeFallback = true;
+
+    public enum Strategy {
+        ID_DECODE,
+        SHORT_CODE
+    }
+}
@@ -1,5 +1,16 @@
 package com.urlshortener.service;
 
+import com.urlshortener.analytics.ClickCountConfig;
+import com.urlshortener.analytics.ClickCounter;
+import com.urlshortener.cache.CacheInvalidationService;
+import com.urlshortener.cache.CacheRefresher;
+import com.urlshortener.cache.CachedUrl;
+import com.urlshortener.cache.HotKeyTracker;
+import com.urlshortener.cache.LocalUrlCache;
+import com.urlshortener.cache.ShortCodeFilter;
+import com.urlshortener.cache.UrlCacheConfig;
+import com.urlshortener.cache.UrlCacheStore;
+import com.urlshortener.datasource.ReadYourWrites;
 import com.urlshortener.dto.CreateUrlRequest;
 import com.urlshortener.dto.UrlResponse;
 import com.urlshortener.exception.CustomAliasAlreadyExistsException;
@@ -7,22 +18,29 @@ import com.urlshortener.exception.UrlExpiredException;
 import com.urlshortener.exception.UrlNotFoundException;
 import com.urlshortener.model.Url;
 import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.repository.CachedLinkView;
+import com.urlshortener.repository.UrlAliasRepository;
+import com.urlshortener.repository.UrlJdbcRepository;
 import com.urlshortener.repository.UrlRepository;
 import com.urlshortener.security.UrlValidationService;
 import com.urlshortener.util.Base62Encoder;
+import com.urlshortener.util.SingleFlight;
+import com.urlshortener.util.SnowflakeIdGenerator;
 import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.TimeUnit;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 @RequiredArgsConstructor
@@ -31,15 +49,37 @@ public class UrlService {
 
     private final UrlRepository urlRepository;
     private final Base62Encoder base62Encoder;
-    private final RedisTemplate<String, String> redisTemplate;
+    private final UrlCacheStore urlCacheStore;
     private final MetricsService metricsService;
     private final UrlValidationService urlValidationService;
+    private final LocalUrlCache localUrlCache;
+    private final CacheInvalidationService cacheInvalidationService;
+    private final ShortCodeFilter shortCodeFilter;
+    private final ClickCounter clickCounter;
+    private final ClickCountConfig clickCountConfig;
+    private final UrlJdbcRepository urlJdbcRepository;
+    private final SnowflakeIdGenerator snowflakeIdGenerator;
+    private final IdGenerationConfig idGenerationConfig;
+    private final UrlCacheConfig urlCacheConfig;
+    private final CacheRefresher cacheRefresher;
+    private final HotKeyTracker hotKeyTracker;
+    private final ReadYourWrites readYourWrites;
+    private final UrlAliasRepository urlAliasRepository;
+    private final UrlResolutionConfig urlResolutionConfig;
+    private final UrlDedupService urlDedupService;
+    private final ShortCodeNamespace shortCodeNamespace;
 
     @Value("${app.base-url:http://localhost:8080}")
     private String baseUrl;
 
-    private static final String CACHE_PREFIX = "url:";
-    private static final long CACHE_TTL_HOURS = 24;
+    // Longest a request waits on another request's load of the same code before loading itself
+    private static final Duration MAX_LOAD_WAIT = Duration.ofSeconds(2);
+
+    // Fresh ids tried when a generated code turns out to be taken by a custom alias
+    static final int MAX_GENERATE_ATTEMPTS = 3;
+
+    private final SingleFlight<String, String> loads =
+            new SingleFlight<>(MAX_LOAD_WAIT, this::countCoalescedLoad);
 
     /**
      * Create a new short URL
@@ -51,42 +91,50 @@ public class UrlService {
         // Validate URL
         urlValidationService.validateUrl(request.getOriginalUrl());
 
-        // Handle custom alias
-        String shortCode;
-        if (request.getCustomAlias() != null && !request.getCustomAlias().isEmpty()) {
-            if (urlRepository.existsByShortCode(request.getCustomAlias())) {
-                throw new CustomAliasAlreadyExistsException("Custom alias already exists: " + request.getCustomAlias());
-            }
-            shortCode = request.getCustomAlias();
-        }
-
         // Parse expiry date
         LocalDateTime expiryDate = null;
         if (request.getExpiryDate() != null && !request.getExpiryDate().isEmpty()) {
             expiryDate = LocalDateTime.parse(request.getExpiryDate(), DateTimeFormatter.ISO_DATE_TIME);
         }
 
-        // Build URL entity (without short code for custom alias)
-        Url url = Url.builder()
-                .originalUrl(request.getOriginalUrl())
-                .shortCode(request.getCustomAlias())
-                .expiryDate(expiryDate)
-                .clickCount(0L)
-                .build();
+        // Repeats of a generated-code link (same URL, same expiry) get the existing code
+        String urlHash = null;
+        if (urlDedupService.applies(request.getCustomAlias())) {
+            Optional<Url> existing = urlDedupService.findExisting(request.getOriginalUrl(), expiryDate);
+            if (existing.isPresent()) {
+                log.info("Returning existing short URL {} for repeated create", existing.get().getShortCode());
+                return buildUrlResponse(existing.get());
+            }
+            urlHash = urlDedupService.hash(request.getOriginalUrl());
+        }
 
-        // Save to DB
-        url = urlRepository.save(url);
+        // Aliases that ids still to be handed out would encode to belong to generated codes
+        if (request.getCustomAlias() != null && !request.getCustomAlias().isEmpty()
+                && shortCodeNamespace.isReserved(request.getCustomAlias())) {
+            throw new CustomAliasAlreadyExistsException(
+                    "Custom alias is reserved for generated short codes: " + request.getCustomAlias());
+        }
 
-        // Generate Base62 short code if no custom alias
-        if (request.getCustomAlias() == null || request.getCustomAlias().isEmpty()) {
-            shortCode = base62Encoder.encode(url.getId());
-            url.setShortCode(shortCode);
-            url = urlRepository.save(url);
+        Url url = idGenerationConfig.getStrategy() == IdGenerationConfig.Strategy.SNOWFLAKE
+                ? insertWithAssignedId(request, expiryDate, urlHash)
+                : insertWithIdentity(request, expiryDate, urlHash);
+        String shortCode = url.getShortCode();
+        if (request.getCustomAlias() != null && !request.getCustomAlias().isEmpty()) {
+            // Aliases resolve through their own index; generated codes resolve by id
+            urlJdbcRepository.insertAlias(shortCode, url.getId());
         }
+        readYourWrites.written(shortCode);
+
+        // Cache in Redis and locally
+        cache(shortCode, url.getOriginalUrl(), url.getExpiryDate(), 0L);
 
-        // Cache in Redis
-        String cacheKey = CACHE_PREFIX + shortCode;
-        redisTemplate.opsForValue().set(cacheKey, url.getOriginalUrl(), CACHE_TTL_HOURS, TimeUnit.HOURS);
+        // Make the code visible to the negative lookup filter once the row is committed
+        String createdCode = shortCode;
+        Url created = url;
+        afterCommit(() -> {
+            shortCodeFilter.add(createdCode);
+            urlDedupService.remember(created);
+        });
 
         log.info("Short URL created: {} -> {}", shortCode, url.getOriginalUrl());
 
@@ -97,7 +145,84 @@ public class UrlService {
     }
 
     /**
-     * Get original URL by short code with Redis caching
+     * Single INSERT: the id, and so the short code, is assigned before the write,
+     * and a taken custom alias is detected by the insert itself. A generated code
+     * can only be taken by an alias created before reservation, so that create
+     * moves on to a fresh id.
+     */
+    private Url insertWithAssignedId(CreateUrlRequest request, LocalDateTime expiryDate, String urlHash) {
+        boolean hasCustomAlias = request.getCustomAlias() != null && !request.getCustomAlias().isEmpty();
+        for (int attempt = 1; ; attempt++) {
+            long id = snowflakeIdGenerator.nextId();
+
+            Url url = Url.builder()
+                    .id(id)
+                    .originalUrl(request.getOriginalUrl())
+                    .shortCode(hasCustomAlias ? request.getCustomAlias() : base62Encoder.encode(id))
+                    .createdAt(LocalDateTime.now())
+                    .expiryDate(expiryDate)
+                    .clickCount(0L)
+                    .urlHash(urlHash)
+                    .build();
+
+            if (urlJdbcRepository.insertIfAbsent(url)) {
+                return url;
+            }
+            if (hasCustomAlias) {
+                throw new CustomAliasAlreadyExistsException("Custom alias already exists: " + request.getCustomAlias());
+            }
+            if (attempt == MAX_GENERATE_ATTEMPTS) {
+                throw new IllegalStateException("Generated short code already in use: " + url.getShortCode());
+            }
+            log.warn("Generated short code {} is held by a custom alias, taking a new id", url.getShortCode());
+            metricsService.incrementGeneratedCodeConflicts(1);
+        }
+    }
+
+    /**
+     * Identity column: insert, then update the row with the code encoded from its id
+     */
+    private Url insertWithIdentity(CreateUrlRequest request, LocalDateTime expiryDate, String urlHash) {
+        // Handle custom alias
+        if (request.getCustomAlias() != null && !request.getCustomAlias().isEmpty()) {
+            if (urlRepository.existsByShortCode(request.getCustomAlias())) {
+                throw new CustomAliasAlreadyExistsException("Custom alias already exists: " + request.getCustomAlias());
+            }
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            // Build URL entity (without short code for custom alias)
+            Url url = Url.builder()
+                    .originalUrl(request.getOriginalUrl())
+                    .shortCode(request.getCustomAlias())
+                    .expiryDate(expiryDate)
+                    .clickCount(0L)
+                    .urlHash(urlHash)
+                    .build();
+
+            // Save to DB
+            url = urlRepository.save(url);
+            if (request.getCustomAlias() != null && !request.getCustomAlias().isEmpty()) {
+                return url;
+            }
+
+            // Generate Base62 short code; an alias created beyond the reserved ids may already hold it
+            String shortCode = base62Encoder.encode(url.getId());
+            if (!urlRepository.existsByShortCode(shortCode)) {
+                url.setShortCode(shortCode);
+                return urlRepository.save(url);
+            }
+            urlRepository.delete(url);
+            if (attempt == MAX_GENERATE_ATTEMPTS) {
+                throw new IllegalStateException("Generated short code already in use: " + shortCode);
+            }
+            log.warn("Generated short code {} is held by a custom alias, taking a new id", shortCode);
+            metricsService.incrementGeneratedCodeConflicts(1);
+        }
+    }
+
+    /**
+     * Get original URL by short code with local + Redis caching
      */
     @Transactional(readOnly = true)
     public String getOriginalUrl(String shortCode) {
@@ -105,50 +230,158 @@ public class UrlService {
         log.info("Fetching original URL for short code: {}", shortCode);
 
         try {
-            // Try Redis cache first
-            String cacheKey = CACHE_PREFIX + shortCode;
-            String cachedUrl = redisTemplate.opsForValue().get(cacheKey);
+            // Try local in-process cache first
+            String localUrl = localUrlCache.get(shortCode);
+            if (localUrl != null) {
+                log.debug("Local cache hit for: {}", shortCode);
+                metricsService.incrementRedirect();
+                recordClick(shortCode);
+                return localUrl;
+            }
+
+            // Then Redis
+            CachedUrl cached = urlCacheStore.get(shortCode);
 
-            if (cachedUrl != null) {
+            if (cached != null) {
                 log.info("Cache hit for: {}", shortCode);
                 metricsService.incrementCacheHit();
+                if (cached.isLinkExpired(System.currentTimeMillis())) {
+                    cacheInvalidationService.invalidate(shortCode);
+                    throw new UrlExpiredException("Short URL has expired: " + shortCode);
+                }
+                refreshIfDue(shortCode, cached);
+                localUrlCache.putUntil(shortCode, cached.originalUrl(), cached.linkExpiresAt());
                 metricsService.incrementRedirect();
-                // Async increment click count
-                asyncIncrementClickCount(shortCode);
-                return cachedUrl;
+                recordClick(shortCode);
+                return cached.originalUrl();
             }
 
             log.info("Cache miss for: {}", shortCode);
             metricsService.incrementCacheMiss();
 
-            // Fallback to database
-            Url url = urlRepository.findByShortCode(shortCode)
-                    .orElseThrow(() -> new UrlNotFoundException("Short URL not found: " + shortCode));
-
-            // Check expiry
-            if (url.isExpired()) {
-                throw new UrlExpiredException("This short URL has expired");
-            }
-
-            // Update cache
-            redisTemplate.opsForValue().set(cacheKey, url.getOriginalUrl(), CACHE_TTL_HOURS, TimeUnit.HOURS);
+            // Fallback to database; concurrent misses for the same code share one load
+            String originalUrl = loads.execute(shortCode, () -> loadFromDatabase(shortCode));
 
             metricsService.incrementRedirect();
             
-            // Async increment click count
-            asyncIncrementClickCount(shortCode);
+            recordClick(shortCode);
 
-            return url.getOriginalUrl();
+            return originalUrl;
         } finally {
             metricsService.recordRedirectLatency(sample);
         }
     }
 
+    private void countCoalescedLoad() {
+        metricsService.incrementCacheLoadCoalesced();
+    }
+
+    /**
+     * Read a mapping from the database and fill both cache tiers
+     */
+    private String loadFromDatabase(String shortCode) {
+        long start = System.currentTimeMillis();
+        readYourWrites.beforeRead(shortCode);
+        CachedLinkView link = findLink(shortCode)
+                .orElseThrow(() -> new UrlNotFoundException("Short URL not found: " + shortCode));
+
+        // Check expiry
+        if (Url.isExpired(link.getExpiryDate())) {
+            // Drop any copies still held by peer nodes
+            cacheInvalidationService.invalidate(shortCode);
+            throw new UrlExpiredException("This short URL has expired");
+        }
+
+        // Update cache
+        cache(shortCode, link.getOriginalUrl(), link.getExpiryDate(), System.currentTimeMillis() - start);
+
+        return link.getOriginalUrl();
+    }
+
+    /**
+     * Generated codes by primary key (the decoded id, kept only if that row really has this
+     * code), then custom aliases by url_aliases, then optionally the short_code index. A code
+     * no id encodes to can only be an alias, so it stops after url_aliases
+     */
+    private Optional<CachedLinkView> findLink(String shortCode) {
+        if (urlResolutionConfig.getStrategy() == UrlResolutionConfig.Strategy.SHORT_CODE) {
+            metricsService.incrementUrlResolve("short_code");
+            return urlRepository.findLinkByShortCode(shortCode);
+        }
+
+        Optional<Long> id = shortCodeNamespace.generatedId(shortCode);
+        Optional<CachedLinkView> link = id
+                .flatMap(urlRepository::findLinkById)
+                .filter(row -> shortCode.equals(row.getShortCode()));
+        if (link.isPresent()) {
+            metricsService.incrementUrlResolve("id");
+            return link;
+        }
+
+        link = urlAliasRepository.findLinkByAlias(shortCode);
+        if (link.isPresent()) {
+            metricsService.incrementUrlResolve("alias");
+            return link;
+        }
+
+        if (id.isPresent() && urlResolutionConfig.isShortCodeFallback()) {
+            link = urlRepository.findLinkByShortCode(shortCode);
+            if (link.isPresent()) {
+                metricsService.incrementUrlResolve("short_code");
+            }
+        }
+        return link;
+    }
+
+    /**
+     * Fill both cache tiers. The Redis entry is fresh for the TTL and kept for the stale
+     * window after it, and neither tier holds the link past its own expiry.
+     */
+    private void cache(String shortCode, String originalUrl, LocalDateTime expiryDate, long loadMillis) {
+        long linkExpiresAt = CachedUrl.linkExpiry(expiryDate);
+        long keepMillis = urlCacheConfig.getTtl().plus(urlCacheConfig.getStaleWindow()).toMillis();
+        if (linkExpiresAt != CachedUrl.NEVER) {
+            keepMillis = Math.min(keepMillis, linkExpiresAt - System.currentTimeMillis());
+            if (keepMillis <= 0) {
+                return;
+            }
+        }
+
+        CachedUrl entry = CachedUrl.of(originalUrl, linkExpiresAt, urlCacheConfig.getTtl(), loadMillis);
+        urlCacheStore.put(shortCode, entry, keepMillis);
+        localUrlCache.putUntil(shortCode, originalUrl, linkExpiresAt);
+    }
+
+    /**
+     * Refresh stale entries, and fresh ones probabilistically as they near expiry, in the background
+     */
+    private void refreshIfDue(String shortCode, CachedUrl cached) {
+        long now = System.currentTimeMillis();
+        boolean stale = cached.isStale(now);
+        if (stale || cached.shouldRefreshEarly(now, urlCacheConfig.getEarlyRefreshBeta(),
+                1.0 - ThreadLocalRandom.current().nextDouble())) {
+            cacheRefresher.refreshAsync(shortCode, stale, () -> refresh(shortCode));
+        }
+    }
+
+    private void refresh(String shortCode) {
+        try {
+            loadFromDatabase(shortCode);
+        } catch (UrlNotFoundException e) {
+            // Row is gone: drop the cached copies everywhere
+            cacheInvalidationService.invalidate(shortCode);
+        } catch (UrlExpiredException e) {
+            // Already invalidated by the load
+            log.debug("Cached link expired during refresh: {}", shortCode);
+        }
+    }
+
     /**
      * Get URL statistics
      */
     @Transactional(readOnly = true)
     public UrlResponse getUrlStats(String shortCode) {
+        readYourWrites.beforeRead(shortCode);
         Url url = urlRepository.findByShortCode(shortCode)
                 .orElseThrow(() -> new UrlNotFoundException("Short URL not found: " + shortCode));
 
@@ -156,18 +389,28 @@ public class UrlService {
     }
 
     /**
-     * Async increment click count
+     * Count a click in memory; flushed to the database in batches by ClickCounter
      */
-    @Async
-    public void asyncIncrementClickCount(String shortCode) {
-        try {
-            Url url = urlRepository.findByShortCode(shortCode).orElse(null);
-            if (url != null) {
-                urlRepository.incrementClickCount(url.getId());
-                log.debug("Incremented click count for: {}", shortCode);
-            }
-        } catch (Exception e) {
-            log.error("Failed to increment click count for: {}", shortCode, e);
+    private void recordClick(String shortCode) {
+        hotKeyTracker.record(shortCode);
+        if (clickCountConfig.getMode() == ClickCountConfig.Mode.LOCAL) {
+            clickCounter.increment(shortCode);
+        }
+    }
+
+    /**
+     * Run an action after the current transaction commits (immediately if none is active)
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
         }
     }
 
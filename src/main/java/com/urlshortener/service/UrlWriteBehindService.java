@@ -0,0 +1,146 @@
+package com.urlshortener.service;
+
+import com.urlshortener.cache.CachedUrl;
+import com.urlshortener.cache.LocalUrlCache;
+import com.urlshortener.cache.ShortCodeFilter;
+import com.urlshortener.cache.UrlCacheConfig;
+import com.urlshortener.cache.UrlCacheStore;
+import com.urlshortener.dto.CreateUrlRequest;
+import com.urlshortener.dto.UrlResponse;
+import com.urlshortener.model.Url;
+import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.security.UrlValidationService;
+import com.urlshortener.util.Base62Encoder;
+import com.urlshortener.util.SnowflakeIdGenerator;
+import com.urlshortener.writebehind.WriteBehindQueue;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+
+/**
+ * Creates acknowledged before the row is in Postgres
+ *
+ * The link is journaled (durable), written to Redis and the local cache and
+ * returned; WriteBehindQueue inserts it in the background. No database
+ * connection is taken on this path. Only generated codes under the SNOWFLAKE
+ * strategy qualify: the id has to be known up front, and a custom alias can
+ * only be checked against the table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UrlWriteBehindService {
+
+    private final UrlValidationService urlValidationService;
+    private final Base62Encoder base62Encoder;
+    private final SnowflakeIdGenerator snowflakeIdGenerator;
+    private final IdGenerationConfig idGenerationConfig;
+    private final WriteBehindQueue writeBehindQueue;
+    private final UrlCacheStore urlCacheStore;
+    private final UrlCacheConfig urlCacheConfig;
+    private final LocalUrlCache localUrlCache;
+    private final ShortCodeFilter shortCodeFilter;
+    private final UrlDedupService urlDedupService;
+    private final MetricsService metricsService;
+
+    @Value("${app.base-url:http://localhost:8080}")
+    private String baseUrl;
+
+    @PostConstruct
+    public void checkStrategy() {
+        if (writeBehindQueue.isEnabled() && idGenerationConfig.getStrategy() != IdGenerationConfig.Strategy.SNOWFLAKE) {
+            log.warn("write-behind.enabled needs id-generation.strategy=SNOWFLAKE; creates stay synchronous");
+        }
+    }
+
+    /**
+     * Whether this request can be created write-behind (otherwise UrlService creates it)
+     */
+    public boolean accepts(CreateUrlRequest request) {
+        return writeBehindQueue.isEnabled()
+                && idGenerationConfig.getStrategy() == IdGenerationConfig.Strategy.SNOWFLAKE
+                && (request.getCustomAlias() == null || request.getCustomAlias().isEmpty());
+    }
+
+    public UrlResponse createShortUrl(CreateUrlRequest request) {
+        urlValidationService.validateUrl(request.getOriginalUrl());
+
+        LocalDateTime expiryDate = null;
+        if (request.getExpiryDate() != null && !request.getExpiryDate().isEmpty()) {
+            expiryDate = LocalDateTime.parse(request.getExpiryDate(), DateTimeFormatter.ISO_DATE_TIME);
+        }
+
+        // Only the recent-URL cache: a url_hash query would take the connection this path avoids
+        String urlHash = null;
+        if (urlDedupService.applies(request.getCustomAlias())) {
+            Optional<Url> existing = urlDedupService.findRecent(request.getOriginalUrl(), expiryDate);
+            if (existing.isPresent()) {
+                return buildUrlResponse(existing.get());
+            }
+            urlHash = urlDedupService.hash(request.getOriginalUrl());
+        }
+
+        long id = snowflakeIdGenerator.nextId();
+        Url url = Url.builder()
+                .id(id)
+                .originalUrl(request.getOriginalUrl())
+                .shortCode(base62Encoder.encode(id))
+                .createdAt(LocalDateTime.now())
+                .expiryDate(expiryDate)
+                .clickCount(0L)
+                .urlHash(urlHash)
+                .build();
+
+        // Durable first: once the journal has it, the link is never lost
+        writeBehindQueue.enqueue(url);
+        cache(url);
+        shortCodeFilter.add(url.getShortCode());
+        urlDedupService.remember(url);
+
+        log.debug("Short URL created write-behind: {} -> {}", url.getShortCode(), url.getOriginalUrl());
+        metricsService.incrementUrlCreation();
+
+        return buildUrlResponse(url);
+    }
+
+    /**
+     * Until the flusher commits the row, the caches are the only way peers can resolve the link
+     */
+    private void cache(Url url) {
+        long linkExpiresAt = CachedUrl.linkExpiry(url.getExpiryDate());
+        long keepMillis = urlCacheConfig.getTtl().plus(urlCacheConfig.getStaleWindow()).toMillis();
+        if (linkExpiresAt != CachedUrl.NEVER) {
+            keepMillis = Math.min(keepMillis, linkExpiresAt - System.currentTimeMillis());
+            if (keepMillis <= 0) {
+                return;
+            }
+        }
+
+        localUrlCache.putUntil(url.getShortCode(), url.getOriginalUrl(), linkExpiresAt);
+        try {
+            urlCacheStore.put(url.getShortCode(),
+                    CachedUrl.of(url.getOriginalUrl(), linkExpiresAt, urlCacheConfig.getTtl(), 0L), keepMillis);
+        } catch (RuntimeException e) {
+            // Journaled already: other nodes resolve it from Postgres once flushed
+            log.warn("Failed to cache write-behind link {}", url.getShortCode(), e);
+        }
+    }
+
+    private UrlResponse buildUrlResponse(Url url) {
+        return UrlResponse.builder()
+                .id(url.getId())
+                .originalUrl(url.getOriginalUrl())
+                .shortCode(url.getShortCode())
+                .shortUrl(baseUrl + "/" + url.getShortCode())
+                .createdAt(url.getCreatedAt())
+                .expiryDate(url.getExpiryDate())
+                .clickCount(url.getClickCount())
+                .build();
+    }
+}
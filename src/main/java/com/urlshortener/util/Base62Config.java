@@ -0,0 +1,22 @@
+package com.urlshortener.util;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "base62")
+@Data
+public class Base62Config {
+
+    // Digit alphabet; any permutation of 0-9A-Za-z (a shuffled one hides the digit order).
+    // Changing it on a live deployment makes new codes collide with stored ones
+    // (IDENTITY ids) and stops stored codes decoding to their ids
+    private String alphabet = Base62Encoder.DEFAULT_ALPHABET;
+
+    // Left-pad codes to this many characters; 0 keeps the shortest encoding
+    private int fixedWidth = 0;
+
+    // Fixed width only: chain each digit to the ones below it, so consecutive ids differ in every position
+    private boolean scramble = false;
+}
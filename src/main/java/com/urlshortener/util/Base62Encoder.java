@@ -1,51 +1,168 @@
 package com.urlshortener.util;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Base62 codec for non-negative long ids
+ *
+ * Encodes right to left into a fixed 11-byte buffer (the width of Long.MAX_VALUE),
+ * so the only allocation is the resulting String. Decoding uses a 128-entry lookup
+ * table instead of scanning the alphabet, and rejects codes that overflow a long.
+ *
+ * Optionally pads codes to a fixed width and scrambles them: each digit is offset
+ * by the digits below it, so incrementing the id changes every character and
+ * sequential ids don't produce guessable neighbouring codes. Scrambling is a
+ * bijection on fixed-width codes; it hides order, it is not encryption.
+ */
 @Component
 public class Base62Encoder {
 
-    private static final String BASE62_CHARS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
-    private static final int BASE = BASE62_CHARS.length();
+    // The original digit order: stored codes decode back to their ids only under it
+    public static final String DEFAULT_ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+    public static final int MAX_LENGTH = 11;
+
+    private static final int BASE = 62;
+
+    private final byte[] digits;
+    private final byte[] values = new byte[128];
+    private final int fixedWidth;
+    private final boolean scramble;
+
+    public Base62Encoder() {
+        this(new Base62Config());
+    }
+
+    @Autowired
+    public Base62Encoder(Base62Config config) {
+        String alphabet = config.getAlphabet();
+        char[] sorted = alphabet.toCharArray();
+        Arrays.sort(sorted);
+        char[] expected = DEFAULT_ALPHABET.toCharArray();
+        Arrays.sort(expected);
+        if (!Arrays.equals(sorted, expected)) {
+            throw new IllegalArgumentException("Base62 alphabet must be a permutation of 0-9A-Za-z");
+        }
+        if (config.getFixedWidth() < 0 || config.getFixedWidth() > MAX_LENGTH) {
+            throw new IllegalArgumentException(
+                String.format("Fixed width must be between 0 and %d", MAX_LENGTH));
+        }
+        if (config.isScramble() && config.getFixedWidth() == 0) {
+            throw new IllegalArgumentException("Scrambling requires a fixed width");
+        }
+
+        this.digits = alphabet.getBytes(StandardCharsets.US_ASCII);
+        this.fixedWidth = config.getFixedWidth();
+        this.scramble = config.isScramble();
+
+        Arrays.fill(values, (byte) -1);
+        for (int i = 0; i < BASE; i++) {
+            values[digits[i]] = (byte) i;
+        }
+    }
 
     /**
-     * Encode a Long ID to Base62 string
+     * Encode a non-negative id to Base62
      */
-    public String encode(Long id) {
-        if (id == null || id == 0) {
-            return BASE62_CHARS.substring(0, 1);
+    public String encode(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Cannot encode negative id: " + id);
+        }
+        if (fixedWidth > 0 && fixedWidth < MAX_LENGTH && id >= maxForWidth(fixedWidth)) {
+            throw new IllegalArgumentException(
+                String.format("Id %d does not fit in %d Base62 characters", id, fixedWidth));
         }
 
-        StringBuilder encoded = new StringBuilder();
+        byte[] buf = new byte[MAX_LENGTH];
+        int pos = MAX_LENGTH;
         long num = id;
+        int offset = 0;
+        do {
+            int digit = (int) (num % BASE);
+            num /= BASE;
+            buf[--pos] = digits[scramble ? (digit + offset) % BASE : digit];
+            offset = (offset + digit + 1) % BASE;
+        } while (num > 0);
 
-        while (num > 0) {
-            int remainder = (int) (num % BASE);
-            encoded.insert(0, BASE62_CHARS.charAt(remainder));
-            num = num / BASE;
+        int start = MAX_LENGTH - Math.max(fixedWidth, MAX_LENGTH - pos);
+        while (pos > start) {
+            // Leading zero digits, still chained when scrambling
+            buf[--pos] = digits[scramble ? offset : 0];
+            offset = (offset + 1) % BASE;
         }
 
-        return encoded.toString();
+        // Latin-1 bytes go straight into a compact String without re-encoding
+        return new String(buf, pos, MAX_LENGTH - pos, StandardCharsets.ISO_8859_1);
     }
 
     /**
-     * Decode a Base62 string to Long ID
+     * Decode a Base62 code to its id
+     * @throws IllegalArgumentException on characters outside the alphabet or values beyond Long.MAX_VALUE
      */
-    public Long decode(String encoded) {
+    public long decode(String encoded) {
         if (encoded == null || encoded.isEmpty()) {
             return 0L;
         }
 
+        int length = encoded.length();
+        if (length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Base62 code longer than " + MAX_LENGTH + " characters: " + encoded);
+        }
+
+        if (scramble) {
+            return decodeScrambled(encoded, length);
+        }
+
         long decoded = 0;
-        for (int i = 0; i < encoded.length(); i++) {
-            char c = encoded.charAt(i);
-            int value = BASE62_CHARS.indexOf(c);
-            if (value == -1) {
-                throw new IllegalArgumentException("Invalid Base62 character: " + c);
-            }
-            decoded = decoded * BASE + value;
+        for (int i = 0; i < length; i++) {
+            decoded = accumulate(decoded, digitValue(encoded.charAt(i)), encoded);
         }
+        return decoded;
+    }
 
+    /**
+     * Offsets depend on lower digits, so recover digits right to left, then accumulate left to right
+     */
+    private long decodeScrambled(String encoded, int length) {
+        int[] raw = new int[length];
+        int offset = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            int digit = (digitValue(encoded.charAt(i)) - offset + BASE) % BASE;
+            raw[i] = digit;
+            offset = (offset + digit + 1) % BASE;
+        }
+
+        long decoded = 0;
+        for (int i = 0; i < length; i++) {
+            decoded = accumulate(decoded, raw[i], encoded);
+        }
         return decoded;
     }
+
+    private int digitValue(char c) {
+        int value = c < 128 ? values[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid Base62 character: " + c);
+        }
+        return value;
+    }
+
+    private static long accumulate(long decoded, int digit, String encoded) {
+        if (decoded > (Long.MAX_VALUE - digit) / BASE) {
+            throw new IllegalArgumentException("Base62 code overflows a long: " + encoded);
+        }
+        return decoded * BASE + digit;
+    }
+
+    private static long maxForWidth(int width) {
+        long max = 1;
+        for (int i = 0; i < width; i++) {
+            max *= BASE;
+        }
+        return max;
+    }
 }
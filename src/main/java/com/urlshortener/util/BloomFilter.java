@@ -0,0 +1,139 @@
+package com.urlshortener.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter for strings
+ *
+ * Bits live in an AtomicLongArray, so puts and lookups never lock.
+ * Uses double hashing (h1 + i * h2) over a 64-bit hash of the value.
+ * No false negatives; false positive rate grows with the fill ratio.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long numBits;
+    private final int numHashFunctions;
+    private final AtomicLong bitCount = new AtomicLong();
+
+    private BloomFilter(long numBits, int numHashFunctions) {
+        this.numBits = numBits;
+        this.numHashFunctions = numHashFunctions;
+        this.bits = new AtomicLongArray((int) ((numBits + 63) >>> 6));
+    }
+
+    /**
+     * Create a filter sized for the expected number of insertions
+     * @param expectedInsertions Number of values the filter should hold
+     * @param falsePositiveRate Target false positive probability (0-1)
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+
+        long numBits = (long) (-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        numBits = Math.max(64, numBits);
+        int numHashFunctions = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        return new BloomFilter(numBits, numHashFunctions);
+    }
+
+    /**
+     * Add a value
+     * @return true if any bit changed (value was definitely not present before)
+     */
+    public boolean put(String value) {
+        long hash = hash(value);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L);
+
+        boolean changed = false;
+        long combined = h1;
+        for (int i = 0; i < numHashFunctions; i++) {
+            if (setBit((combined & Long.MAX_VALUE) % numBits)) {
+                changed = true;
+            }
+            combined += h2;
+        }
+        return changed;
+    }
+
+    /**
+     * @return false if the value was definitely never added
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L);
+
+        long combined = h1;
+        for (int i = 0; i < numHashFunctions; i++) {
+            if (!getBit((combined & Long.MAX_VALUE) % numBits)) {
+                return false;
+            }
+            combined += h2;
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return numBits;
+    }
+
+    public int hashFunctions() {
+        return numHashFunctions;
+    }
+
+    public double fillRatio() {
+        return (double) bitCount.get() / numBits;
+    }
+
+    /**
+     * Current false positive probability, estimated from the fill ratio
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(fillRatio(), numHashFunctions);
+    }
+
+    private boolean setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+        bitCount.incrementAndGet();
+        return true;
+    }
+
+    private boolean getBit(long index) {
+        return (bits.get((int) (index >>> 6)) & (1L << index)) != 0;
+    }
+
+    // FNV-1a over UTF-16 chars
+    private static long hash(String value) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return h;
+    }
+
+    // MurmurHash3 fmix64 finalizer
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,92 @@
+package com.urlshortener.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Count-Min sketch for string frequencies
+ *
+ * A fixed depth x width grid of counters in one AtomicLongArray; each value
+ * increments one counter per row and its estimate is the smallest of those.
+ * Estimates never undercount and overcount by at most about e / width of the
+ * total, with probability 1 - e^-depth. Memory and cost per update are
+ * independent of how many distinct values are seen. halve() ages every
+ * counter, turning counts into exponentially decayed ones.
+ */
+public class CountMinSketch {
+
+    private final AtomicLongArray counters;
+    private final int width;
+    private final int depth;
+
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Width and depth must be positive");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new AtomicLongArray(width * depth);
+    }
+
+    /**
+     * Count one occurrence
+     * @return the estimated count including this occurrence
+     */
+    public long add(String value) {
+        long hash = hash(value);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L);
+
+        long estimate = Long.MAX_VALUE;
+        long combined = h1;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + (int) ((combined & Long.MAX_VALUE) % width);
+            estimate = Math.min(estimate, counters.incrementAndGet(index));
+            combined += h2;
+        }
+        return estimate;
+    }
+
+    public long estimate(String value) {
+        long hash = hash(value);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L);
+
+        long estimate = Long.MAX_VALUE;
+        long combined = h1;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + (int) ((combined & Long.MAX_VALUE) % width);
+            estimate = Math.min(estimate, counters.get(index));
+            combined += h2;
+        }
+        return estimate;
+    }
+
+    /**
+     * Halve every counter. Increments racing with this may land before or after the halving.
+     */
+    public void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+    }
+
+    // FNV-1a over UTF-16 chars
+    private static long hash(String value) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return h;
+    }
+
+    // MurmurHash3 fmix64 finalizer
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
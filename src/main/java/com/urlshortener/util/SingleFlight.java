@@ -0,0 +1,80 @@
+package com.urlshortener.util;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent loads of the same key into one
+ *
+ * The first caller for a key runs the loader; callers arriving while it runs
+ * wait for and share its result, or its exception. A waiter that isn't
+ * answered within maxWait stops waiting and runs the loader itself, so a
+ * stuck load can delay callers but never hang them.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Duration maxWait;
+    private final Runnable onShared;
+
+    /**
+     * @param onShared Called each time a caller receives another caller's result
+     */
+    public SingleFlight(Duration maxWait, Runnable onShared) {
+        this.maxWait = maxWait;
+        this.onShared = onShared;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing == null) {
+            return lead(key, call, loader);
+        }
+
+        try {
+            V value = existing.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            onShared.run();
+            return value;
+        } catch (ExecutionException e) {
+            onShared.run();
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Load failed for " + key, e.getCause());
+        } catch (TimeoutException e) {
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for load of " + key, e);
+        }
+    }
+
+    private V lead(K key, CompletableFuture<V> call, Supplier<V> loader) {
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Keys with a load currently running
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+}
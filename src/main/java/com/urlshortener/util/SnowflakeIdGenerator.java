@@ -1,9 +1,12 @@
 package com.urlshortener.util;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Snowflake ID Generator for distributed systems
  * 
@@ -14,6 +17,14 @@ import org.springframework.stereotype.Component;
  * - 12 bits: sequence number
  * 
  * Generates 4096 unique IDs per millisecond per machine
+ *
+ * Lock-free: timestamp and sequence are packed into one AtomicLong and
+ * advanced with CAS. When a millisecond's sequence is exhausted the next
+ * millisecond is borrowed rather than spinning under a lock.
+ *
+ * With snowflake.lease.enabled the machine ID is not taken from config but
+ * assigned by SnowflakeWorkerLease, and no ids are handed out while the
+ * lease is missing or has lapsed.
  */
 @Component
 @Slf4j
@@ -33,15 +44,30 @@ public class SnowflakeIdGenerator {
     private static final long DATACENTER_ID_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS;
     private static final long TIMESTAMP_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS + DATACENTER_ID_BITS;
 
-    private final long datacenterId;
-    private final long workerId;
-    
-    private long sequence = 0L;
-    private long lastTimestamp = -1L;
+    // Tolerated clock regression, and how far the logical clock may run ahead of the wall clock
+    private static final long MAX_CLOCK_SKEW_MS = 5L;
+
+    public static final int MAX_MACHINE_ID = (int) ((MAX_DATACENTER_ID << WORKER_ID_BITS) | MAX_WORKER_ID);
+
+    private volatile long datacenterId;
+    private volatile long workerId;
+    private volatile long machineBits;
+
+    // Wall-clock millis until which the machine ID may be used; Long.MAX_VALUE for static config
+    private volatile long leaseValidUntil;
+
+    // (timestamp - EPOCH) << SEQUENCE_BITS | last sequence handed out
+    private final AtomicLong state = new AtomicLong();
 
+    public SnowflakeIdGenerator(long datacenterId, long workerId) {
+        this(datacenterId, workerId, false);
+    }
+
+    @Autowired
     public SnowflakeIdGenerator(
             @Value("${snowflake.datacenter-id:0}") long datacenterId,
-            @Value("${snowflake.worker-id:0}") long workerId) {
+            @Value("${snowflake.worker-id:0}") long workerId,
+            @Value("${snowflake.lease.enabled:false}") boolean leaseRequired) {
         
         if (datacenterId > MAX_DATACENTER_ID || datacenterId < 0) {
             throw new IllegalArgumentException(
@@ -52,60 +78,135 @@ public class SnowflakeIdGenerator {
                 String.format("Worker ID must be between 0 and %d", MAX_WORKER_ID));
         }
         
+        if (leaseRequired) {
+            // Configured ids are ignored; wait for a lease
+            this.leaseValidUntil = 0L;
+            log.info("Snowflake ID Generator initialized, waiting for a worker ID lease");
+            return;
+        }
+
         this.datacenterId = datacenterId;
         this.workerId = workerId;
+        this.machineBits = (datacenterId << DATACENTER_ID_SHIFT) | (workerId << WORKER_ID_SHIFT);
+        this.leaseValidUntil = Long.MAX_VALUE;
         
         log.info("Snowflake ID Generator initialized with datacenter={}, worker={}", 
                 datacenterId, workerId);
     }
 
-    public synchronized long nextId() {
-        long timestamp = currentTime();
-
-        // Clock moved backwards
-        if (timestamp < lastTimestamp) {
-            long offset = lastTimestamp - timestamp;
-            if (offset <= 5) {
-                // Wait for clock to catch up
-                try {
-                    wait(offset << 1);
-                    timestamp = currentTime();
-                    if (timestamp < lastTimestamp) {
-                        throw new RuntimeException("Clock moved backwards. Refusing to generate ID");
-                    }
-                } catch (InterruptedException e) {
-                    throw new RuntimeException("Interrupted while waiting for clock sync");
-                }
-            } else {
-                throw new RuntimeException("Clock moved backwards. Refusing to generate ID");
-            }
+    /**
+     * Switch to a leased machine ID (datacenter in the high 5 bits, worker in the low 5)
+     * @param validUntil Wall-clock millis after which ids are refused unless the lease is extended
+     */
+    public synchronized void assignLease(int machineId, long validUntil) {
+        if (machineId < 0 || machineId > MAX_MACHINE_ID) {
+            throw new IllegalArgumentException(
+                String.format("Machine ID must be between 0 and %d", MAX_MACHINE_ID));
+        }
+
+        // Block generation while the machine bits change
+        this.leaseValidUntil = 0L;
+        this.datacenterId = machineId >>> WORKER_ID_BITS;
+        this.workerId = machineId & MAX_WORKER_ID;
+        this.machineBits = (long) machineId << WORKER_ID_SHIFT;
+        this.leaseValidUntil = validUntil;
+
+        log.info("Snowflake worker ID leased: datacenter={}, worker={}", datacenterId, workerId);
+    }
+
+    public void extendLease(long validUntil) {
+        this.leaseValidUntil = validUntil;
+    }
+
+    public void revokeLease() {
+        this.leaseValidUntil = 0L;
+    }
+
+    public boolean hasValidLease() {
+        return currentTime() < leaseValidUntil;
+    }
+
+    public long nextId() {
+        return reserveRange(1).firstId();
+    }
+
+    /**
+     * Reserve n ids. Each CAS grabs as many ids as are left in the current millisecond,
+     * so a block costs at most ceil(n / 4096) + 1 atomic operations.
+     */
+    public long[] nextIds(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Count must not be negative");
         }
 
-        // Same millisecond
-        if (timestamp == lastTimestamp) {
-            sequence = (sequence + 1) & MAX_SEQUENCE;
-            if (sequence == 0) {
-                // Sequence exhausted, wait for next millisecond
-                timestamp = waitForNextMillis(lastTimestamp);
+        long[] ids = new long[n];
+        int filled = 0;
+        while (filled < n) {
+            IdRange range = reserveRange((int) Math.min(n - filled, MAX_SEQUENCE + 1));
+            for (int i = 0; i < range.size(); i++) {
+                ids[filled++] = range.firstId() + i;
             }
-        } else {
-            sequence = 0L;
         }
+        return ids;
+    }
 
-        lastTimestamp = timestamp;
+    /**
+     * Reserve a contiguous block of ids [firstId, firstId + size) in one atomic operation.
+     * All ids share one millisecond, so size is capped at 4096.
+     */
+    public IdRange reserveRange(int size) {
+        if (size < 1 || size > MAX_SEQUENCE + 1) {
+            throw new IllegalArgumentException(
+                String.format("Range size must be between 1 and %d", MAX_SEQUENCE + 1));
+        }
 
-        return ((timestamp - EPOCH) << TIMESTAMP_SHIFT)
-                | (datacenterId << DATACENTER_ID_SHIFT)
-                | (workerId << WORKER_ID_SHIFT)
-                | sequence;
-    }
+        if (!hasValidLease()) {
+            throw new IllegalStateException("No valid worker ID lease. Refusing to generate ID");
+        }
 
-    private long waitForNextMillis(long lastTimestamp) {
-        long timestamp = currentTime();
-        while (timestamp <= lastTimestamp) {
-            timestamp = currentTime();
+        while (true) {
+            // Read state before the clock, so a stale clock reading can't look like a regression
+            long prev = state.get();
+            long now = currentTime() - EPOCH;
+            long lastTimestamp = prev >>> SEQUENCE_BITS;
+            long lastSequence = prev & MAX_SEQUENCE;
+
+            long timestamp;
+            long firstSequence;
+            if (now > lastTimestamp) {
+                timestamp = now;
+                firstSequence = 0;
+            } else {
+                // Same millisecond, or the clock moved backwards: keep the logical clock
+                if (lastTimestamp - now > MAX_CLOCK_SKEW_MS) {
+                    if (lastTimestamp - now > 2 * MAX_CLOCK_SKEW_MS) {
+                        throw new IllegalStateException("Clock moved backwards. Refusing to generate ID");
+                    }
+                    // Logical clock is too far ahead (sequence exhaustion under load); let time catch up
+                    Thread.onSpinWait();
+                    continue;
+                }
+                timestamp = lastTimestamp;
+                firstSequence = lastSequence + 1;
+                if (firstSequence + size - 1 > MAX_SEQUENCE) {
+                    // Sequence exhausted: borrow the next millisecond instead of blocking
+                    timestamp = lastTimestamp + 1;
+                    firstSequence = 0;
+                }
+            }
+
+            long next = (timestamp << SEQUENCE_BITS) | (firstSequence + size - 1);
+            if (state.compareAndSet(prev, next)) {
+                return new IdRange((timestamp << TIMESTAMP_SHIFT) | machineBits | firstSequence, size);
+            }
         }
-        return timestamp;
+    }
+
+    /**
+     * Lowest id any generator can hand out at the given wall-clock time; ids only grow from there
+     */
+    public static long firstIdAt(long epochMillis) {
+        return Math.max(0L, epochMillis - EPOCH) << TIMESTAMP_SHIFT;
     }
 
     private long currentTime() {
@@ -119,4 +220,14 @@ public class SnowflakeIdGenerator {
     public long getWorkerId() {
         return workerId;
     }
+
+    /**
+     * Contiguous block of ids: firstId, firstId + 1, ..., firstId + size - 1
+     */
+    public record IdRange(long firstId, int size) {
+
+        public long lastId() {
+            return firstId + size - 1;
+        }
+    }
 }
@@ -0,0 +1,27 @@
+package com.urlshortener.util;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "snowflake.lease")
+@Data
+public class SnowflakeLeaseConfig {
+
+    // Lease the machine ID from Redis instead of using snowflake.datacenter-id / worker-id
+    private boolean enabled = false;
+
+    // How long a claim lives in Redis without a heartbeat
+    private Duration ttl = Duration.ofSeconds(30);
+
+    // Heartbeat period; must be well below the TTL
+    private long renewInterval = 10_000L;
+
+    // Local validity is cut short by this much to absorb clock skew between nodes
+    private Duration safetyMargin = Duration.ofSeconds(5);
+
+    private String keyPrefix = "snowflake:lease:";
+}
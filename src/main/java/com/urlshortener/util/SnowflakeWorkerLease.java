@@ -0,0 +1,141 @@
+package com.urlshortener.util;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Leases a free Snowflake machine ID (datacenter + worker, 1024 slots) from Redis
+ *
+ * A slot is claimed with SET NX PX holding this node's owner token and kept
+ * alive by a heartbeat that only extends the key while we still own it.
+ * The generator is told how long the lease is locally valid (TTL minus a
+ * safety margin, measured from before the Redis call), so it stops handing
+ * out ids before another node can claim the slot. A lost or lapsed lease is
+ * replaced by claiming a fresh slot on the next heartbeat.
+ */
+@Component
+@ConditionalOnProperty(name = "snowflake.lease.enabled", havingValue = "true")
+@Slf4j
+public class SnowflakeWorkerLease {
+
+    private static final RedisScript<Long> RENEW_SCRIPT = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+            "return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end", Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+            "return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
+    private static final int NO_LEASE = -1;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final SnowflakeIdGenerator generator;
+    private final SnowflakeLeaseConfig config;
+    private final String owner = UUID.randomUUID().toString();
+
+    private volatile int machineId = NO_LEASE;
+
+    public SnowflakeWorkerLease(RedisTemplate<String, String> redisTemplate,
+                                SnowflakeIdGenerator generator,
+                                SnowflakeLeaseConfig config) {
+        this.redisTemplate = redisTemplate;
+        this.generator = generator;
+        this.config = config;
+
+        if (config.getSafetyMargin().compareTo(config.getTtl()) >= 0) {
+            throw new IllegalArgumentException("snowflake.lease.safety-margin must be shorter than the TTL");
+        }
+    }
+
+    @PostConstruct
+    public void initialize() {
+        // Redis may not be up yet; the heartbeat keeps trying
+        heartbeat();
+    }
+
+    @Scheduled(initialDelayString = "${snowflake.lease.renew-interval:10000}",
+               fixedDelayString = "${snowflake.lease.renew-interval:10000}")
+    public synchronized void heartbeat() {
+        try {
+            if (machineId == NO_LEASE) {
+                acquire();
+            } else if (!renew()) {
+                log.warn("Lost Snowflake lease on machine ID {}, claiming a new one", machineId);
+                generator.revokeLease();
+                machineId = NO_LEASE;
+                acquire();
+            }
+        } catch (Exception e) {
+            log.error("Snowflake lease heartbeat failed (machine ID {})", machineId, e);
+        }
+    }
+
+    /**
+     * Claim the first free slot, probing from a random offset so nodes starting together spread out
+     */
+    private void acquire() {
+        int start = ThreadLocalRandom.current().nextInt(SnowflakeIdGenerator.MAX_MACHINE_ID + 1);
+        for (int i = 0; i <= SnowflakeIdGenerator.MAX_MACHINE_ID; i++) {
+            int candidate = (start + i) % (SnowflakeIdGenerator.MAX_MACHINE_ID + 1);
+            long requestedAt = System.currentTimeMillis();
+            Boolean claimed = redisTemplate.opsForValue()
+                    .setIfAbsent(key(candidate), owner, config.getTtl());
+            if (Boolean.TRUE.equals(claimed)) {
+                machineId = candidate;
+                generator.assignLease(candidate, validUntil(requestedAt));
+                return;
+            }
+        }
+        log.error("No free Snowflake machine ID in Redis; ID generation stays disabled");
+    }
+
+    private boolean renew() {
+        long requestedAt = System.currentTimeMillis();
+        Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(key(machineId)),
+                owner, String.valueOf(config.getTtl().toMillis()));
+        if (renewed == null || renewed == 0L) {
+            return false;
+        }
+        generator.extendLease(validUntil(requestedAt));
+        return true;
+    }
+
+    @PreDestroy
+    public synchronized void release() {
+        int held = machineId;
+        if (held == NO_LEASE) {
+            return;
+        }
+
+        generator.revokeLease();
+        machineId = NO_LEASE;
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(key(held)), owner);
+            log.info("Released Snowflake machine ID {}", held);
+        } catch (Exception e) {
+            log.warn("Failed to release Snowflake machine ID {}, it will expire", held, e);
+        }
+    }
+
+    public int getMachineId() {
+        return machineId;
+    }
+
+    private long validUntil(long requestedAt) {
+        return requestedAt + config.getTtl().toMillis() - config.getSafetyMargin().toMillis();
+    }
+
+    private String key(int id) {
+        return config.getKeyPrefix() + id;
+    }
+}
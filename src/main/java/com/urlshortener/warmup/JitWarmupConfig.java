@@ -0,0 +1,29 @@
+package com.urlshortener.warmup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "jit-warmup")
+@Data
+public class JitWarmupConfig {
+
+    private boolean enabled = false;
+
+    // Stand-in links per cache tier (local, Redis, database); each round redirects every one once
+    private int standInLinks = 1000;
+
+    // Runs at least this long, so C1-compiled code has time to be profiled and reach C2
+    private Duration minDuration = Duration.ofSeconds(5);
+
+    // Readiness is released after this long whether or not the JIT has settled
+    private Duration maxDuration = Duration.ofSeconds(60);
+
+    // Settled once this many consecutive rounds each add less than settle-compile-millis of JIT time
+    private int settleRounds = 3;
+
+    private long settleCompileMillis = 10;
+}
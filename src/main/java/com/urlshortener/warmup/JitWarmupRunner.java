@@ -0,0 +1,335 @@
+package com.urlshortener.warmup;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import com.urlshortener.analytics.AnalyticsProducer;
+import com.urlshortener.analytics.ClickCountConfig;
+import com.urlshortener.analytics.ClickCounter;
+import com.urlshortener.cache.CacheInvalidationService;
+import com.urlshortener.cache.CacheRefresher;
+import com.urlshortener.cache.HotKeyConfig;
+import com.urlshortener.cache.HotKeyTracker;
+import com.urlshortener.cache.LocalCacheConfig;
+import com.urlshortener.cache.LocalUrlCache;
+import com.urlshortener.cache.ShortCodeFilter;
+import com.urlshortener.cache.ShortCodeFilterConfig;
+import com.urlshortener.cache.UrlCacheConfig;
+import com.urlshortener.cache.UrlCacheStore;
+import com.urlshortener.controller.RedirectController;
+import com.urlshortener.datasource.ReadYourWrites;
+import com.urlshortener.datasource.ReplicaRoutingConfig;
+import com.urlshortener.dto.CreateUrlRequest;
+import com.urlshortener.exception.UrlNotFoundException;
+import com.urlshortener.model.Url;
+import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.security.UrlValidationService;
+import com.urlshortener.service.IdGenerationConfig;
+import com.urlshortener.service.UrlDedupConfig;
+import com.urlshortener.service.ShortCodeNamespace;
+import com.urlshortener.service.UrlDedupService;
+import com.urlshortener.service.UrlResolutionConfig;
+import com.urlshortener.service.UrlService;
+import com.urlshortener.util.Base62Encoder;
+import com.urlshortener.util.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives synthetic redirects and creates through the real RedirectController,
+ * UrlService, Base62Encoder and UrlValidationService code until the JIT settles
+ *
+ * The calls run on a private object graph wired to in-memory stand-ins
+ * (InMemoryStandIns), so nothing reaches Postgres, Redis or Kafka and the
+ * node's own caches, click counts, hot keys and metrics are untouched: no
+ * rows, clicks, analytics events or shared cache entries are written. JIT compilation
+ * is per method, not per instance, so the compiled code is what real traffic
+ * then runs; call sites that only saw stand-in receiver types are recompiled
+ * on first use, which is far cheaper than starting interpreted. Each round
+ * hits all three cache tiers and the create path; warm-up ends when
+ * settle-rounds consecutive rounds add under settle-compile-millis of JIT
+ * time (after min-duration), or at max-duration. Registered as the jitWarmup
+ * health indicator in the readiness group, so the node reports
+ * OUT_OF_SERVICE until then.
+ */
+@Component("jitWarmup")
+@Slf4j
+public class JitWarmupRunner implements HealthIndicator {
+
+    private final JitWarmupConfig config;
+    private final Base62Encoder base62Encoder;
+    private final UrlValidationService urlValidationService;
+    private final IdGenerationConfig idGenerationConfig;
+
+    private final AtomicLong rounds = new AtomicLong();
+    private volatile long durationNanos;
+    private volatile long compileMillis;
+    private volatile boolean finished;
+    private volatile String outcome = "pending";
+
+    public JitWarmupRunner(JitWarmupConfig config,
+                           Base62Encoder base62Encoder,
+                           UrlValidationService urlValidationService,
+                           IdGenerationConfig idGenerationConfig,
+                           MetricsService metricsService) {
+        this.config = config;
+        this.base62Encoder = base62Encoder;
+        this.urlValidationService = urlValidationService;
+        this.idGenerationConfig = idGenerationConfig;
+
+        metricsService.registerGauge("jit.warmup.duration.seconds", "Time spent in JIT warm-up before readiness",
+                () -> durationNanos / 1e9);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!config.isEnabled()) {
+            outcome = "disabled";
+            finished = true;
+            return;
+        }
+
+        Thread thread = new Thread(this::warm, "jit-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = finished ? Health.up() : Health.outOfService();
+        return builder
+                .withDetail("outcome", outcome)
+                .withDetail("rounds", rounds.get())
+                .withDetail("durationMs", TimeUnit.NANOSECONDS.toMillis(durationNanos))
+                .withDetail("compileTimeMs", compileMillis)
+                .build();
+    }
+
+    /**
+     * Run the warm-up on the calling thread
+     */
+    void warm() {
+        long start = System.nanoTime();
+        long minNanos = config.getMinDuration().toNanos();
+        long maxNanos = config.getMaxDuration().toNanos();
+        CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+        boolean measurable = compiler != null && compiler.isCompilationTimeMonitoringSupported();
+        long compileStart = measurable ? compiler.getTotalCompilationTime() : 0L;
+
+        outcome = "running";
+        TurboFilter mute = muteLogging(Thread.currentThread());
+        Sandbox sandbox = null;
+        try {
+            sandbox = new Sandbox();
+            long lastCompile = compileStart;
+            int quietRounds = 0;
+            while (true) {
+                sandbox.round();
+                rounds.incrementAndGet();
+                long elapsed = System.nanoTime() - start;
+                durationNanos = elapsed;
+
+                if (measurable) {
+                    long compile = compiler.getTotalCompilationTime();
+                    compileMillis = compile - compileStart;
+                    quietRounds = compile - lastCompile < config.getSettleCompileMillis() ? quietRounds + 1 : 0;
+                    lastCompile = compile;
+                }
+                if (elapsed >= minNanos && measurable && quietRounds >= config.getSettleRounds()) {
+                    outcome = "settled";
+                    break;
+                }
+                if (elapsed >= maxNanos || Thread.currentThread().isInterrupted()) {
+                    outcome = measurable ? "timed out" : "completed (compilation time not measurable)";
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("JIT warm-up failed, continuing without it", e);
+            outcome = "failed: " + e.getMessage();
+        } finally {
+            if (sandbox != null) {
+                sandbox.close();
+            }
+            unmuteLogging(mute);
+            durationNanos = System.nanoTime() - start;
+            finished = true;
+            log.info("JIT warm-up {} after {} rounds in {} ms ({} ms of JIT compilation)", outcome, rounds.get(),
+                    TimeUnit.NANOSECONDS.toMillis(durationNanos), compileMillis);
+        }
+    }
+
+    /**
+     * The redirect and create paths wired to stand-ins, with stand-in links seeded per tier
+     */
+    private final class Sandbox {
+
+        private final InMemoryStandIns.UrlTable rows = new InMemoryStandIns.UrlTable();
+        private final SnowflakeIdGenerator idGenerator = new SnowflakeIdGenerator(0, 1);
+        private final HttpServletRequest request = InMemoryStandIns.httpServletRequest();
+        private final LocalUrlCache localUrlCache;
+        private final UrlCacheStore urlCacheStore;
+        private final CacheRefresher cacheRefresher;
+        private final UrlService urlService;
+        private final RedirectController redirectController;
+        private final String[] localCodes;
+        private final String[] redisCodes;
+        private final String[] databaseCodes;
+        // Seeded identity ids start well above the ids the stand-in repository assigns on create
+        private long sequence = 1L << 40;
+
+        Sandbox() {
+            MetricsService metricsService = new MetricsService(new SimpleMeterRegistry());
+            var redisTemplate = InMemoryStandIns.redisTemplate(new ConcurrentHashMap<>(), true);
+            LocalCacheConfig localCacheConfig = new LocalCacheConfig();
+            localUrlCache = new LocalUrlCache(localCacheConfig, metricsService);
+            // Stand-in Redis only speaks plain keys
+            UrlCacheConfig urlCacheConfig = new UrlCacheConfig();
+            urlCacheStore = new UrlCacheStore(redisTemplate, urlCacheConfig);
+            cacheRefresher = new CacheRefresher(urlCacheConfig, metricsService);
+
+            ShortCodeFilterConfig filterConfig = new ShortCodeFilterConfig();
+            filterConfig.setExpectedInsertions(config.getStandInLinks() * 8L);
+            var urlRepository = InMemoryStandIns.urlRepository(rows);
+            ShortCodeFilter shortCodeFilter = new ShortCodeFilter(urlRepository, filterConfig, metricsService,
+                    redisTemplate, null);
+            shortCodeFilter.rebuild();
+
+            urlService = new UrlService(
+                    urlRepository,
+                    base62Encoder,
+                    urlCacheStore,
+                    metricsService,
+                    urlValidationService,
+                    localUrlCache,
+                    new CacheInvalidationService(redisTemplate, localUrlCache, urlCacheStore, localCacheConfig,
+                            metricsService, null),
+                    shortCodeFilter,
+                    new ClickCounter(null, null, null, metricsService),
+                    new ClickCountConfig(),
+                    InMemoryStandIns.urlJdbcRepository(rows),
+                    idGenerator,
+                    idGenerationConfig,
+                    urlCacheConfig,
+                    cacheRefresher,
+                    new HotKeyTracker(new HotKeyConfig(), localUrlCache, redisTemplate, metricsService),
+                    new ReadYourWrites(new ReplicaRoutingConfig()),
+                    InMemoryStandIns.urlAliasRepository(rows),
+                    new UrlResolutionConfig(),
+                    new UrlDedupService(urlRepository, new UrlDedupConfig(), metricsService),
+                    new ShortCodeNamespace(base62Encoder, idGenerationConfig, null));
+            redirectController = new RedirectController(urlService,
+                    new AnalyticsProducer(InMemoryStandIns.kafkaTemplate()), shortCodeFilter);
+
+            localCodes = seed(shortCodeFilter);
+            redisCodes = seed(shortCodeFilter);
+            databaseCodes = seed(shortCodeFilter);
+        }
+
+        void round() {
+            int links = localCodes.length;
+            for (int i = 0; i < links; i++) {
+                redirectController.redirect(localCodes[i], request);
+
+                localUrlCache.invalidate(redisCodes[i]);
+                redirectController.redirect(redisCodes[i], request);
+
+                localUrlCache.invalidate(databaseCodes[i]);
+                urlCacheStore.delete(databaseCodes[i]);
+                redirectController.redirect(databaseCodes[i], request);
+
+                base62Encoder.decode(databaseCodes[i]);
+                if (i % 10 == 0) {
+                    create(i);
+                }
+            }
+        }
+
+        private void create(int i) {
+            String shortCode = urlService.createShortUrl(CreateUrlRequest.builder()
+                    .originalUrl("https://example.com/warmup/created/" + i + "?utm_source=warmup")
+                    .build()).getShortCode();
+            // Keep the stand-in tables bounded across rounds
+            rows.remove(shortCode);
+            urlCacheStore.delete(shortCode);
+            localUrlCache.invalidate(shortCode);
+
+            try {
+                redirectController.redirect("warmup-missing-" + i, request);
+            } catch (UrlNotFoundException expected) {
+                // Filter false positive: the database path answers instead
+            }
+            try {
+                urlValidationService.validateUrl("https://localhost/warmup/" + i);
+            } catch (IllegalArgumentException expected) {
+                // Rejection path
+            }
+        }
+
+        private String[] seed(ShortCodeFilter shortCodeFilter) {
+            String[] codes = new String[config.getStandInLinks()];
+            for (int i = 0; i < codes.length; i++) {
+                long id = idGenerationConfig.getStrategy() == IdGenerationConfig.Strategy.SNOWFLAKE
+                        ? idGenerator.nextId()
+                        : ++sequence;
+                String code = base62Encoder.encode(id);
+                codes[i] = code;
+                rows.put(Url.builder()
+                        .id(id)
+                        .shortCode(code)
+                        .originalUrl("https://example.com/warmup/" + i + "?utm_source=warmup")
+                        .createdAt(LocalDateTime.now())
+                        .clickCount(0L)
+                        .build());
+                shortCodeFilter.add(code);
+            }
+            return codes;
+        }
+
+        void close() {
+            cacheRefresher.shutdown();
+        }
+    }
+
+    /**
+     * Drop log events from the warm-up thread; the redirect path logs every call
+     */
+    private static TurboFilter muteLogging(Thread thread) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return null;
+        }
+        TurboFilter filter = new TurboFilter() {
+            @Override
+            public FilterReply decide(Marker marker, Logger logger, Level level, String format,
+                                      Object[] params, Throwable t) {
+                return Thread.currentThread() == thread ? FilterReply.DENY : FilterReply.NEUTRAL;
+            }
+        };
+        filter.start();
+        context.addTurboFilter(filter);
+        return filter;
+    }
+
+    private static void unmuteLogging(TurboFilter filter) {
+        if (filter != null && LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+            context.getTurboFilterList().remove(filter);
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.urlshortener.writebehind;
+
+import com.urlshortener.model.Url;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of acknowledged write-behind creates
+ *
+ * Records are [length][crc32][payload] in numbered segment files. With fsync
+ * on, an append returns once a sync covering it has completed; appenders that
+ * arrive while a sync runs share the next one (group commit). A segment is
+ * closed at segment-bytes and deleted once every record in it is released,
+ * i.e. in Postgres. On open the remaining segments are replayed; a torn or
+ * corrupt record (a crash mid-write, never acknowledged) ends its segment.
+ *
+ * Writes go through FileOutputStream rather than a FileChannel: an
+ * interrupted request thread must not close the journal for everyone else.
+ */
+@Slf4j
+public class CreateJournal implements Closeable {
+
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 1 << 24;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean fsync;
+
+    // Lock order: syncLock, then writeLock
+    private final Object syncLock = new Object();
+    private final Object writeLock = new Object();
+
+    // Guarded by writeLock
+    private final TreeMap<Long, Integer> outstanding = new TreeMap<>();
+    private FileOutputStream out;
+    private long activeSegment;
+    private long activeBytes;
+    private long written;
+
+    // Guarded by syncLock
+    private long synced;
+
+    public record Entry(long segment, Url url) {
+    }
+
+    public CreateJournal(Path directory, long segmentBytes, boolean fsync) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Replay what an earlier run left behind and start a new segment for appends
+     * @return journaled links not yet released, oldest first
+     */
+    public List<Entry> open() throws IOException {
+        Files.createDirectories(directory);
+        List<Entry> recovered = new ArrayList<>();
+        long last = 0;
+        for (long segment : segments()) {
+            List<Url> urls = replay(segment);
+            if (urls.isEmpty()) {
+                Files.deleteIfExists(path(segment));
+            } else {
+                urls.forEach(url -> recovered.add(new Entry(segment, url)));
+                outstanding.put(segment, urls.size());
+            }
+            last = segment;
+        }
+
+        synchronized (writeLock) {
+            activeSegment = last + 1;
+            out = new FileOutputStream(path(activeSegment).toFile(), true);
+        }
+        return recovered;
+    }
+
+    /**
+     * Append one link, durable on return when fsync is on
+     * @return the segment holding the record, to hand back to release()
+     */
+    public long append(Url url) {
+        byte[] record = encode(url);
+        long segment;
+        long end;
+        boolean full;
+        synchronized (writeLock) {
+            try {
+                out.write(record);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to append to write-behind journal", e);
+            }
+            segment = activeSegment;
+            activeBytes += record.length;
+            written += record.length;
+            end = written;
+            full = activeBytes >= segmentBytes;
+            outstanding.merge(segment, 1, Integer::sum);
+        }
+
+        if (fsync) {
+            sync(end);
+        }
+        if (full) {
+            roll();
+        }
+        return segment;
+    }
+
+    /**
+     * Mark records as written to Postgres; segments left with none are deleted
+     * @param released records per segment
+     */
+    public void release(Map<Long, Integer> released) {
+        List<Long> done = new ArrayList<>();
+        synchronized (writeLock) {
+            released.forEach((segment, count) -> {
+                Integer left = outstanding.merge(segment, -count, Integer::sum);
+                if (left != null && left <= 0) {
+                    outstanding.remove(segment);
+                    if (segment != activeSegment) {
+                        done.add(segment);
+                    }
+                }
+            });
+        }
+        done.forEach(this::delete);
+    }
+
+    /**
+     * Close the active segment, deleting it if everything in it was released
+     */
+    @Override
+    public void close() throws IOException {
+        boolean empty;
+        synchronized (syncLock) {
+            synchronized (writeLock) {
+                if (out == null) {
+                    return;
+                }
+                out.getFD().sync();
+                out.close();
+                out = null;
+                empty = !outstanding.containsKey(activeSegment);
+            }
+        }
+        if (empty) {
+            delete(activeSegment);
+        }
+    }
+
+    private void sync(long end) {
+        synchronized (syncLock) {
+            if (synced >= end) {
+                // Another appender's sync already covered this record
+                return;
+            }
+            FileOutputStream stream;
+            long target;
+            synchronized (writeLock) {
+                stream = out;
+                target = written;
+            }
+            try {
+                stream.getFD().sync();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to sync write-behind journal", e);
+            }
+            synced = target;
+        }
+    }
+
+    private void roll() {
+        long closed;
+        boolean empty;
+        synchronized (syncLock) {
+            synchronized (writeLock) {
+                if (activeBytes < segmentBytes) {
+                    // Another appender rolled first
+                    return;
+                }
+                try {
+                    out.getFD().sync();
+                    out.close();
+                    closed = activeSegment;
+                    activeSegment++;
+                    activeBytes = 0;
+                    out = new FileOutputStream(path(activeSegment).toFile(), true);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to roll write-behind journal", e);
+                }
+                synced = written;
+                empty = !outstanding.containsKey(closed);
+            }
+        }
+        if (empty) {
+            delete(closed);
+        }
+    }
+
+    private List<Url> replay(long segment) throws IOException {
+        Path path = path(segment);
+        List<Url> urls = new ArrayList<>();
+        long valid = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            DataInputStream data = new DataInputStream(in);
+            while (true) {
+                int length;
+                try {
+                    length = data.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length <= 0 || length > MAX_RECORD_BYTES) {
+                    break;
+                }
+                try {
+                    int crc = data.readInt();
+                    byte[] payload = new byte[length];
+                    data.readFully(payload);
+                    if (crc != crc(payload)) {
+                        break;
+                    }
+                    urls.add(decode(payload));
+                } catch (EOFException e) {
+                    break;
+                }
+                valid += HEADER_BYTES + length;
+            }
+        }
+
+        long size = Files.size(path);
+        if (valid < size) {
+            log.warn("Truncating write-behind journal segment {} from {} to {} bytes (torn tail)", segment, size, valid);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(valid);
+            }
+        }
+        return urls;
+    }
+
+    private List<Long> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private void delete(long segment) {
+        try {
+            Files.deleteIfExists(path(segment));
+        } catch (IOException e) {
+            log.warn("Failed to delete flushed write-behind journal segment {}", segment, e);
+        }
+    }
+
+    private Path path(long segment) {
+        return directory.resolve(String.format("%s%016d%s", PREFIX, segment, SUFFIX));
+    }
+
+    private static byte[] encode(Url url) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream data = new DataOutputStream(bytes)) {
+            data.writeLong(url.getId());
+            writeString(data, url.getShortCode());
+            writeString(data, url.getOriginalUrl());
+            writeString(data, url.getCreatedAt().toString());
+            writeString(data, url.getExpiryDate() != null ? url.getExpiryDate().toString() : "");
+            writeString(data, url.getUrlHash() != null ? url.getUrlHash() : "");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] payload = bytes.toByteArray();
+        return ByteBuffer.allocate(HEADER_BYTES + payload.length)
+                .putInt(payload.length)
+                .putInt(crc(payload))
+                .put(payload)
+                .array();
+    }
+
+    private static Url decode(byte[] payload) throws IOException {
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(payload));
+        long id = data.readLong();
+        String shortCode = readString(data);
+        String originalUrl = readString(data);
+        LocalDateTime createdAt = LocalDateTime.parse(readString(data));
+        String expiry = readString(data);
+        String urlHash = readString(data);
+        return Url.builder()
+                .id(id)
+                .shortCode(shortCode)
+                .originalUrl(originalUrl)
+                .createdAt(createdAt)
+                .expiryDate(expiry.isEmpty() ? null : LocalDateTime.parse(expiry))
+                .clickCount(0L)
+                .urlHash(urlHash.isEmpty() ? null : urlHash)
+                .build();
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    private static String readString(DataInputStream data) throws IOException {
+        byte[] bytes = new byte[data.readInt()];
+        data.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,36 @@
+package com.urlshortener.writebehind;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "write-behind")
+@Data
+public class WriteBehindConfig {
+
+    /**
+     * Acknowledge creates once journaled and cached; rows reach Postgres in batches.
+     * Only generated codes under the SNOWFLAKE id strategy; custom aliases stay synchronous.
+     */
+    private boolean enabled = false;
+
+    // Per-node journal directory; must survive restarts (a persistent volume, not the container layer)
+    private String journalDir = "write-behind-journal";
+
+    // A journal segment is closed at this size and deleted once all of its links are in Postgres
+    private long segmentBytes = 64L * 1024 * 1024;
+
+    // fsync the journal before acknowledging (group-committed across concurrent creates)
+    private boolean fsync = true;
+
+    // Journaled links not yet in Postgres; past this creates are rejected with 503
+    private int maxPending = 50_000;
+
+    // Rows per flusher JDBC batch / transaction
+    private int batchSize = 1000;
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
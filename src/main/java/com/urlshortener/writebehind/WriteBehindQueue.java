@@ -0,0 +1,241 @@
+package com.urlshortener.writebehind;
+
+import com.urlshortener.cache.CacheInvalidationService;
+import com.urlshortener.cache.ShortCodeFilter;
+import com.urlshortener.datasource.ReadYourWrites;
+import com.urlshortener.exception.WriteBehindBacklogException;
+import com.urlshortener.model.Url;
+import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.repository.UrlJdbcRepository;
+import com.urlshortener.service.UrlDedupService;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Links acknowledged by write-behind creates on their way to Postgres
+ *
+ * A link is journaled before it is queued, so everything acknowledged
+ * survives a crash and is queued again on the next start. The flusher
+ * inserts the queue in JDBC batches of batch-size and releases the journal
+ * records of every committed batch. A failed batch is retried first on the
+ * next run. Once max-pending links are waiting, enqueue() rejects instead of
+ * letting the journal and the gap to Postgres grow without bound.
+ *
+ * Pending links have no row, so ShortCodeFilter rebuilds add them from here.
+ * Custom aliases can't take a pending code while it is inside
+ * id-generation.alias-reserve-window; a link that still finds its code taken
+ * is dropped, its cached entries are invalidated and it is counted in
+ * url.write.behind.lost.total.
+ */
+@Component
+@Slf4j
+public class WriteBehindQueue {
+
+    private final WriteBehindConfig config;
+    private final UrlJdbcRepository urlJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadYourWrites readYourWrites;
+    private final CacheInvalidationService cacheInvalidationService;
+    private final ShortCodeFilter shortCodeFilter;
+    private final UrlDedupService urlDedupService;
+    private final MetricsService metricsService;
+
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private CreateJournal journal;
+
+    // Batch whose insert failed, retried before anything newer; only touched by flush()
+    private List<Pending> retry = List.of();
+
+    private record Pending(Url url, long segment, boolean recovered) {
+    }
+
+    public WriteBehindQueue(WriteBehindConfig config,
+                            UrlJdbcRepository urlJdbcRepository,
+                            TransactionTemplate transactionTemplate,
+                            ReadYourWrites readYourWrites,
+                            CacheInvalidationService cacheInvalidationService,
+                            ShortCodeFilter shortCodeFilter,
+                            UrlDedupService urlDedupService,
+                            MetricsService metricsService) {
+        this.config = config;
+        this.urlJdbcRepository = urlJdbcRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.readYourWrites = readYourWrites;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.shortCodeFilter = shortCodeFilter;
+        this.urlDedupService = urlDedupService;
+        this.metricsService = metricsService;
+
+        metricsService.registerGauge("url.write.behind.pending", "Acknowledged links not yet written to Postgres",
+                pending::get);
+    }
+
+    /**
+     * Replay the journal left by a previous run before taking new creates
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        journal = new CreateJournal(Path.of(config.getJournalDir()), config.getSegmentBytes(), config.isFsync());
+        List<CreateJournal.Entry> recovered = journal.open();
+        for (CreateJournal.Entry entry : recovered) {
+            queue.add(new Pending(entry.url(), entry.segment(), true));
+            // Peers may have missed the code when it was created
+            shortCodeFilter.add(entry.url().getShortCode());
+        }
+        pending.set(recovered.size());
+        shortCodeFilter.registerPendingCodes(this::pendingCodes);
+        if (!recovered.isEmpty()) {
+            log.info("Recovered {} journaled links not yet written to Postgres", recovered.size());
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Journal a link and queue it for the flusher; durable on return
+     * @throws WriteBehindBacklogException if max-pending links are already waiting
+     */
+    public void enqueue(Url url) {
+        if (pending.incrementAndGet() > config.getMaxPending()) {
+            pending.decrementAndGet();
+            metricsService.incrementWriteBehindRejected();
+            throw new WriteBehindBacklogException("Too many links waiting to be stored. Try again later.",
+                    config.getRetryAfter());
+        }
+        try {
+            long segment = journal.append(url);
+            queue.add(new Pending(url, segment, false));
+        } catch (RuntimeException e) {
+            pending.decrementAndGet();
+            throw e;
+        }
+    }
+
+    public int pending() {
+        return pending.get();
+    }
+
+    /**
+     * Codes acknowledged but not yet committed, including a batch waiting for retry
+     */
+    public Set<String> pendingCodes() {
+        List<Pending> failed = retry;
+        return Stream.concat(failed.stream(), queue.stream())
+                .map(entry -> entry.url().getShortCode())
+                .collect(Collectors.toSet());
+    }
+
+    @Scheduled(fixedDelayString = "${write-behind.flush-interval:200}")
+    public synchronized void flush() {
+        if (journal == null) {
+            return;
+        }
+
+        int batchSize = Math.max(1, config.getBatchSize());
+        while (true) {
+            List<Pending> batch = retry.isEmpty() ? poll(batchSize) : retry;
+            retry = List.of();
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (!write(batch)) {
+                retry = batch;
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        log.info("Flushing {} write-behind links before shutdown", pending.get());
+        flush();
+        // Anything still pending stays in the journal for the next start
+        journal.close();
+    }
+
+    private List<Pending> poll(int max) {
+        List<Pending> batch = new ArrayList<>(Math.min(max, pending.get()));
+        Pending next;
+        while (batch.size() < max && (next = queue.poll()) != null) {
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    /**
+     * @return false if the batch was not committed and has to be retried
+     */
+    private boolean write(List<Pending> batch) {
+        Timer.Sample sample = metricsService.startTimer();
+        List<Url> urls = batch.stream().map(Pending::url).toList();
+        boolean[] inserted;
+        try {
+            inserted = transactionTemplate.execute(status -> urlJdbcRepository.insertAllIfAbsent(urls));
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} write-behind links, will retry", batch.size(), e);
+            return false;
+        }
+
+        int conflicts = 0;
+        Map<Long, Integer> released = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Pending entry = batch.get(i);
+            released.merge(entry.segment(), 1, Integer::sum);
+            if (inserted[i]) {
+                readYourWrites.written(entry.url().getShortCode());
+            } else if (!entry.recovered()) {
+                // Snowflake ids can't collide; only a synchronously created alias can take a generated code
+                conflicts++;
+                drop(entry.url());
+            }
+            // A recovered link whose row exists was flushed before the crash but not yet released
+        }
+
+        journal.release(released);
+        pending.addAndGet(-batch.size());
+        metricsService.recordWriteBehindFlush(batch.size() - conflicts, conflicts, sample);
+        return true;
+    }
+
+    /**
+     * The client was already given this link: stop serving it, and make the loss visible
+     */
+    private void drop(Url url) {
+        log.error("Acknowledged write-behind link lost, short code taken by a custom alias: {} -> {}",
+                url.getShortCode(), url.getOriginalUrl());
+        metricsService.incrementWriteBehindLost();
+        urlDedupService.forget(url);
+        try {
+            cacheInvalidationService.invalidate(url.getShortCode());
+        } catch (RuntimeException e) {
+            log.warn("Failed to invalidate cached entries of lost link {}", url.getShortCode(), e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.urlshortener.analytics;
+
+import com.urlshortener.cache.ClickRanking;
+import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.repository.ClickCountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+class AnalyticsConsumerTest {
+
+    private ClickCountRepository clickCountRepository;
+    private ClickCountConfig clickCountConfig;
+    private AnalyticsConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        clickCountRepository = mock(ClickCountRepository.class);
+        clickCountConfig = new ClickCountConfig();
+        clickCountConfig.setMode(ClickCountConfig.Mode.KAFKA);
+        consumer = new AnalyticsConsumer(mock(ClickCounter.class), clickCountConfig,
+                clickCountRepository, mock(ClickRanking.class), new MetricsService(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void testBatchCollapsedIntoDeltas() {
+        consumer.consumeClickEvents(List.of(
+                ClickEvent.builder().shortCode("abc").build(),
+                ClickEvent.builder().shortCode("abc").build(),
+                ClickEvent.builder().shortCode("xyz").build()));
+
+        verify(clickCountRepository).incrementClickCounts(Map.of("abc", 2L, "xyz", 1L));
+    }
+
+    @Test
+    void testWriteFailurePropagates() {
+        when(clickCountRepository.incrementClickCounts(anyMap())).thenThrow(new RuntimeException("db down"));
+
+        assertThrows(RuntimeException.class, () -> consumer.consumeClickEvents(List.of(
+                ClickEvent.builder().shortCode("abc").build())));
+    }
+
+    @Test
+    void testLocalModeSkipsWrite() {
+        clickCountConfig.setMode(ClickCountConfig.Mode.LOCAL);
+
+        consumer.consumeClickEvents(List.of(ClickEvent.builder().shortCode("abc").build()));
+
+        verify(clickCountRepository, never()).incrementClickCounts(anyMap());
+    }
+}
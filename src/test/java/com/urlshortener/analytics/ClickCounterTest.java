@@ -0,0 +1,90 @@
+package com.urlshortener.analytics;
+
+import com.urlshortener.cache.ClickRanking;
+import com.urlshortener.cache.UrlStatsCache;
+import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.repository.ClickCountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+class ClickCounterTest {
+
+    private ClickCountRepository clickCountRepository;
+    private UrlStatsCache urlStatsCache;
+    private ClickCounter clickCounter;
+
+    @BeforeEach
+    void setUp() {
+        clickCountRepository = mock(ClickCountRepository.class);
+        urlStatsCache = mock(UrlStatsCache.class);
+        clickCounter = new ClickCounter(clickCountRepository, urlStatsCache, mock(ClickRanking.class),
+                new MetricsService(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlushAggregatesDeltas() {
+        clickCounter.increment("abc");
+        clickCounter.increment("abc");
+        clickCounter.increment("xyz");
+
+        clickCounter.flush();
+
+        ArgumentCaptor<Map<String, Long>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(clickCountRepository).incrementClickCounts(captor.capture());
+        assertEquals(Map.of("abc", 2L, "xyz", 1L), captor.getValue());
+        assertEquals(0, clickCounter.pending("abc"));
+        verify(urlStatsCache).evictAll(Set.of("abc", "xyz"));
+    }
+
+    @Test
+    void testFlushSkipsWhenIdle() {
+        clickCounter.flush();
+
+        verify(clickCountRepository, never()).incrementClickCounts(anyMap());
+    }
+
+    @Test
+    void testFailedFlushIsRetained() {
+        when(clickCountRepository.incrementClickCounts(anyMap())).thenThrow(new RuntimeException("db down"));
+        clickCounter.increment("abc");
+
+        clickCounter.flush();
+
+        assertEquals(1, clickCounter.pending("abc"));
+        verifyNoInteractions(urlStatsCache);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testConcurrentIncrementsAreNotLost() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    clickCounter.increment("hot");
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        clickCounter.flush();
+
+        ArgumentCaptor<Map<String, Long>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(clickCountRepository).incrementClickCounts(captor.capture());
+        assertEquals(80_000L, captor.getValue().get("hot"));
+    }
+}
@@ -0,0 +1,122 @@
+package com.urlshortener.cache;
+
+import com.urlshortener.repository.CachedLinkView;
+import com.urlshortener.repository.UrlRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CacheWarmerTest {
+
+    private CacheWarmupConfig config;
+    private UrlRepository urlRepository;
+    private UrlCacheStore urlCacheStore;
+    private LocalUrlCache localUrlCache;
+    private HotKeyTracker hotKeyTracker;
+    private ClickRanking clickRanking;
+    private CacheWarmer cacheWarmer;
+
+    @BeforeEach
+    void setUp() {
+        config = new CacheWarmupConfig();
+        config.setMaxRowsPerSecond(1_000_000);
+        urlRepository = mock(UrlRepository.class);
+        urlCacheStore = mock(UrlCacheStore.class);
+        localUrlCache = mock(LocalUrlCache.class);
+        hotKeyTracker = mock(HotKeyTracker.class);
+        clickRanking = mock(ClickRanking.class);
+        cacheWarmer = new CacheWarmer(config, urlRepository, urlCacheStore, new UrlCacheConfig(),
+                localUrlCache, hotKeyTracker, clickRanking);
+    }
+
+    @Test
+    void testOutOfServiceUntilWarm() {
+        assertEquals(Status.OUT_OF_SERVICE, cacheWarmer.health().getStatus());
+
+        cacheWarmer.warm();
+
+        Health health = cacheWarmer.health();
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals("completed", health.getDetails().get("outcome"));
+    }
+
+    @Test
+    void testDisabledIsReadyImmediately() {
+        config.setEnabled(false);
+
+        cacheWarmer.start();
+
+        assertEquals(Status.UP, cacheWarmer.health().getStatus());
+        verifyNoInteractions(urlRepository);
+    }
+
+    @Test
+    void testPeerHotKeysServedFromRedisBeforeDatabase() {
+        CachedUrl cached = CachedUrl.of("https://example.com/hot", CachedUrl.NEVER, Duration.ofHours(1), 2);
+        when(hotKeyTracker.peerHotKeys(1000)).thenReturn(List.of("hot", "cold"));
+        when(urlCacheStore.get("hot")).thenReturn(cached);
+        when(urlRepository.findLinksByShortCodeIn(List.of("cold")))
+                .thenReturn(List.of(link(7L, "cold", null)));
+
+        cacheWarmer.warm();
+
+        verify(localUrlCache).putUntil("hot", "https://example.com/hot", CachedUrl.NEVER);
+        verify(localUrlCache).putUntil("cold", "https://example.com/cold", CachedUrl.NEVER);
+        verify(urlCacheStore).putAll(argThat(entries -> entries.keySet().equals(Set.of("cold"))));
+        assertEquals(2L, cacheWarmer.health().getDetails().get("linksWarmed"));
+    }
+
+    @Test
+    void testPagesRecentLinksNewestFirst() {
+        config.setPeerHotKeys(0);
+        config.setMostClicked(0);
+        config.setPageSize(2);
+        config.setRecentlyCreated(5);
+        when(urlRepository.findLinksBefore(Long.MAX_VALUE, PageRequest.of(0, 2)))
+                .thenReturn(List.of(link(9L, "a", null), link(8L, "b", null)));
+        when(urlRepository.findLinksBefore(8L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(link(6L, "c", null)));
+
+        cacheWarmer.warm();
+
+        verify(urlRepository, times(2)).findLinksBefore(anyLong(), any());
+        assertEquals(3L, cacheWarmer.health().getDetails().get("rowsRead"));
+    }
+
+    @Test
+    void testSkipsExpiredLinks() {
+        config.setPeerHotKeys(0);
+        config.setRecentlyCreated(0);
+        when(clickRanking.top(1000)).thenReturn(List.of("old", "live"));
+        when(urlRepository.findLinksByShortCodeIn(any())).thenReturn(List.of(
+                link(1L, "old", LocalDateTime.now().minusDays(1)),
+                link(2L, "live", LocalDateTime.now().plusDays(1))));
+
+        cacheWarmer.warm();
+
+        verify(localUrlCache, never()).putUntil(eq("old"), any(), anyLong());
+        verify(localUrlCache).putUntil(eq("live"), eq("https://example.com/live"), anyLong());
+        verify(urlCacheStore).putAll(argThat((Map<String, CachedUrl> entries) ->
+                entries.keySet().equals(Set.of("live"))));
+    }
+
+    private static CachedLinkView link(Long id, String shortCode, LocalDateTime expiryDate) {
+        return new Link(id, shortCode, "https://example.com/" + shortCode, expiryDate);
+    }
+
+    private record Link(Long getId, String getShortCode, String getOriginalUrl, LocalDateTime getExpiryDate)
+            implements CachedLinkView {
+    }
+}
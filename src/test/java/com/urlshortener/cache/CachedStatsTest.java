@@ -0,0 +1,35 @@
+package com.urlshortener.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedStatsTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        CachedStats stats = new CachedStats(42L, 1_337L, LocalDateTime.of(2026, 2, 22, 10, 30),
+                LocalDateTime.of(2026, 12, 31, 23, 59, 59), "https://example.com/a|b?c=1");
+
+        assertEquals(stats, CachedStats.decode(stats.encode()));
+    }
+
+    @Test
+    void testNoExpiryRoundTrip() {
+        CachedStats stats = new CachedStats(1L, 0L, LocalDateTime.of(2026, 2, 22, 10, 30, 0, 123_000_000),
+                null, "https://example.com");
+
+        assertEquals(stats, CachedStats.decode(stats.encode()));
+    }
+
+    @Test
+    void testMalformedValueDecodesAsMiss() {
+        assertNull(CachedStats.decode(null));
+        assertNull(CachedStats.decode(""));
+        assertNull(CachedStats.decode("42|7|2026-02-22T10:30"));
+        assertNull(CachedStats.decode("42|x|2026-02-22T10:30||https://example.com"));
+        assertNull(CachedStats.decode("42|7|yesterday||https://example.com"));
+    }
+}
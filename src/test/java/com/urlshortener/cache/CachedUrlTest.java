@@ -0,0 +1,62 @@
+package com.urlshortener.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedUrlTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        CachedUrl entry = new CachedUrl("https://example.com/a|b?c=1", 1_700_086_400_000L, 1_700_000_000_000L, 3_600_000L, 12L);
+
+        CachedUrl decoded = CachedUrl.decode(entry.encode());
+
+        assertEquals(entry, decoded);
+    }
+
+    @Test
+    void testLegacyValueDecodesAsStale() {
+        CachedUrl decoded = CachedUrl.decode("https://example.com");
+
+        assertEquals("https://example.com", decoded.originalUrl());
+        assertTrue(decoded.isStale(System.currentTimeMillis()));
+    }
+
+    @Test
+    void testMalformedValueDecodesAsMiss() {
+        assertNull(CachedUrl.decode(null));
+        assertNull(CachedUrl.decode(""));
+        assertNull(CachedUrl.decode("~123|456"));
+        assertNull(CachedUrl.decode("~abc|456|1|0|https://example.com"));
+        // Entry without the link expiry field
+        assertNull(CachedUrl.decode("~123|456|1|https://example.com"));
+    }
+
+    @Test
+    void testLinkExpiry() {
+        CachedUrl expiring = CachedUrl.of("https://example.com", 1_000L, Duration.ofMinutes(10), 1);
+        CachedUrl permanent = CachedUrl.of("https://example.com", CachedUrl.NEVER, Duration.ofMinutes(10), 1);
+
+        assertFalse(expiring.isLinkExpired(999L));
+        assertTrue(expiring.isLinkExpired(1_000L));
+        assertFalse(permanent.isLinkExpired(Long.MAX_VALUE));
+        assertFalse(CachedUrl.decode("https://example.com").isLinkExpired(System.currentTimeMillis()));
+    }
+
+    @Test
+    void testEarlyRefreshOnlyNearExpiry() {
+        CachedUrl entry = CachedUrl.of("https://example.com", CachedUrl.NEVER, Duration.ofMinutes(10), 100);
+        long now = entry.writtenAt();
+
+        // -100ms * ln(0.5) ~ 69ms, far short of the 10 minute TTL
+        assertFalse(entry.shouldRefreshEarly(now, 1.0, 0.5));
+        // 50ms before expiry the same sample refreshes
+        assertTrue(entry.shouldRefreshEarly(entry.expiresAt() - 50, 1.0, 0.5));
+        // beta 0 never refreshes early
+        assertFalse(entry.shouldRefreshEarly(entry.expiresAt() - 1, 0.0, 1e-9));
+        assertTrue(entry.isStale(entry.expiresAt()));
+    }
+}
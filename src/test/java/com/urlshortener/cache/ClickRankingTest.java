@@ -0,0 +1,81 @@
+package com.urlshortener.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ClickRankingTest {
+
+    private CacheWarmupConfig config;
+    private RedisTemplate<String, String> redisTemplate;
+    private ClickRanking clickRanking;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        config = new CacheWarmupConfig();
+        config.setMostClickedTracked(100);
+        redisTemplate = mock(RedisTemplate.class);
+        clickRanking = new ClickRanking(redisTemplate, config);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRecordIncrementsAndTrimsInOnePipeline() {
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisZSetCommands zSetCommands = mock(RedisZSetCommands.class);
+        when(connection.zSetCommands()).thenReturn(zSetCommands);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connection);
+            return List.of();
+        });
+
+        clickRanking.record(Map.of("abc", 3L));
+
+        byte[] key = "clicks:ranking".getBytes(StandardCharsets.UTF_8);
+        verify(zSetCommands).zIncrBy(key, 3L, "abc".getBytes(StandardCharsets.UTF_8));
+        verify(zSetCommands).zRemRange(key, 0, -101);
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRecordFailureIsSwallowed() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenThrow(new RuntimeException("down"));
+
+        assertDoesNotThrow(() -> clickRanking.record(Map.of("abc", 1L)));
+    }
+
+    @Test
+    void testDisabledRecordsNothing() {
+        config.setMostClicked(0);
+
+        clickRanking.record(Map.of("abc", 1L));
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testTopReadsHighestScoresFirst() {
+        ZSetOperations<String, String> zSetOperations = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.reverseRange("clicks:ranking", 0, 1))
+                .thenReturn(new LinkedHashSet<>(List.of("hot", "warm")));
+
+        assertEquals(List.of("hot", "warm"), clickRanking.top(2));
+    }
+}
@@ -0,0 +1,44 @@
+package com.urlshortener.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactValueCodecTest {
+
+    private static final String LONG_ENTRY = "~1760000000000|86400000|4|0|https://www.example.com/blog/2026/10/"
+            + "how-we-cut-redis-memory?utm_source=newsletter&utm_medium=email&utm_campaign=october-digest";
+
+    @Test
+    void testShortValuesStoredPlain() {
+        byte[] encoded = CompactValueCodec.encode("~1|2|3|0|https://a.io", 96);
+
+        assertEquals("~1|2|3|0|https://a.io", new String(encoded, StandardCharsets.UTF_8));
+        assertEquals("~1|2|3|0|https://a.io", CompactValueCodec.decode(encoded));
+    }
+
+    @Test
+    void testLongValuesCompressedAndRestored() {
+        byte[] encoded = CompactValueCodec.encode(LONG_ENTRY, 96);
+
+        assertTrue(encoded.length < LONG_ENTRY.length() * 3 / 4,
+                "Expected at least 25% smaller, got " + encoded.length + " of " + LONG_ENTRY.length());
+        assertEquals(LONG_ENTRY, CompactValueCodec.decode(encoded));
+    }
+
+    @Test
+    void testCompressionDisabled() {
+        byte[] encoded = CompactValueCodec.encode(LONG_ENTRY, 0);
+
+        assertEquals(LONG_ENTRY.length(), encoded.length);
+        assertEquals(LONG_ENTRY, CompactValueCodec.decode(encoded));
+    }
+
+    @Test
+    void testCorruptValueDecodesAsNull() {
+        assertNull(CompactValueCodec.decode(null));
+        assertNull(CompactValueCodec.decode(new byte[]{0x01, (byte) 0xFF, (byte) 0xFF, 0x00}));
+    }
+}
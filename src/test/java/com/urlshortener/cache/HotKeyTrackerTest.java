@@ -0,0 +1,118 @@
+package com.urlshortener.cache;
+
+import com.urlshortener.monitoring.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class HotKeyTrackerTest {
+
+    private HotKeyConfig config;
+    private LocalUrlCache localUrlCache;
+    private RedisTemplate<String, String> redisTemplate;
+    private ZSetOperations<String, String> zSetOperations;
+    private HotKeyTracker tracker;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        config = new HotKeyConfig();
+        config.setTopK(3);
+        config.setDecayInterval(1_000);
+        config.setMinTrackedRate(5);
+        config.setPinRate(100);
+        localUrlCache = mock(LocalUrlCache.class);
+        redisTemplate = mock(RedisTemplate.class);
+        zSetOperations = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        tracker = new HotKeyTracker(config, localUrlCache, redisTemplate,
+                new MetricsService(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void testRanksTopKeysWithRates() {
+        // One 1s window: 400, 300, 200 and 100 requests plus a long tail of single hits
+        record("a", 400);
+        record("b", 300);
+        record("c", 200);
+        record("d", 100);
+        for (int i = 0; i < 1_000; i++) {
+            tracker.record("tail" + i);
+        }
+
+        tracker.decay();
+
+        List<HotKeyTracker.HotKey> top = tracker.topKeys();
+        assertEquals(List.of("a", "b", "c"), top.stream().map(HotKeyTracker.HotKey::shortCode).toList());
+        // Read just before the halving, a count of 2rT over T = 1s reports r = count / 2
+        assertEquals(200.0, top.get(0).ratePerSecond(), 5.0);
+    }
+
+    @Test
+    void testPinsHotKeysAndUnpinsWhenTheyCoolDown() {
+        record("viral", 500);
+        record("warm", 50);
+
+        tracker.decay();
+
+        assertTrue(tracker.isPinned("viral"));
+        assertFalse(tracker.isPinned("warm"));
+        verify(localUrlCache).pin("viral");
+        verify(localUrlCache, never()).pin("warm");
+
+        // No more traffic: the count halves each tick until it drops below the pin rate
+        for (int i = 0; i < 5; i++) {
+            tracker.decay();
+        }
+
+        assertFalse(tracker.isPinned("viral"));
+        verify(localUrlCache).unpin("viral");
+    }
+
+    @Test
+    void testSharesTopKeysWithPeers() {
+        record("viral", 500);
+
+        tracker.decay();
+
+        verify(zSetOperations).incrementScore(startsWith("hot-keys:"), eq("viral"), doubleThat(rate -> rate > 200));
+        verify(redisTemplate).expire(startsWith("hot-keys:"), eq(Duration.ofSeconds(3)));
+    }
+
+    @Test
+    void testReadsPeerHotKeysFromLastWindow() {
+        config.setDecayInterval(3_600_000);
+        long lastWindow = System.currentTimeMillis() / 3_600_000 - 1;
+        when(zSetOperations.reverseRange("hot-keys:" + lastWindow, 0, 9))
+                .thenReturn(new LinkedHashSet<>(List.of("a", "b")));
+
+        assertEquals(List.of("a", "b"), tracker.peerHotKeys(10));
+    }
+
+    @Test
+    void testDisabled() {
+        config.setEnabled(false);
+        record("viral", 500);
+
+        tracker.decay();
+
+        assertTrue(tracker.topKeys().isEmpty());
+        verifyNoInteractions(localUrlCache);
+    }
+
+    private void record(String code, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.record(code);
+        }
+    }
+}
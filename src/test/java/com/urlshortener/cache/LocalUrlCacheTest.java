@@ -0,0 +1,105 @@
+package com.urlshortener.cache;
+
+import com.urlshortener.monitoring.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalUrlCacheTest {
+
+    private LocalCacheConfig config;
+    private LocalUrlCache cache;
+
+    @BeforeEach
+    void setUp() {
+        config = new LocalCacheConfig();
+        cache = new LocalUrlCache(config, new MetricsService(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void testPutAndGet() {
+        cache.put("abc123", "https://example.com");
+
+        assertEquals("https://example.com", cache.get("abc123"));
+        assertNull(cache.get("missing"));
+        assertEquals(1L, cache.stats().get("hitCount"));
+        assertEquals(1L, cache.stats().get("missCount"));
+    }
+
+    @Test
+    void testInvalidate() {
+        cache.put("abc123", "https://example.com");
+        cache.invalidate("abc123");
+
+        assertNull(cache.get("abc123"));
+    }
+
+    @Test
+    void testNonPositiveTtlIsNotCached() {
+        cache.put("abc123", "https://example.com", Duration.ZERO);
+
+        assertNull(cache.get("abc123"));
+    }
+
+    @Test
+    void testPutUntilLinkExpiry() {
+        cache.putUntil("live", "https://example.com", System.currentTimeMillis() + 60_000);
+        cache.putUntil("expired", "https://example.com", System.currentTimeMillis() - 1);
+        cache.putUntil("permanent", "https://example.com", CachedUrl.NEVER);
+
+        assertEquals("https://example.com", cache.get("live"));
+        assertNull(cache.get("expired"));
+        assertEquals("https://example.com", cache.get("permanent"));
+    }
+
+    @Test
+    void testPinnedEntriesSurviveSizeEviction() {
+        cache.put("viral", "https://example.com/viral");
+        cache.pin("viral");
+        // Room for a handful of entries only
+        cache.resize(1024);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("code" + i, "https://example.com/" + i);
+            cache.get("code" + i);
+        }
+
+        assertEquals("https://example.com/viral", cache.get("viral"));
+        assertEquals(1, cache.stats().get("pinned"));
+    }
+
+    @Test
+    void testPinnedEntriesCachedWhenDisabled() {
+        config.setEnabled(false);
+        cache.pin("viral");
+        cache.put("viral", "https://example.com/viral");
+        cache.put("other", "https://example.com/other");
+
+        assertEquals("https://example.com/viral", cache.get("viral"));
+        assertNull(cache.get("other"));
+
+        cache.unpin("viral");
+        assertNull(cache.get("viral"));
+    }
+
+    @Test
+    void testResize() {
+        cache.resize(1024);
+
+        assertEquals(1024L, cache.stats().get("maximumWeight"));
+        assertEquals(1024L, config.getMaximumWeight());
+        assertThrows(IllegalArgumentException.class, () -> cache.resize(-1));
+    }
+
+    @Test
+    void testDisabled() {
+        config.setEnabled(false);
+        cache.put("abc123", "https://example.com");
+
+        assertNull(cache.get("abc123"));
+    }
+}
@@ -0,0 +1,112 @@
+package com.urlshortener.cache;
+
+import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.repository.ShortCodeView;
+import com.urlshortener.repository.UrlRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ShortCodeFilterTest {
+
+    // The urls table: id -> short code
+    private final ConcurrentSkipListMap<Long, String> rows = new ConcurrentSkipListMap<>();
+    private SimpleMeterRegistry meterRegistry;
+    private ShortCodeFilter filter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        UrlRepository urlRepository = mock(UrlRepository.class);
+        when(urlRepository.count()).thenAnswer(invocation -> (long) rows.size());
+        when(urlRepository.findShortCodesAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            Pageable page = invocation.getArgument(1);
+            return rows.tailMap(afterId, false).entrySet().stream()
+                    .limit(page.getPageSize())
+                    .map(row -> view(row.getKey(), row.getValue()))
+                    .toList();
+        });
+
+        ShortCodeFilterConfig config = new ShortCodeFilterConfig();
+        config.setExpectedInsertions(1_000);
+        config.setRebuildPageSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ShortCodeFilter(urlRepository, config, new MetricsService(meterRegistry),
+                mock(RedisTemplate.class), mock(RedisMessageListenerContainer.class));
+
+        rows.put(1L, "a");
+        rows.put(2L, "b");
+        rows.put(3L, "c");
+        filter.rebuild();
+    }
+
+    @Test
+    void testCatchUpAddsRowsWhosePeerUpdateWasLost() {
+        rows.put(10L, "peer");
+        assertFalse(filter.mightContain("peer"));
+
+        filter.catchUp();
+
+        assertTrue(filter.mightContain("peer"));
+        assertEquals(1.0, meterRegistry.get("short.code.filter.caught.up.total").counter().count());
+    }
+
+    @Test
+    void testCatchUpSeesAnInsertThatCommitsOneIntervalLate() {
+        rows.put(10L, "fast");
+        filter.catchUp();
+
+        // Id 7 was assigned before 10 but committed after the previous catch-up read past it
+        rows.put(7L, "slow");
+        filter.catchUp();
+
+        assertTrue(filter.mightContain("slow"));
+    }
+
+    @Test
+    void testCatchUpDoesNotCountCodesAlreadyAnnounced() {
+        filter.onMessage(new DefaultMessage(
+                "short-code-created".getBytes(), "announced".getBytes()), null);
+        rows.put(10L, "announced");
+
+        filter.catchUp();
+
+        assertEquals(0.0, meterRegistry.get("short.code.filter.caught.up.total").counter().count());
+    }
+
+    @Test
+    void testRebuildKeepsPendingCodes() {
+        filter.registerPendingCodes(() -> Set.of("pending"));
+
+        filter.rebuild();
+
+        assertTrue(filter.mightContain("a"));
+        assertTrue(filter.mightContain("pending"));
+    }
+
+    private static ShortCodeView view(long id, String shortCode) {
+        return new ShortCodeView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getShortCode() {
+                return shortCode;
+            }
+        };
+    }
+}
@@ -0,0 +1,89 @@
+package com.urlshortener.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UrlCacheMigrationTest {
+
+    private RedisTemplate<String, String> redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private UrlCacheStore urlCacheStore;
+    private UrlCacheConfig config;
+    private UrlCacheMigration migration;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        urlCacheStore = mock(UrlCacheStore.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        config = new UrlCacheConfig();
+        config.setLayout(UrlCacheConfig.Layout.BUCKETED);
+        migration = new UrlCacheMigration(redisTemplate, urlCacheStore, config);
+    }
+
+    @Test
+    void testMovesKeysIntoBuckets() {
+        CachedUrl entry = CachedUrl.of("https://example.com/a", CachedUrl.NEVER, Duration.ofHours(1), 2);
+        scanReturns("url:a1", "url:b:17", "url:legacy");
+        when(valueOperations.multiGet(List.of("url:a1", "url:legacy")))
+                .thenReturn(Arrays.asList(entry.encode(), "https://example.com/legacy"));
+
+        migration.run();
+
+        verify(urlCacheStore).putAll(Map.of("a1", entry));
+        verify(redisTemplate).delete(List.of("url:a1", "url:legacy"));
+        Map<String, Object> status = migration.status();
+        assertEquals(2L, status.get("scanned"));
+        assertEquals(1L, status.get("migrated"));
+        assertEquals(1L, status.get("dropped"));
+    }
+
+    @Test
+    void testBatchesByConfiguredSize() {
+        config.setMigrationBatchSize(2);
+        scanReturns("url:a", "url:b", "url:c");
+        when(valueOperations.multiGet(anyList())).thenAnswer(invocation ->
+                Arrays.asList(new String[invocation.<List<String>>getArgument(0).size()]));
+
+        migration.run();
+
+        verify(valueOperations).multiGet(List.of("url:a", "url:b"));
+        verify(valueOperations).multiGet(List.of("url:c"));
+        verify(urlCacheStore, never()).putAll(any());
+        assertEquals(3L, migration.status().get("dropped"));
+    }
+
+    @Test
+    void testRefusesToStartInKeysLayout() {
+        config.setLayout(UrlCacheConfig.Layout.KEYS);
+
+        assertThrows(IllegalStateException.class, migration::start);
+        verify(redisTemplate, never()).scan(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void scanReturns(String... keys) {
+        Iterator<String> iterator = List.of(keys).iterator();
+        Cursor<String> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+    }
+}
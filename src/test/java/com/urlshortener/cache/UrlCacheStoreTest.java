@@ -0,0 +1,249 @@
+package com.urlshortener.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisHashCommands;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UrlCacheStoreTest {
+
+    private RedisTemplate<String, String> redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private RedisKeyCommands keyCommands;
+    private RedisStringCommands stringCommands;
+    private RedisHashCommands hashCommands;
+    private UrlCacheConfig config;
+    private UrlCacheStore store;
+
+    // bucket key + " " + field -> value
+    private final Map<String, byte[]> hashes = new HashMap<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        RedisConnection connection = mock(RedisConnection.class);
+        hashCommands = mock(RedisHashCommands.class);
+        keyCommands = mock(RedisKeyCommands.class);
+        stringCommands = mock(RedisStringCommands.class);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        when(connection.hashCommands()).thenReturn(hashCommands);
+        when(connection.keyCommands()).thenReturn(keyCommands);
+        when(hashCommands.hSet(any(), any(), any())).thenAnswer(invocation ->
+                hashes.put(field(invocation.getArgument(0), invocation.getArgument(1)), invocation.getArgument(2)) == null);
+        when(hashCommands.hGet(any(), any())).thenAnswer(invocation ->
+                hashes.get(field(invocation.getArgument(0), invocation.getArgument(1))));
+        when(hashCommands.hDel(any(), any(byte[][].class))).thenAnswer(invocation -> {
+            long removed = 0;
+            for (int i = 1; i < invocation.getArguments().length; i++) {
+                removed += hashes.remove(field(invocation.getArgument(0), invocation.getArgument(i))) != null ? 1 : 0;
+            }
+            return removed;
+        });
+
+        when(redisTemplate.execute(any(RedisCallback.class))).thenAnswer(invocation ->
+                invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection));
+        when(redisTemplate.execute(any(RedisCallback.class), anyBoolean(), anyBoolean())).thenAnswer(invocation ->
+                invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection));
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection);
+            return null;
+        });
+
+        config = new UrlCacheConfig();
+        store = new UrlCacheStore(redisTemplate, config);
+    }
+
+    @Test
+    void testKeysLayoutUsesStringKeys() {
+        CachedUrl entry = CachedUrl.of("https://example.com", CachedUrl.NEVER, Duration.ofHours(1), 3);
+        when(valueOperations.get("url:abc123")).thenReturn(entry.encode());
+
+        store.put("abc123", entry, 5_000L);
+        CachedUrl read = store.get("abc123");
+        store.delete("abc123");
+
+        assertEquals(entry, read);
+        verify(valueOperations).set("url:abc123", entry.encode(), 5_000L, TimeUnit.MILLISECONDS);
+        verify(redisTemplate).delete("url:abc123");
+        assertTrue(hashes.isEmpty());
+    }
+
+    @Test
+    void testBucketedRoundTrip() {
+        config.setLayout(UrlCacheConfig.Layout.BUCKETED);
+        String longUrl = "https://www.example.com/products/12345?utm_source=newsletter&utm_medium=email"
+                + "&utm_campaign=spring-sale";
+        CachedUrl entry = CachedUrl.of(longUrl, CachedUrl.NEVER, Duration.ofHours(1), 3);
+
+        store.put("abc123", entry, 5_000L);
+
+        assertEquals(entry, store.get("abc123"));
+        assertEquals(1, hashes.size());
+        assertTrue(hashes.keySet().iterator().next().startsWith("url:b:" + store.bucketOf("abc123") + " "));
+        verify(keyCommands).pExpire(any(), eq(Duration.ofHours(25).toMillis()));
+        verifyNoInteractions(valueOperations);
+
+        store.delete("abc123");
+        assertNull(store.get("abc123"));
+    }
+
+    @Test
+    void testBucketedDropsEntriesPastStaleWindow() {
+        config.setLayout(UrlCacheConfig.Layout.BUCKETED);
+        long twoHoursAgo = System.currentTimeMillis() - Duration.ofHours(2).toMillis();
+        CachedUrl stale = new CachedUrl("https://example.com", CachedUrl.NEVER, twoHoursAgo - 1,
+                Duration.ofMinutes(30).toMillis(), 1);
+        CachedUrl expiredLink = CachedUrl.of("https://example.com", System.currentTimeMillis() - 1,
+                Duration.ofHours(1), 1);
+
+        store.put("stale", stale, 0L);
+        store.put("campaign", expiredLink, 0L);
+
+        assertNull(store.get("stale"));
+        assertNull(store.get("campaign"));
+        assertTrue(hashes.isEmpty());
+    }
+
+    @Test
+    void testBucketsSpreadEvenly() {
+        config.setBucketCount(64);
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 64_000; i++) {
+            counts.merge(store.bucketOf(Long.toString(100_000 + i, 36)), 1, Integer::sum);
+        }
+
+        assertEquals(64, counts.size());
+        counts.values().forEach(count -> assertTrue(count > 800 && count < 1200, "Uneven bucket: " + count));
+    }
+
+    @Test
+    void testPutAllBucketed() {
+        config.setLayout(UrlCacheConfig.Layout.BUCKETED);
+        Set<String> codes = new HashSet<>(Set.of("a1", "b2", "c3"));
+        Map<String, CachedUrl> entries = new HashMap<>();
+        codes.forEach(code -> entries.put(code,
+                CachedUrl.of("https://example.com/" + code, CachedUrl.NEVER, Duration.ofHours(1), 1)));
+
+        store.putAll(entries);
+
+        codes.forEach(code -> assertEquals("https://example.com/" + code, store.get(code).originalUrl()));
+    }
+
+    @Test
+    void testPutAllKeysSkipsExpiredLinks() {
+        Map<String, CachedUrl> entries = new HashMap<>();
+        entries.put("live", CachedUrl.of("https://example.com/live", CachedUrl.NEVER, Duration.ofHours(1), 1));
+        entries.put("gone", CachedUrl.of("https://example.com/gone", System.currentTimeMillis() - 1,
+                Duration.ofHours(1), 1));
+
+        store.putAll(entries);
+
+        verify(stringCommands).pSetEx(eq("url:live".getBytes(StandardCharsets.UTF_8)),
+                longThat(ttl -> ttl > Duration.ofMinutes(119).toMillis()), any());
+        verify(stringCommands, never()).pSetEx(eq("url:gone".getBytes(StandardCharsets.UTF_8)), anyLong(), any());
+    }
+
+    @Test
+    void testGetAllKeysIsOneMget() {
+        CachedUrl entry = CachedUrl.of("https://example.com/a", CachedUrl.NEVER, Duration.ofHours(1), 1);
+        when(valueOperations.multiGet(List.of("url:a", "url:b", "url:c")))
+                .thenReturn(Arrays.asList(entry.encode(), null, "~garbage"));
+
+        Map<String, CachedUrl> found = store.getAll(List.of("a", "b", "c"));
+
+        assertEquals(Map.of("a", entry), found);
+        verify(valueOperations, never()).get(anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetAllBucketedIsOnePipeline() {
+        config.setLayout(UrlCacheConfig.Layout.BUCKETED);
+        CachedUrl live = CachedUrl.of("https://example.com/live", CachedUrl.NEVER, Duration.ofHours(1), 1);
+        CachedUrl expiredLink = CachedUrl.of("https://example.com/gone", System.currentTimeMillis() - 1,
+                Duration.ofHours(1), 1);
+        store.put("live", live, 0L);
+        store.put("gone", expiredLink, 0L);
+
+        // Commands inside a pipeline return null; their replies come back from executePipelined
+        when(redisTemplate.executePipelined(any(RedisCallback.class), any())).thenAnswer(invocation -> {
+            List<Object> replies = new ArrayList<>();
+            RedisConnection pipeline = mock(RedisConnection.class);
+            RedisHashCommands pipelineHashCommands = mock(RedisHashCommands.class);
+            when(pipeline.hashCommands()).thenReturn(pipelineHashCommands);
+            when(pipelineHashCommands.hGet(any(), any())).thenAnswer(get -> {
+                replies.add(hashes.get(field(get.getArgument(0), get.getArgument(1))));
+                return null;
+            });
+            invocation.<RedisCallback<?>>getArgument(0).doInRedis(pipeline);
+            return replies;
+        });
+
+        Map<String, CachedUrl> found = store.getAll(List.of("live", "gone", "missing"));
+
+        assertEquals(Map.of("live", live), found);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSweepRemovesDeadFieldsNobodyReads() {
+        config.setLayout(UrlCacheConfig.Layout.BUCKETED);
+        config.setBucketCount(1);
+        long twoHoursAgo = System.currentTimeMillis() - Duration.ofHours(2).toMillis();
+        CachedUrl live = CachedUrl.of("https://example.com/live", CachedUrl.NEVER, Duration.ofHours(1), 1);
+        store.put("live", live, 0L);
+        store.put("stale", new CachedUrl("https://example.com/stale", CachedUrl.NEVER, twoHoursAgo - 1,
+                Duration.ofMinutes(30).toMillis(), 1), 0L);
+        store.put("gone", CachedUrl.of("https://example.com/gone", System.currentTimeMillis() - 1,
+                Duration.ofHours(1), 1), 0L);
+
+        when(hashCommands.hScan(any(), any())).thenAnswer(invocation -> {
+            String bucket = new String(invocation.<byte[]>getArgument(0), StandardCharsets.UTF_8) + " ";
+            Iterator<Map.Entry<byte[], byte[]>> fields = hashes.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(bucket))
+                    .map(entry -> Map.entry(entry.getKey().substring(bucket.length()).getBytes(StandardCharsets.UTF_8),
+                            entry.getValue()))
+                    .toList()
+                    .iterator();
+            Cursor<Map.Entry<byte[], byte[]>> cursor = mock(Cursor.class);
+            when(cursor.hasNext()).thenAnswer(next -> fields.hasNext());
+            when(cursor.next()).thenAnswer(next -> fields.next());
+            return cursor;
+        });
+
+        assertEquals(2L, store.sweep(0));
+
+        assertEquals(Set.of("url:b:0 live"), hashes.keySet());
+        assertEquals(0L, store.sweep(0));
+    }
+
+    private static String field(byte[] key, byte[] field) {
+        return new String(key, StandardCharsets.UTF_8) + " " + new String(field, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,70 @@
+package com.urlshortener.config;
+
+import com.urlshortener.analytics.AnalyticsBatchConfig;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.util.backoff.BackOffExecution;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+class KafkaConfigTest {
+
+    @Test
+    void testRetryBackOffNeverGivesUp() {
+        AnalyticsBatchConfig config = new AnalyticsBatchConfig();
+        BackOffExecution execution = KafkaConfig.analyticsRetryBackOff(config).start();
+
+        long interval = 0;
+        for (int i = 0; i < 10_000; i++) {
+            interval = execution.nextBackOff();
+            assertNotEquals(BackOffExecution.STOP, interval);
+        }
+        assertEquals(30_000L, interval);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFailedBatchIsRedeliveredPastTheOldRetryLimit() {
+        AnalyticsBatchConfig config = new AnalyticsBatchConfig();
+        config.setRetryInitialInterval(Duration.ofMillis(1));
+        config.setRetryMaxInterval(Duration.ofMillis(2));
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(KafkaConfig.analyticsRetryBackOff(config));
+
+        TopicPartition partition = new TopicPartition("click-events", 0);
+        ConsumerRecords<String, String> records = new ConsumerRecords<>(
+                Map.of(partition, List.of(new ConsumerRecord<>("click-events", 0, 0L, "abc", "event"))));
+        Consumer<String, String> consumer = mock(Consumer.class);
+        when(consumer.poll(any(Duration.class))).thenReturn(ConsumerRecords.empty());
+        when(consumer.assignment()).thenReturn(Set.of(partition));
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        when(container.isRunning()).thenReturn(true);
+        when(container.getContainerProperties()).thenReturn(new ContainerProperties("click-events"));
+
+        // The database stays down for far longer than the ten attempts the handler used to allow
+        AtomicInteger attempts = new AtomicInteger();
+        errorHandler.handleBatch(new RuntimeException("db down"), records, consumer, container, () -> {
+            if (attempts.incrementAndGet() < 50) {
+                throw new RuntimeException("db down");
+            }
+        });
+
+        assertEquals(50, attempts.get());
+        verify(consumer, never()).commitSync(anyMap());
+        verify(consumer, never()).commitSync(anyMap(), any(Duration.class));
+    }
+}
@@ -1,25 +1,48 @@
 package com.urlshortener.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.urlshortener.config.WebConfig;
+import com.urlshortener.dto.BatchCreateUrlRequest;
+import com.urlshortener.dto.BatchCreateUrlResponse;
+import com.urlshortener.dto.BatchCreateUrlResult;
+import com.urlshortener.dto.BulkResolveResponse;
 import com.urlshortener.dto.CreateUrlRequest;
 import com.urlshortener.dto.UrlResponse;
+import com.urlshortener.exception.InvalidBulkLookupException;
+import com.urlshortener.exception.WriteBehindBacklogException;
+import com.urlshortener.ratelimit.ConcurrencyLimitInterceptor;
+import com.urlshortener.ratelimit.RateLimitInterceptor;
+import com.urlshortener.service.UrlBatchService;
+import com.urlshortener.service.UrlLookupService;
+import com.urlshortener.service.UrlWriteBehindService;
 import com.urlshortener.service.UrlService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(UrlController.class)
+@WebMvcTest(controllers = UrlController.class,
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                classes = {WebConfig.class, RateLimitInterceptor.class, ConcurrencyLimitInterceptor.class}))
+@AutoConfigureMockMvc(addFilters = false)
 class UrlControllerTest {
 
     @Autowired
@@ -31,6 +54,15 @@ class UrlControllerTest {
     @MockBean
     private UrlService urlService;
 
+    @MockBean
+    private UrlBatchService urlBatchService;
+
+    @MockBean
+    private UrlLookupService urlLookupService;
+
+    @MockBean
+    private UrlWriteBehindService urlWriteBehindService;
+
     @Test
     void testCreateShortUrl_Success() throws Exception {
         // Arrange
@@ -58,6 +90,51 @@ class UrlControllerTest {
                 .andExpect(jsonPath("$.originalUrl").value("https://example.com"));
     }
 
+    @Test
+    void testCreateShortUrl_WriteBehind() throws Exception {
+        // Arrange
+        CreateUrlRequest request = CreateUrlRequest.builder()
+                .originalUrl("https://example.com")
+                .build();
+
+        UrlResponse response = UrlResponse.builder()
+                .id(1L)
+                .originalUrl("https://example.com")
+                .shortCode("abc123")
+                .shortUrl("http://localhost:8080/abc123")
+                .clickCount(0L)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        when(urlWriteBehindService.accepts(any(CreateUrlRequest.class))).thenReturn(true);
+        when(urlWriteBehindService.createShortUrl(any(CreateUrlRequest.class))).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/urls")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.shortCode").value("abc123"));
+        verifyNoInteractions(urlService);
+    }
+
+    @Test
+    void testCreateShortUrl_WriteBehindBacklogFull() throws Exception {
+        CreateUrlRequest request = CreateUrlRequest.builder()
+                .originalUrl("https://example.com")
+                .build();
+
+        when(urlWriteBehindService.accepts(any(CreateUrlRequest.class))).thenReturn(true);
+        when(urlWriteBehindService.createShortUrl(any(CreateUrlRequest.class)))
+                .thenThrow(new WriteBehindBacklogException("Too many links waiting to be stored", Duration.ofSeconds(2)));
+
+        mockMvc.perform(post("/api/v1/urls")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+
     @Test
     void testCreateShortUrl_InvalidUrl() throws Exception {
         // Arrange
@@ -72,6 +149,45 @@ class UrlControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void testCreateShortUrls_PartialFailureIsMultiStatus() throws Exception {
+        // Arrange
+        BatchCreateUrlRequest request = BatchCreateUrlRequest.builder()
+                .urls(List.of(
+                        CreateUrlRequest.builder().originalUrl("https://example.com").build(),
+                        CreateUrlRequest.builder().originalUrl("https://example.com").customAlias("taken").build()))
+                .build();
+
+        BatchCreateUrlResponse response = BatchCreateUrlResponse.builder()
+                .created(1)
+                .failed(1)
+                .results(List.of(
+                        BatchCreateUrlResult.builder().index(0).status(201)
+                                .url(UrlResponse.builder().shortCode("abc123").build()).build(),
+                        BatchCreateUrlResult.builder().index(1).status(409)
+                                .error("CONFLICT").message("Custom alias already exists: taken").build()))
+                .build();
+
+        when(urlBatchService.createShortUrls(anyList())).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/urls/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.results[0].url.shortCode").value("abc123"))
+                .andExpect(jsonPath("$.results[1].error").value("CONFLICT"));
+    }
+
+    @Test
+    void testCreateShortUrls_EmptyBatch() throws Exception {
+        mockMvc.perform(post("/api/v1/urls/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"urls\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetUrlStats_Success() throws Exception {
         // Arrange
@@ -92,4 +208,40 @@ class UrlControllerTest {
                 .andExpect(jsonPath("$.shortCode").value("abc123"))
                 .andExpect(jsonPath("$.clickCount").value(42));
     }
+
+    @Test
+    void testResolveUrls_CommaSeparatedCodes() throws Exception {
+        // Arrange
+        BulkResolveResponse response = BulkResolveResponse.builder()
+                .urls(Map.of("abc123", "https://example.com"))
+                .notFound(List.of("zzz"))
+                .expired(List.of())
+                .build();
+
+        when(urlLookupService.resolveUrls(List.of("abc123", "zzz"))).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/urls/resolve").param("codes", "abc123,zzz"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.urls.abc123").value("https://example.com"))
+                .andExpect(jsonPath("$.notFound[0]").value("zzz"));
+    }
+
+    @Test
+    void testResolveUrls_TooManyCodes() throws Exception {
+        when(urlLookupService.resolveUrls(anyList())).thenThrow(new InvalidBulkLookupException("At most 100 short codes per request"));
+
+        mockMvc.perform(get("/api/v1/urls/resolve").param("codes", "a,b"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("BAD_REQUEST"));
+    }
+
+    @Test
+    void testResolveUrls_UnexpectedIllegalArgumentIsServerError() throws Exception {
+        when(urlLookupService.resolveUrls(anyList())).thenThrow(new IllegalArgumentException("internal detail"));
+
+        mockMvc.perform(get("/api/v1/urls/resolve").param("codes", "a,b"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("An unexpected error occurred"));
+    }
 }
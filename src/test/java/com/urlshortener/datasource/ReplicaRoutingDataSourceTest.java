@@ -0,0 +1,144 @@
+package com.urlshortener.datasource;
+
+import com.urlshortener.monitoring.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routing across two local H2 databases standing in for a primary and a replica
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingConfig config;
+    private SimpleMeterRegistry meterRegistry;
+    private MetricsService metricsService;
+    private ReplicaTarget replica;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        config = new ReplicaRoutingConfig();
+        config.setEnabled(true);
+        config.setLagQuery("SELECT 0");
+        meterRegistry = new SimpleMeterRegistry();
+        metricsService = new MetricsService(meterRegistry);
+
+        replica = new ReplicaTarget("replica-1", database("replica-1"));
+        lagMonitor = new ReplicaLagMonitor(config, List.of(replica), metricsService);
+        route(database("primary"), List.of(replica));
+    }
+
+    @Test
+    void testReadOnlyTransactionsGoToReplica() {
+        lagMonitor.check();
+
+        assertEquals("replica-1", readOnly.execute(status -> servedBy()));
+        assertEquals("primary", readWrite.execute(status -> servedBy()));
+        assertEquals(1.0, meterRegistry.get("datasource.routing.total").tag("target", "replica-1").counter().count());
+    }
+
+    @Test
+    void testReplicaUnusableUntilFirstLagCheck() {
+        assertEquals("primary", readOnly.execute(status -> servedBy()));
+        assertEquals(1.0, meterRegistry.get("datasource.replica.fallback.total")
+                .tag("reason", "no-healthy-replica").counter().count());
+    }
+
+    @Test
+    void testLaggingReplicaFallsBackToPrimary() {
+        config.setMaxLag(Duration.ofSeconds(5));
+        config.setLagQuery("SELECT 60");
+        lagMonitor.check();
+
+        assertFalse(replica.isHealthy());
+        assertEquals(60.0, meterRegistry.get("datasource.replica.lag.seconds").tag("replica", "replica-1")
+                .gauge().value());
+        assertEquals("primary", readOnly.execute(status -> servedBy()));
+
+        config.setLagQuery("SELECT 1");
+        lagMonitor.check();
+
+        assertEquals("replica-1", readOnly.execute(status -> servedBy()));
+    }
+
+    @Test
+    void testFailedLagCheckMarksReplicaUnhealthy() {
+        lagMonitor.check();
+        config.setLagQuery("SELECT no_such_column FROM node");
+
+        lagMonitor.check();
+
+        assertFalse(replica.isHealthy());
+        assertEquals("primary", readOnly.execute(status -> servedBy()));
+    }
+
+    @Test
+    void testRecentWriteIsReadFromPrimary() {
+        lagMonitor.check();
+        ReadYourWrites readYourWrites = new ReadYourWrites(config);
+        readYourWrites.written("abc");
+
+        assertEquals("primary", readOnly.execute(status -> {
+            readYourWrites.beforeRead("abc");
+            return servedBy();
+        }));
+        // Pinning ends with the transaction
+        assertEquals("replica-1", readOnly.execute(status -> {
+            readYourWrites.beforeRead("other");
+            return servedBy();
+        }));
+    }
+
+    @Test
+    void testRoundRobinAcrossHealthyReplicas() {
+        ReplicaTarget second = new ReplicaTarget("replica-2", database("replica-2"));
+        lagMonitor = new ReplicaLagMonitor(config, List.of(replica, second), metricsService);
+        route(database("primary"), List.of(replica, second));
+        lagMonitor.check();
+
+        String first = readOnly.execute(status -> servedBy());
+        String next = readOnly.execute(status -> servedBy());
+
+        assertNotEquals(first, next);
+    }
+
+    private void route(DataSource primary, List<ReplicaTarget> replicas) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replicas, metricsService));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String servedBy() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    // A separate in-memory database per call, labelled with the name it answers with
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(32))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,31 @@
+package com.urlshortener.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsServiceTest {
+
+    @Test
+    void testCachedMetersAccumulateAcrossCalls() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MetricsService metricsService = new MetricsService(meterRegistry);
+
+        for (int i = 0; i < 3; i++) {
+            metricsService.incrementConcurrencyRejected("redirect");
+            metricsService.incrementUrlResolve("id");
+            metricsService.recordBulkLookup("stats", 2, 1);
+            metricsService.recordUrlBatch(4, 1, metricsService.startTimer());
+        }
+
+        assertEquals(1, meterRegistry.find("concurrency.rejected.total").counters().size());
+        assertEquals(3.0, meterRegistry.get("concurrency.rejected.total").tag("class", "redirect").counter().count());
+        assertEquals(3.0, meterRegistry.get("url.resolve.total").tag("path", "id").counter().count());
+        assertEquals(6.0, meterRegistry.get("url.bulk.lookup.codes.total").tags("endpoint", "stats", "result", "hit")
+                .counter().count());
+        assertEquals(12.0, meterRegistry.get("url.batch.items.total").tag("result", "created").counter().count());
+        assertEquals(3L, meterRegistry.get("url.batch.latency").timer().count());
+    }
+}
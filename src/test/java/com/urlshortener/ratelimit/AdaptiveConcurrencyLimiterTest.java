@@ -0,0 +1,87 @@
+package com.urlshortener.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private ConcurrencyLimitConfig config;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        config = new ConcurrencyLimitConfig();
+        // Close a window every 10 samples, regardless of wall time
+        config.setSampleWindow(Duration.ZERO);
+        config.setMinSamples(10);
+        limiter = new AdaptiveConcurrencyLimiter(new ConcurrencyLimitConfig.ClassLimit(20, 5, 200), config);
+    }
+
+    @Test
+    void testRejectsBeyondLimit() {
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        assertEquals(20, limiter.getInFlight());
+
+        limiter.release(MILLIS, false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void testGrowsWhileLatencyIsSteady() {
+        for (int window = 0; window < 30; window++) {
+            runSaturatedWindow(MILLIS, false);
+        }
+        assertTrue(limiter.getLimit() > 40, "Limit should grow, was " + limiter.getLimit());
+    }
+
+    @Test
+    void testShrinksWhenLatencyRises() {
+        for (int window = 0; window < 30; window++) {
+            runSaturatedWindow(MILLIS, false);
+        }
+        int beforeSlowdown = limiter.getLimit();
+
+        for (int window = 0; window < 10; window++) {
+            runSaturatedWindow(20 * MILLIS, false);
+        }
+        assertTrue(limiter.getLimit() < beforeSlowdown / 2,
+                "Limit should shrink from " + beforeSlowdown + ", was " + limiter.getLimit());
+    }
+
+    @Test
+    void testBacksOffOnErrors() {
+        for (int window = 0; window < 5; window++) {
+            runSaturatedWindow(MILLIS, true);
+        }
+        assertTrue(limiter.getLimit() < 20);
+        assertTrue(limiter.getLimit() >= 5);
+    }
+
+    @Test
+    void testDoesNotGrowWithoutDemand() {
+        for (int i = 0; i < 300; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(MILLIS, false);
+        }
+        assertEquals(20, limiter.getLimit());
+    }
+
+    private void runSaturatedWindow(long latency, boolean dropped) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(latency, dropped);
+        }
+    }
+}
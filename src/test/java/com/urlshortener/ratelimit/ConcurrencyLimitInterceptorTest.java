@@ -0,0 +1,53 @@
+package com.urlshortener.ratelimit;
+
+import com.urlshortener.monitoring.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrencyLimitConfig config = new ConcurrencyLimitConfig();
+        config.setCreate(new ConcurrencyLimitConfig.ClassLimit(2, 1, 10));
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new ConcurrencyLimitInterceptor(config, new MetricsService(meterRegistry));
+    }
+
+    @Test
+    void testShedsWith503OnceClassIsFull() throws Exception {
+        MockHttpServletRequest first = new MockHttpServletRequest("POST", "/api/v1/urls");
+        MockHttpServletRequest second = new MockHttpServletRequest("POST", "/api/v1/urls");
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(second, new MockHttpServletResponse(), null));
+
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(new MockHttpServletRequest("POST", "/api/v1/urls"), shed, null));
+        assertEquals(503, shed.getStatus());
+        assertEquals("1", shed.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("concurrency.rejected.total").tag("class", "create").counter().count());
+
+        // Other classes have their own limit
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("GET", "/abc123"), new MockHttpServletResponse(), null));
+
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), null, null);
+        assertEquals(1, interceptor.limiter(EndpointClass.CREATE).getInFlight());
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("POST", "/api/v1/urls"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void testExportsLimitAndInFlight() throws Exception {
+        interceptor.preHandle(new MockHttpServletRequest("GET", "/abc123"), new MockHttpServletResponse(), null);
+
+        assertEquals(100.0, meterRegistry.get("concurrency.limit").tag("class", "redirect").gauge().value());
+        assertEquals(1.0, meterRegistry.get("concurrency.in.flight").tag("class", "redirect").gauge().value());
+    }
+}
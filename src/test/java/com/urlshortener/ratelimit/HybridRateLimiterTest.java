@@ -0,0 +1,99 @@
+package com.urlshortener.ratelimit;
+
+import com.urlshortener.monitoring.MetricsService;
+import io.github.bucket4j.distributed.BucketProxy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class HybridRateLimiterTest {
+
+    private static final Duration PERIOD = Duration.ofMinutes(1);
+
+    private BucketProxy sharedBucket;
+    private ProxyManager<String> proxyManager;
+    private HybridRateLimiter limiter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        sharedBucket = mock(BucketProxy.class);
+        RemoteBucketBuilder<String> builder = mock(RemoteBucketBuilder.class);
+        when(builder.build(anyString(), any(Supplier.class))).thenReturn(sharedBucket);
+        proxyManager = mock(ProxyManager.class);
+        when(proxyManager.builder()).thenReturn(builder);
+
+        limiter = new HybridRateLimiter(mock(RedisConnectionFactory.class), new RateLimitConfig(),
+                new MetricsService(new SimpleMeterRegistry())) {
+            @Override
+            ProxyManager<String> proxyManager() {
+                return proxyManager;
+            }
+        };
+    }
+
+    @Test
+    void testRequestsServedFromLeaseWithoutRedis() {
+        when(sharedBucket.tryConsumeAsMuchAsPossible(10L)).thenReturn(10L);
+
+        for (int i = 0; i < 10; i++) {
+            RateLimitResult result = limiter.tryConsume("redirect:1.2.3.4", 100, PERIOD);
+            assertTrue(result.allowed());
+            assertEquals(9 - i, result.remaining());
+        }
+
+        // 10% of the limit leased once, then nine requests decided locally
+        verify(sharedBucket, times(1)).tryConsumeAsMuchAsPossible(10L);
+    }
+
+    @Test
+    void testDeniedWhenSharedBucketExhausted() {
+        when(sharedBucket.tryConsumeAsMuchAsPossible(anyLong())).thenReturn(3L, 0L);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryConsume("create:1.2.3.4", 10, PERIOD).allowed());
+        }
+        RateLimitResult denied = limiter.tryConsume("create:1.2.3.4", 10, PERIOD);
+        assertFalse(denied.allowed());
+        assertEquals(6_000, denied.retryAfterMillis());
+
+        // Denials are cached briefly rather than asking Redis again
+        assertFalse(limiter.tryConsume("create:1.2.3.4", 10, PERIOD).allowed());
+        verify(sharedBucket, times(2)).tryConsumeAsMuchAsPossible(anyLong());
+    }
+
+    @Test
+    void testFallbackCapsOvershootWhenRedisFails() {
+        when(sharedBucket.tryConsumeAsMuchAsPossible(anyLong())).thenThrow(new RuntimeException("Connection refused"));
+
+        int allowed = 0;
+        for (int i = 0; i < 50; i++) {
+            if (limiter.tryConsume("stats:1.2.3.4", 30, PERIOD).allowed()) {
+                allowed++;
+            }
+        }
+
+        // allowed-overshoot 0.1 of 30 per period
+        assertEquals(3, allowed);
+    }
+
+    @Test
+    void testKeysHaveSeparateLeases() {
+        when(sharedBucket.tryConsumeAsMuchAsPossible(anyLong())).thenReturn(1L);
+
+        assertTrue(limiter.tryConsume("redirect:1.1.1.1", 10, PERIOD).allowed());
+        assertTrue(limiter.tryConsume("redirect:2.2.2.2", 10, PERIOD).allowed());
+
+        verify(sharedBucket, times(2)).tryConsumeAsMuchAsPossible(1L);
+    }
+}
@@ -0,0 +1,94 @@
+package com.urlshortener.ratelimit;
+
+import com.urlshortener.monitoring.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RateLimitInterceptorTest {
+
+    private RateLimitService rateLimitService;
+    private RateLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitService = mock(RateLimitService.class);
+        interceptor = new RateLimitInterceptor(rateLimitService, new RateLimitConfig(),
+                new MetricsService(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void testRedirectKeyIsPerClientNotPerShortCode() throws Exception {
+        when(rateLimitService.tryConsume(anyString(), anyInt(), any(Duration.class)))
+                .thenReturn(new RateLimitResult(true, 100, 99, 0, 600));
+
+        for (String code : new String[]{"/abc123", "/xyz789"}) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", code);
+            request.addHeader("X-Forwarded-For", "203.0.113.42, 10.0.0.1");
+            assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+        }
+
+        verify(rateLimitService, times(2)).tryConsume(eq("redirect:203.0.113.42"), eq(100), eq(Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void testAllowedRequestGetsQuotaHeaders() throws Exception {
+        when(rateLimitService.tryConsume(eq("create:10.1.2.3"), eq(10), any(Duration.class)))
+                .thenReturn(new RateLimitResult(true, 10, 7, 0, 18_000));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/urls");
+        request.setRemoteAddr("10.1.2.3");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, null));
+        assertEquals("10", response.getHeader("X-RateLimit-Limit"));
+        assertEquals("7", response.getHeader("X-RateLimit-Remaining"));
+        assertEquals("18", response.getHeader("X-RateLimit-Reset"));
+        // One limiter call per request, no follow-up lookup for the remaining quota
+        verify(rateLimitService).tryConsume(eq("create:10.1.2.3"), eq(10), any(Duration.class));
+        verifyNoMoreInteractions(rateLimitService);
+    }
+
+    @Test
+    void testBatchCreateHasItsOwnBucket() throws Exception {
+        when(rateLimitService.tryConsume(anyString(), anyInt(), any(Duration.class)))
+                .thenReturn(new RateLimitResult(true, 5, 4, 0, 12_000));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/urls/batch");
+        request.setRemoteAddr("10.1.2.3");
+
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+        verify(rateLimitService).tryConsume(eq("batch-create:10.1.2.3"), eq(5), eq(Duration.ofMinutes(1)));
+        verifyNoMoreInteractions(rateLimitService);
+    }
+
+    @Test
+    void testDeniedRequestGets429WithRetryAfter() throws Exception {
+        when(rateLimitService.tryConsume(anyString(), anyInt(), any(Duration.class)))
+                .thenReturn(new RateLimitResult(false, 30, 0, 1_500, 60_000));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/urls/abc123/stats");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(interceptor.preHandle(request, response, null));
+        assertEquals(429, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertEquals("0", response.getHeader("X-RateLimit-Remaining"));
+    }
+
+    @Test
+    void testUnlimitedEndpointSkipsLimiter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/health/info");
+
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+        verifyNoInteractions(rateLimitService);
+    }
+}
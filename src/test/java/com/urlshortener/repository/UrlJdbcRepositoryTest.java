@@ -0,0 +1,50 @@
+package com.urlshortener.repository;
+
+import com.urlshortener.model.Url;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class UrlJdbcRepositoryTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final UrlJdbcRepository repository = new UrlJdbcRepository(jdbcTemplate);
+
+    @Test
+    void testOnlyRowsReportedAsWrittenAreInserted() {
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenReturn(new int[]{1, 0, 1});
+
+        boolean[] inserted = repository.insertAllIfAbsent(List.of(url(1L), url(2L), url(3L)));
+
+        assertArrayEquals(new boolean[]{true, false, true}, inserted);
+    }
+
+    @Test
+    void testMissingUpdateCountsFail() {
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenReturn(new int[]{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO});
+
+        assertThrows(IllegalStateException.class,
+                () -> repository.insertAllIfAbsent(List.of(url(1L), url(2L))));
+    }
+
+    private static Url url(Long id) {
+        return Url.builder()
+                .id(id)
+                .originalUrl("https://example.com/" + id)
+                .shortCode("code" + id)
+                .createdAt(LocalDateTime.now())
+                .clickCount(0L)
+                .build();
+    }
+}
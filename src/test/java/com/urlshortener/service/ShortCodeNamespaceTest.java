@@ -0,0 +1,61 @@
+package com.urlshortener.service;
+
+import com.urlshortener.repository.UrlJdbcRepository;
+import com.urlshortener.util.Base62Encoder;
+import com.urlshortener.util.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ShortCodeNamespaceTest {
+
+    private final Base62Encoder base62Encoder = new Base62Encoder();
+    private final IdGenerationConfig idGenerationConfig = new IdGenerationConfig();
+    private final UrlJdbcRepository urlJdbcRepository = mock(UrlJdbcRepository.class);
+    private final ShortCodeNamespace namespace =
+            new ShortCodeNamespace(base62Encoder, idGenerationConfig, urlJdbcRepository);
+
+    @Test
+    void testOnlyCanonicalEncodingsAreGenerated() {
+        assertEquals(Optional.of(123456789L), namespace.generatedId("8M0kX"));
+        // Leading zero, characters outside the alphabet, longer than a long
+        assertEquals(Optional.empty(), namespace.generatedId("08M0kX"));
+        assertEquals(Optional.empty(), namespace.generatedId("my-link"));
+        assertEquals(Optional.empty(), namespace.generatedId("abcdefghijkl"));
+    }
+
+    @Test
+    void testSnowflakeReservesRecentAndFutureIds() {
+        idGenerationConfig.setStrategy(IdGenerationConfig.Strategy.SNOWFLAKE);
+        long now = System.currentTimeMillis();
+
+        assertTrue(namespace.isReserved(base62Encoder.encode(SnowflakeIdGenerator.firstIdAt(now))));
+        assertTrue(namespace.isReserved(base62Encoder.encode(SnowflakeIdGenerator.firstIdAt(now + 86_400_000L))));
+        assertFalse(namespace.isReserved(base62Encoder.encode(SnowflakeIdGenerator.firstIdAt(now - 2 * 86_400_000L))));
+        assertFalse(namespace.isReserved("promo"));
+        verifyNoInteractions(urlJdbcRepository);
+    }
+
+    @Test
+    void testIdentityReservesOnlyIdsNearTheSequence() {
+        idGenerationConfig.setAliasReserveIds(1_000L);
+        when(urlJdbcRepository.currentId()).thenReturn(5_000L);
+
+        assertTrue(namespace.isReserved(base62Encoder.encode(5_000L)));
+        assertTrue(namespace.isReserved(base62Encoder.encode(6_000L)));
+        assertTrue(namespace.isReserved(base62Encoder.encode(4_000L)));
+        assertFalse(namespace.isReserved(base62Encoder.encode(6_001L)));
+        assertFalse(namespace.isReserved(base62Encoder.encode(3_999L)));
+        // Ordinary aliases decode to ids far above the sequence
+        assertFalse(namespace.isReserved("github"));
+        assertFalse(namespace.isReserved("docs"));
+        // Not a generated code: the sequence isn't read
+        assertFalse(namespace.isReserved("0abc"));
+        verify(urlJdbcRepository, times(7)).currentId();
+        verify(urlJdbcRepository, never()).nextIds(anyInt());
+    }
+}
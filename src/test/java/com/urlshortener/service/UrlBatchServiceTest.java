@@ -0,0 +1,243 @@
+package com.urlshortener.service;
+
+import com.urlshortener.cache.CachedUrl;
+import com.urlshortener.cache.ShortCodeFilter;
+import com.urlshortener.cache.UrlCacheConfig;
+import com.urlshortener.cache.UrlCacheStore;
+import com.urlshortener.datasource.ReadYourWrites;
+import com.urlshortener.dto.BatchCreateUrlResponse;
+import com.urlshortener.dto.BatchCreateUrlResult;
+import com.urlshortener.dto.CreateUrlRequest;
+import com.urlshortener.model.Url;
+import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.repository.UrlJdbcRepository;
+import com.urlshortener.security.UrlValidationService;
+import com.urlshortener.util.Base62Encoder;
+import com.urlshortener.util.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UrlBatchServiceTest {
+
+    private UrlJdbcRepository urlJdbcRepository;
+    private UrlCacheStore urlCacheStore;
+    private ShortCodeFilter shortCodeFilter;
+    private IdGenerationConfig idGenerationConfig;
+    private UrlBatchConfig urlBatchConfig;
+    private SimpleMeterRegistry meterRegistry;
+    private UrlBatchService urlBatchService;
+
+    // Rows the stubbed database has accepted, to detect short code conflicts across chunks
+    private final List<String> storedCodes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        urlJdbcRepository = mock(UrlJdbcRepository.class);
+        urlCacheStore = mock(UrlCacheStore.class);
+        shortCodeFilter = mock(ShortCodeFilter.class);
+        idGenerationConfig = new IdGenerationConfig();
+        idGenerationConfig.setStrategy(IdGenerationConfig.Strategy.SNOWFLAKE);
+        urlBatchConfig = new UrlBatchConfig();
+        meterRegistry = new SimpleMeterRegistry();
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(urlJdbcRepository.insertAllIfAbsent(anyList())).thenAnswer(invocation -> {
+            List<Url> urls = invocation.getArgument(0);
+            boolean[] inserted = new boolean[urls.size()];
+            for (int i = 0; i < urls.size(); i++) {
+                inserted[i] = !storedCodes.contains(urls.get(i).getShortCode());
+                if (inserted[i]) {
+                    storedCodes.add(urls.get(i).getShortCode());
+                }
+            }
+            return inserted;
+        });
+
+        Base62Encoder base62Encoder = new Base62Encoder();
+        urlBatchService = new UrlBatchService(
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new UrlValidationService(),
+                base62Encoder,
+                new SnowflakeIdGenerator(0, 1),
+                idGenerationConfig,
+                urlJdbcRepository,
+                transactionTemplate,
+                urlCacheStore,
+                new UrlCacheConfig(),
+                shortCodeFilter,
+                mock(ReadYourWrites.class),
+                new MetricsService(meterRegistry),
+                urlBatchConfig,
+                new ShortCodeNamespace(base62Encoder, idGenerationConfig, urlJdbcRepository));
+        ReflectionTestUtils.setField(urlBatchService, "baseUrl", "http://localhost:8080");
+    }
+
+    @Test
+    void testCreatesAllItemsAndCachesInOnePipeline() {
+        List<CreateUrlRequest> requests = IntStream.range(0, 5)
+                .mapToObj(i -> request("https://example.com/" + i, null))
+                .toList();
+
+        BatchCreateUrlResponse response = urlBatchService.createShortUrls(requests);
+
+        assertEquals(5, response.getCreated());
+        assertEquals(0, response.getFailed());
+        for (int i = 0; i < 5; i++) {
+            BatchCreateUrlResult result = response.getResults().get(i);
+            assertEquals(i, result.getIndex());
+            assertEquals(201, result.getStatus());
+            assertEquals("https://example.com/" + i, result.getUrl().getOriginalUrl());
+            assertEquals("http://localhost:8080/" + result.getUrl().getShortCode(), result.getUrl().getShortUrl());
+        }
+        verify(urlJdbcRepository, times(1)).insertAllIfAbsent(anyList());
+        verify(urlJdbcRepository, never()).insertAliases(anyList());
+        verify(urlCacheStore, times(1)).putAll(argThat((Map<String, CachedUrl> entries) -> entries.size() == 5));
+        assertEquals(5.0, meterRegistry.get("url.batch.items.total").tag("result", "created").counter().count());
+    }
+
+    @Test
+    void testInvalidItemsFailAlone() {
+        List<CreateUrlRequest> requests = List.of(
+                request("https://example.com/ok", null),
+                request("ftp://example.com/file", null),
+                request("http://localhost/admin", null),
+                request("https://example.com/bad-alias", "x!"),
+                CreateUrlRequest.builder().originalUrl("https://example.com/expiry").expiryDate("tomorrow").build());
+
+        BatchCreateUrlResponse response = urlBatchService.createShortUrls(requests);
+
+        assertEquals(1, response.getCreated());
+        assertEquals(4, response.getFailed());
+        assertEquals(201, response.getResults().get(0).getStatus());
+        for (int i = 1; i < 5; i++) {
+            BatchCreateUrlResult result = response.getResults().get(i);
+            assertEquals(400, result.getStatus());
+            assertEquals("VALIDATION_ERROR", result.getError());
+            assertNull(result.getUrl());
+        }
+        assertEquals("Localhost URLs are not allowed", response.getResults().get(2).getMessage());
+        verify(urlJdbcRepository).insertAllIfAbsent(argThat(urls -> urls.size() == 1));
+    }
+
+    @Test
+    void testTakenAliasIsAConflict() {
+        storedCodes.add("taken");
+        List<CreateUrlRequest> requests = List.of(
+                request("https://example.com/a", "taken"),
+                request("https://example.com/b", "fresh"),
+                request("https://example.com/c", "fresh"));
+
+        BatchCreateUrlResponse response = urlBatchService.createShortUrls(requests);
+
+        assertEquals(409, response.getResults().get(0).getStatus());
+        assertEquals("CONFLICT", response.getResults().get(0).getError());
+        assertEquals(201, response.getResults().get(1).getStatus());
+        // Duplicates within the batch: the first one wins
+        assertEquals(409, response.getResults().get(2).getStatus());
+        verify(urlJdbcRepository).insertAliases(argThat(urls ->
+                urls.size() == 1 && urls.get(0).getShortCode().equals("fresh")));
+        verify(shortCodeFilter).add("fresh");
+        verify(shortCodeFilter, never()).add("taken");
+    }
+
+    @Test
+    void testAliasOfAFutureIdIsAConflict() {
+        String reserved = new Base62Encoder().encode(SnowflakeIdGenerator.firstIdAt(System.currentTimeMillis() + 60_000));
+        List<CreateUrlRequest> requests = List.of(
+                request("https://example.com/a", reserved),
+                request("https://example.com/b", "fresh"));
+
+        BatchCreateUrlResponse response = urlBatchService.createShortUrls(requests);
+
+        assertEquals(409, response.getResults().get(0).getStatus());
+        assertTrue(response.getResults().get(0).getMessage().contains("reserved"));
+        assertEquals(201, response.getResults().get(1).getStatus());
+        verify(urlJdbcRepository).insertAllIfAbsent(argThat(urls -> urls.size() == 1));
+    }
+
+    @Test
+    void testGeneratedCodeHeldByAliasTakesNewId() {
+        idGenerationConfig.setStrategy(IdGenerationConfig.Strategy.IDENTITY);
+        storedCodes.add(new Base62Encoder().encode(100L));
+        when(urlJdbcRepository.nextIds(2)).thenReturn(List.of(100L, 101L));
+        when(urlJdbcRepository.nextIds(1)).thenReturn(List.of(200L));
+        List<CreateUrlRequest> requests = List.of(
+                request("https://example.com/a", null),
+                request("https://example.com/b", null));
+
+        BatchCreateUrlResponse response = urlBatchService.createShortUrls(requests);
+
+        assertEquals(2, response.getCreated());
+        assertEquals(List.of(200L, 101L),
+                response.getResults().stream().map(result -> result.getUrl().getId()).toList());
+        assertEquals(1.0, meterRegistry.get("url.generated.code.conflict.total").counter().count());
+    }
+
+    @Test
+    void testFailedChunkFailsOnlyItsItems() {
+        urlBatchConfig.setInsertChunkSize(2);
+        doThrow(new DataAccessResourceFailureException("connection reset")).when(urlJdbcRepository)
+                .insertAllIfAbsent(argThat(urls -> urls.get(0).getOriginalUrl().endsWith("/2")));
+        List<CreateUrlRequest> requests = IntStream.range(0, 5)
+                .mapToObj(i -> request("https://example.com/" + i, null))
+                .toList();
+
+        BatchCreateUrlResponse response = urlBatchService.createShortUrls(requests);
+
+        assertEquals(3, response.getCreated());
+        assertEquals(List.of(201, 201, 500, 500, 201),
+                response.getResults().stream().map(BatchCreateUrlResult::getStatus).toList());
+        verify(urlJdbcRepository, times(3)).insertAllIfAbsent(anyList());
+    }
+
+    @Test
+    void testIdentityStrategyReservesOneBlock() {
+        idGenerationConfig.setStrategy(IdGenerationConfig.Strategy.IDENTITY);
+        when(urlJdbcRepository.nextIds(3)).thenReturn(List.of(100L, 101L, 102L));
+        List<CreateUrlRequest> requests = IntStream.range(0, 3)
+                .mapToObj(i -> request("https://example.com/" + i, null))
+                .toList();
+
+        BatchCreateUrlResponse response = urlBatchService.createShortUrls(requests);
+
+        assertEquals(List.of(100L, 101L, 102L),
+                response.getResults().stream().map(result -> result.getUrl().getId()).toList());
+        assertEquals(new Base62Encoder().encode(100L), response.getResults().get(0).getUrl().getShortCode());
+        verify(urlJdbcRepository, times(1)).nextIds(3);
+    }
+
+    @Test
+    void testRedisFailureDoesNotFailCreatedLinks() {
+        doThrow(new RuntimeException("Redis down")).when(urlCacheStore).putAll(anyMap());
+
+        BatchCreateUrlResponse response = urlBatchService.createShortUrls(
+                List.of(request("https://example.com/a", null)));
+
+        assertEquals(1, response.getCreated());
+        assertEquals(201, response.getResults().get(0).getStatus());
+    }
+
+    private static CreateUrlRequest request(String originalUrl, String customAlias) {
+        return CreateUrlRequest.builder()
+                .originalUrl(originalUrl)
+                .customAlias(customAlias)
+                .build();
+    }
+}
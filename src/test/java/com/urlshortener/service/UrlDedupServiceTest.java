@@ -0,0 +1,150 @@
+package com.urlshortener.service;
+
+import com.urlshortener.model.Url;
+import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.repository.LinkStatsView;
+import com.urlshortener.repository.UrlRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class UrlDedupServiceTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 2, 22, 10, 30);
+
+    private UrlRepository urlRepository;
+    private UrlDedupConfig config;
+    private UrlDedupService urlDedupService;
+
+    @BeforeEach
+    void setUp() {
+        urlRepository = mock(UrlRepository.class);
+        config = new UrlDedupConfig();
+        config.setEnabled(true);
+        urlDedupService = new UrlDedupService(urlRepository, config, new MetricsService(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void testNormalize() {
+        assertEquals("https://example.com/", UrlDedupService.normalize("HTTPS://Example.COM"));
+        assertEquals("http://example.com/a?b=1#c", UrlDedupService.normalize("http://example.com:80/a?b=1#c"));
+        assertEquals("https://example.com:8443/A", UrlDedupService.normalize(" https://example.com:8443/A "));
+        // Path and query case are significant
+        assertNotEquals(urlDedupService.hash("https://example.com/A"), urlDedupService.hash("https://example.com/a"));
+        assertEquals(urlDedupService.hash("https://EXAMPLE.com:443"), urlDedupService.hash("https://example.com/"));
+        assertEquals(32, urlDedupService.hash("https://example.com").length());
+    }
+
+    @Test
+    void testCustomAliasesAreNeverDeduplicated() {
+        assertTrue(urlDedupService.applies(null));
+        assertTrue(urlDedupService.applies(""));
+        assertFalse(urlDedupService.applies("mine"));
+
+        config.setEnabled(false);
+        assertFalse(urlDedupService.applies(null));
+    }
+
+    @Test
+    void testMatchesOnlySameExpiryAndLiveLinks() {
+        LocalDateTime expiry = LocalDateTime.now().plusDays(1);
+        String hash = urlDedupService.hash("https://example.com/a");
+        when(urlRepository.findStatsByUrlHash(hash)).thenReturn(List.of(
+                row(1L, "https://example.com/a", LocalDateTime.now().minusDays(1)),
+                row(2L, "https://example.com/a", null),
+                row(3L, "https://example.com/a", expiry)));
+
+        assertEquals("2", urlDedupService.findExisting("https://EXAMPLE.com/a", null).map(Url::getShortCode).orElseThrow());
+        assertEquals("3", urlDedupService.findExisting("https://example.com/a", expiry).map(Url::getShortCode).orElseThrow());
+        assertTrue(urlDedupService.findExisting("https://example.com/a", expiry.plusHours(1)).isEmpty());
+        // The expired link isn't reused either
+        assertTrue(urlDedupService.findExisting("https://example.com/a", LocalDateTime.now().minusDays(1)).isEmpty());
+    }
+
+    @Test
+    void testHashCollisionIsNotAMatch() {
+        String hash = urlDedupService.hash("https://example.com/a");
+        when(urlRepository.findStatsByUrlHash(hash)).thenReturn(List.of(row(1L, "https://example.com/other", null)));
+
+        assertTrue(urlDedupService.findExisting("https://example.com/a", null).isEmpty());
+    }
+
+    @Test
+    void testRecentLinksSkipTheQuery() {
+        Url url = Url.builder()
+                .id(5L)
+                .shortCode("5")
+                .originalUrl("https://example.com/a")
+                .createdAt(CREATED)
+                .clickCount(0L)
+                .urlHash(urlDedupService.hash("https://example.com/a"))
+                .build();
+        urlDedupService.remember(url);
+
+        Optional<Url> existing = urlDedupService.findExisting("https://example.com/a", null);
+
+        assertSame(url, existing.orElseThrow());
+        assertSame(url, urlDedupService.findRecent("https://example.com:443/a", null).orElseThrow());
+        assertTrue(urlDedupService.findRecent("https://example.com/a", LocalDateTime.now().plusDays(1)).isEmpty());
+        verify(urlRepository, never()).findStatsByUrlHash(anyString());
+    }
+
+    @Test
+    void testForgetOnlyDropsTheSameLink() {
+        String hash = urlDedupService.hash("https://example.com/a");
+        Url lost = Url.builder().id(5L).shortCode("5").originalUrl("https://example.com/a")
+                .createdAt(CREATED).clickCount(0L).urlHash(hash).build();
+        Url newer = Url.builder().id(6L).shortCode("6").originalUrl("https://example.com/a")
+                .createdAt(CREATED).clickCount(0L).urlHash(hash).build();
+
+        urlDedupService.remember(newer);
+        urlDedupService.forget(lost);
+        assertSame(newer, urlDedupService.findRecent("https://example.com/a", null).orElseThrow());
+
+        urlDedupService.remember(lost);
+        urlDedupService.forget(lost);
+        assertTrue(urlDedupService.findRecent("https://example.com/a", null).isEmpty());
+    }
+
+    private static LinkStatsView row(Long id, String originalUrl, LocalDateTime expiryDate) {
+        return new LinkStatsView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getShortCode() {
+                return String.valueOf(id);
+            }
+
+            @Override
+            public String getOriginalUrl() {
+                return originalUrl;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return CREATED;
+            }
+
+            @Override
+            public LocalDateTime getExpiryDate() {
+                return expiryDate;
+            }
+
+            @Override
+            public Long getClickCount() {
+                return 0L;
+            }
+        };
+    }
+}
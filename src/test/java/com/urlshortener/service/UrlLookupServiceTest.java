@@ -0,0 +1,221 @@
+package com.urlshortener.service;
+
+import com.urlshortener.analytics.ClickCounter;
+import com.urlshortener.cache.CachedStats;
+import com.urlshortener.cache.CachedUrl;
+import com.urlshortener.cache.LocalUrlCache;
+import com.urlshortener.cache.ShortCodeFilter;
+import com.urlshortener.cache.UrlCacheConfig;
+import com.urlshortener.cache.UrlCacheStore;
+import com.urlshortener.cache.UrlStatsCache;
+import com.urlshortener.datasource.ReadYourWrites;
+import com.urlshortener.dto.BulkResolveResponse;
+import com.urlshortener.dto.BulkStatsResponse;
+import com.urlshortener.dto.UrlResponse;
+import com.urlshortener.exception.InvalidBulkLookupException;
+import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.repository.CachedLinkView;
+import com.urlshortener.repository.LinkStatsView;
+import com.urlshortener.repository.UrlRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UrlLookupServiceTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 2, 22, 10, 30);
+
+    @Mock
+    private UrlRepository urlRepository;
+
+    @Mock
+    private UrlCacheStore urlCacheStore;
+
+    @Spy
+    private UrlCacheConfig urlCacheConfig = new UrlCacheConfig();
+
+    @Mock
+    private UrlStatsCache urlStatsCache;
+
+    @Mock
+    private LocalUrlCache localUrlCache;
+
+    @Mock
+    private ShortCodeFilter shortCodeFilter;
+
+    @Mock
+    private ClickCounter clickCounter;
+
+    @Mock
+    private ReadYourWrites readYourWrites;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @Spy
+    private BulkLookupConfig bulkLookupConfig = new BulkLookupConfig();
+
+    @InjectMocks
+    private UrlLookupService urlLookupService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(urlLookupService, "baseUrl", "http://localhost:8080");
+        lenient().when(shortCodeFilter.mightContain(anyString())).thenReturn(true);
+    }
+
+    @Test
+    void testStatsMergeCacheDatabaseAndPendingClicks() {
+        // Arrange
+        when(urlStatsCache.getAll(List.of("hot", "cold", "gone"))).thenReturn(new HashMap<>(Map.of(
+                "hot", new CachedStats(1L, 100L, CREATED, null, "https://example.com/hot"))));
+        when(urlRepository.findStatsByShortCodeIn(List.of("cold", "gone"))).thenReturn(List.of(
+                stats(2L, "cold", "https://example.com/cold", 7L)));
+        when(clickCounter.pending("hot")).thenReturn(5L);
+
+        // Act
+        BulkStatsResponse response = urlLookupService.getUrlStats(List.of("hot", "cold", "gone", "hot"));
+
+        // Assert: request order, duplicates collapsed, one cache read, one query, one cache write
+        assertEquals(List.of("hot", "cold"), response.getUrls().stream().map(UrlResponse::getShortCode).toList());
+        assertEquals(105L, response.getUrls().get(0).getClickCount());
+        assertEquals(7L, response.getUrls().get(1).getClickCount());
+        assertEquals("http://localhost:8080/cold", response.getUrls().get(1).getShortUrl());
+        assertEquals(List.of("gone"), response.getNotFound());
+        verify(urlStatsCache).putAll(argThat((Map<String, CachedStats> entries) ->
+                entries.keySet().equals(Set.of("cold"))), eq(Duration.ofSeconds(30)));
+        verify(readYourWrites).beforeRead("cold");
+        verify(metricsService).recordBulkLookup("stats", 1, 2);
+    }
+
+    @Test
+    void testStatsAllCachedSkipsDatabase() {
+        // Arrange
+        when(urlStatsCache.getAll(List.of("a"))).thenReturn(new HashMap<>(Map.of(
+                "a", new CachedStats(1L, 3L, CREATED, null, "https://example.com/a"))));
+
+        // Act
+        BulkStatsResponse response = urlLookupService.getUrlStats(List.of("a"));
+
+        // Assert
+        assertEquals(1, response.getUrls().size());
+        verifyNoInteractions(urlRepository);
+    }
+
+    @Test
+    void testResolveWalksLocalRedisThenDatabase() {
+        // Arrange
+        lenient().when(localUrlCache.get(anyString())).thenReturn(null);
+        when(localUrlCache.get("local")).thenReturn("https://example.com/local");
+        when(shortCodeFilter.mightContain("unknown")).thenReturn(false);
+        CachedUrl cached = CachedUrl.of("https://example.com/redis", CachedUrl.NEVER, Duration.ofHours(1), 1);
+        CachedUrl expiredCached = CachedUrl.of("https://example.com/old", System.currentTimeMillis() - 1,
+                Duration.ofHours(1), 1);
+        when(urlCacheStore.getAll(List.of("db", "redis", "stale", "dbExpired", "missing")))
+                .thenReturn(Map.of("redis", cached, "stale", expiredCached));
+        when(urlRepository.findLinksByShortCodeIn(List.of("db", "dbExpired", "missing"))).thenReturn(List.of(
+                link(3L, "db", "https://example.com/db", null),
+                link(4L, "dbExpired", "https://example.com/expired", LocalDateTime.now().minusDays(1))));
+
+        // Act
+        BulkResolveResponse response = urlLookupService.resolveUrls(
+                List.of("db", "local", "unknown", "redis", "stale", "dbExpired", "missing"));
+
+        // Assert
+        assertEquals(List.of("db", "local", "redis"), List.copyOf(response.getUrls().keySet()));
+        assertEquals("https://example.com/db", response.getUrls().get("db"));
+        assertEquals(List.of("unknown", "missing"), response.getNotFound());
+        assertEquals(List.of("stale", "dbExpired"), response.getExpired());
+        verify(urlCacheStore).putAll(argThat(entries -> entries.keySet().equals(Set.of("db"))));
+        verify(metricsService).recordBulkLookup("resolve", 3, 3);
+        verifyNoInteractions(clickCounter);
+    }
+
+    @Test
+    void testTooManyCodesRejected() {
+        bulkLookupConfig.setMaxCodes(3);
+        List<String> codes = IntStream.range(0, 4).mapToObj(i -> "c" + i).toList();
+
+        assertThrows(InvalidBulkLookupException.class, () -> urlLookupService.resolveUrls(codes));
+        assertThrows(InvalidBulkLookupException.class, () -> urlLookupService.getUrlStats(codes));
+        assertThrows(InvalidBulkLookupException.class, () -> urlLookupService.resolveUrls(List.of("ok", "no/pe")));
+        assertThrows(InvalidBulkLookupException.class, () -> urlLookupService.getUrlStats(List.of("")));
+        verifyNoInteractions(urlCacheStore, urlStatsCache, urlRepository);
+    }
+
+    private static LinkStatsView stats(Long id, String shortCode, String originalUrl, Long clickCount) {
+        return new LinkStatsView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getShortCode() {
+                return shortCode;
+            }
+
+            @Override
+            public String getOriginalUrl() {
+                return originalUrl;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return CREATED;
+            }
+
+            @Override
+            public LocalDateTime getExpiryDate() {
+                return null;
+            }
+
+            @Override
+            public Long getClickCount() {
+                return clickCount;
+            }
+        };
+    }
+
+    private static CachedLinkView link(Long id, String shortCode, String originalUrl, LocalDateTime expiryDate) {
+        return new CachedLinkView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getShortCode() {
+                return shortCode;
+            }
+
+            @Override
+            public String getOriginalUrl() {
+                return originalUrl;
+            }
+
+            @Override
+            public LocalDateTime getExpiryDate() {
+                return expiryDate;
+            }
+        };
+    }
+}
@@ -1,25 +1,54 @@
 package com.urlshortener.service;
 
+import com.urlshortener.analytics.ClickCountConfig;
+import com.urlshortener.analytics.ClickCounter;
+import com.urlshortener.cache.CacheInvalidationService;
+import com.urlshortener.cache.CacheRefresher;
+import com.urlshortener.cache.CachedUrl;
+import com.urlshortener.cache.HotKeyTracker;
+import com.urlshortener.cache.LocalUrlCache;
+import com.urlshortener.cache.ShortCodeFilter;
+import com.urlshortener.cache.UrlCacheConfig;
+import com.urlshortener.cache.UrlCacheStore;
+import com.urlshortener.datasource.ReadYourWrites;
 import com.urlshortener.dto.CreateUrlRequest;
 import com.urlshortener.dto.UrlResponse;
 import com.urlshortener.exception.CustomAliasAlreadyExistsException;
 import com.urlshortener.exception.UrlExpiredException;
 import com.urlshortener.exception.UrlNotFoundException;
 import com.urlshortener.model.Url;
+import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.repository.CachedLinkView;
+import com.urlshortener.repository.UrlAliasRepository;
+import com.urlshortener.repository.UrlJdbcRepository;
 import com.urlshortener.repository.UrlRepository;
+import com.urlshortener.security.UrlValidationService;
 import com.urlshortener.util.Base62Encoder;
+import com.urlshortener.util.SnowflakeIdGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -40,13 +69,70 @@ class UrlServiceTest {
     @Mock
     private ValueOperations<String, String> valueOperations;
 
+    @Mock
+    private MetricsService metricsService;
+
+    @Mock
+    private UrlValidationService urlValidationService;
+
+    @Mock
+    private LocalUrlCache localUrlCache;
+
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Mock
+    private ShortCodeFilter shortCodeFilter;
+
+    @Mock
+    private ClickCounter clickCounter;
+
+    @Spy
+    private ClickCountConfig clickCountConfig = new ClickCountConfig();
+
+    @Mock
+    private UrlJdbcRepository urlJdbcRepository;
+
+    @Mock
+    private SnowflakeIdGenerator snowflakeIdGenerator;
+
+    @Spy
+    private IdGenerationConfig idGenerationConfig = new IdGenerationConfig();
+
+    @Spy
+    private UrlCacheConfig urlCacheConfig = new UrlCacheConfig();
+
+    @Mock
+    private CacheRefresher cacheRefresher;
+
+    @Mock
+    private HotKeyTracker hotKeyTracker;
+
+    @Mock
+    private ReadYourWrites readYourWrites;
+
+    @Mock
+    private UrlAliasRepository urlAliasRepository;
+
+    @Spy
+    private UrlResolutionConfig urlResolutionConfig = new UrlResolutionConfig();
+
+    @Mock
+    private UrlDedupService urlDedupService;
+
+    @Mock
+    private ShortCodeNamespace shortCodeNamespace;
+
     @InjectMocks
     private UrlService urlService;
 
     @BeforeEach
     void setUp() {
         ReflectionTestUtils.setField(urlService, "baseUrl", "http://localhost:8080");
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        ReflectionTestUtils.setField(urlService, "urlCacheStore", new UrlCacheStore(redisTemplate, urlCacheConfig));
+        // Codes decode to an id no row has, so misses reach the short_code fallback
+        lenient().when(shortCodeNamespace.generatedId(anyString())).thenReturn(Optional.of(0L));
     }
 
     @Test
@@ -77,6 +163,8 @@ class UrlServiceTest {
         assertEquals("http://localhost:8080/1", response.getShortUrl());
         verify(urlRepository, times(2)).save(any(Url.class));
         verify(valueOperations).set(anyString(), anyString(), anyLong(), any());
+        verify(shortCodeFilter).add("1");
+        verify(readYourWrites).written("1");
     }
 
     @Test
@@ -104,6 +192,7 @@ class UrlServiceTest {
         // Assert
         assertEquals("custom", response.getShortCode());
         verify(urlRepository).existsByShortCode("custom");
+        verify(urlJdbcRepository).insertAlias("custom", 1L);
     }
 
     @Test
@@ -121,6 +210,116 @@ class UrlServiceTest {
                 () -> urlService.createShortUrl(request));
     }
 
+    @Test
+    void testCreateShortUrl_SnowflakeSingleInsert() {
+        // Arrange
+        idGenerationConfig.setStrategy(IdGenerationConfig.Strategy.SNOWFLAKE);
+        CreateUrlRequest request = CreateUrlRequest.builder()
+                .originalUrl("https://example.com")
+                .build();
+
+        when(snowflakeIdGenerator.nextId()).thenReturn(123456789L);
+        when(base62Encoder.encode(123456789L)).thenReturn("8M0kX");
+        when(urlJdbcRepository.insertIfAbsent(any(Url.class))).thenReturn(true);
+
+        // Act
+        UrlResponse response = urlService.createShortUrl(request);
+
+        // Assert
+        assertEquals(123456789L, response.getId());
+        assertEquals("8M0kX", response.getShortCode());
+        verify(urlJdbcRepository).insertIfAbsent(any(Url.class));
+        verify(urlRepository, never()).save(any(Url.class));
+        verify(urlRepository, never()).existsByShortCode(anyString());
+    }
+
+    @Test
+    void testCreateShortUrl_SnowflakeCustomAliasConflict() {
+        // Arrange
+        idGenerationConfig.setStrategy(IdGenerationConfig.Strategy.SNOWFLAKE);
+        CreateUrlRequest request = CreateUrlRequest.builder()
+                .originalUrl("https://example.com")
+                .customAlias("custom")
+                .build();
+
+        when(snowflakeIdGenerator.nextId()).thenReturn(123456789L);
+        when(urlJdbcRepository.insertIfAbsent(any(Url.class))).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(CustomAliasAlreadyExistsException.class,
+                () -> urlService.createShortUrl(request));
+        verify(urlRepository, never()).existsByShortCode(anyString());
+    }
+
+    @Test
+    void testCreateShortUrl_ReservedAliasRejected() {
+        // Arrange
+        idGenerationConfig.setStrategy(IdGenerationConfig.Strategy.SNOWFLAKE);
+        CreateUrlRequest request = CreateUrlRequest.builder()
+                .originalUrl("https://example.com")
+                .customAlias("zzzzzzzzzz")
+                .build();
+
+        when(shortCodeNamespace.isReserved("zzzzzzzzzz")).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(CustomAliasAlreadyExistsException.class,
+                () -> urlService.createShortUrl(request));
+        verifyNoInteractions(snowflakeIdGenerator);
+        verify(urlJdbcRepository, never()).insertIfAbsent(any(Url.class));
+    }
+
+    @Test
+    void testCreateShortUrl_SnowflakeCodeHeldByAliasTakesNewId() {
+        // Arrange: an alias created before reservation holds the first generated code
+        idGenerationConfig.setStrategy(IdGenerationConfig.Strategy.SNOWFLAKE);
+        CreateUrlRequest request = CreateUrlRequest.builder()
+                .originalUrl("https://example.com")
+                .build();
+
+        when(snowflakeIdGenerator.nextId()).thenReturn(100L, 101L);
+        when(base62Encoder.encode(100L)).thenReturn("1C");
+        when(base62Encoder.encode(101L)).thenReturn("1D");
+        when(urlJdbcRepository.insertIfAbsent(any(Url.class))).thenReturn(false, true);
+
+        // Act
+        UrlResponse response = urlService.createShortUrl(request);
+
+        // Assert
+        assertEquals("1D", response.getShortCode());
+        verify(metricsService).incrementGeneratedCodeConflicts(1);
+        verify(shortCodeFilter).add("1D");
+    }
+
+    @Test
+    void testCreateShortUrl_IdentityCodeHeldByAliasTakesNewId() {
+        // Arrange: an alias created beyond the reserved ids holds the code of the first id
+        CreateUrlRequest request = CreateUrlRequest.builder()
+                .originalUrl("https://example.com")
+                .build();
+
+        AtomicLong sequence = new AtomicLong(99L);
+        when(urlRepository.save(any(Url.class))).thenAnswer(invocation -> {
+            Url url = invocation.getArgument(0);
+            if (url.getId() == null) {
+                url.setId(sequence.incrementAndGet());
+            }
+            return url;
+        });
+        when(base62Encoder.encode(100L)).thenReturn("1C");
+        when(base62Encoder.encode(101L)).thenReturn("1D");
+        when(urlRepository.existsByShortCode("1C")).thenReturn(true);
+
+        // Act
+        UrlResponse response = urlService.createShortUrl(request);
+
+        // Assert
+        assertEquals("1D", response.getShortCode());
+        verify(urlRepository).delete(argThat(url -> url.getId() == 100L));
+        verify(metricsService).incrementGeneratedCodeConflicts(1);
+        verify(shortCodeFilter).add("1D");
+    }
+
     @Test
     void testGetOriginalUrl_CacheHit() {
         // Arrange
@@ -135,7 +334,203 @@ class UrlServiceTest {
         // Assert
         assertEquals(originalUrl, result);
         verify(valueOperations).get("url:" + shortCode);
-        verify(urlRepository, never()).findByShortCode(anyString());
+        verify(urlRepository, never()).findLinkByShortCode(anyString());
+        verify(localUrlCache).putUntil(shortCode, originalUrl, CachedUrl.NEVER);
+        verify(clickCounter).increment(shortCode);
+        verify(hotKeyTracker).record(shortCode);
+    }
+
+    @Test
+    void testGetOriginalUrl_FreshEntryNotRefreshed() {
+        // Arrange
+        String shortCode = "abc123";
+        String originalUrl = "https://example.com";
+        urlCacheConfig.setEarlyRefreshBeta(0);
+        String cached = CachedUrl.of(originalUrl, CachedUrl.NEVER, Duration.ofHours(1), 5).encode();
+
+        when(valueOperations.get("url:" + shortCode)).thenReturn(cached);
+
+        // Act
+        String result = urlService.getOriginalUrl(shortCode);
+
+        // Assert
+        assertEquals(originalUrl, result);
+        verify(localUrlCache).putUntil(shortCode, originalUrl, CachedUrl.NEVER);
+        verify(cacheRefresher, never()).refreshAsync(anyString(), anyBoolean(), any());
+    }
+
+    @Test
+    void testGetOriginalUrl_StaleEntryServedAndRefreshed() {
+        // Arrange
+        String shortCode = "abc123";
+        String originalUrl = "https://example.com";
+        long writtenAt = System.currentTimeMillis() - Duration.ofHours(2).toMillis();
+        String cached = new CachedUrl(originalUrl, CachedUrl.NEVER, writtenAt, Duration.ofHours(1).toMillis(), 5).encode();
+        Url url = Url.builder()
+                .id(1L)
+                .originalUrl("https://example.com/updated")
+                .shortCode(shortCode)
+                .build();
+
+        when(valueOperations.get("url:" + shortCode)).thenReturn(cached);
+        when(urlRepository.findLinkByShortCode(shortCode)).thenReturn(Optional.of(link(url)));
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(2).run();
+            return null;
+        }).when(cacheRefresher).refreshAsync(eq(shortCode), eq(true), any());
+
+        // Act
+        String result = urlService.getOriginalUrl(shortCode);
+
+        // Assert: the stale value is served, the refresh rewrites the entry from the database
+        assertEquals(originalUrl, result);
+        verify(valueOperations).set(eq("url:" + shortCode),
+                argThat(value -> CachedUrl.decode(value).originalUrl().equals("https://example.com/updated")),
+                eq(Duration.ofHours(25).toMillis()), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testGetOriginalUrl_RefreshOfDeletedLinkInvalidates() {
+        // Arrange
+        String shortCode = "gone";
+        when(valueOperations.get("url:" + shortCode)).thenReturn("https://example.com");
+        when(urlRepository.findLinkByShortCode(shortCode)).thenReturn(Optional.empty());
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(2).run();
+            return null;
+        }).when(cacheRefresher).refreshAsync(eq(shortCode), eq(true), any());
+
+        // Act
+        String result = urlService.getOriginalUrl(shortCode);
+
+        // Assert
+        assertEquals("https://example.com", result);
+        verify(cacheInvalidationService).invalidate(shortCode);
+    }
+
+    @Test
+    void testGetOriginalUrl_CachedLinkExpired() {
+        // Arrange
+        String shortCode = "campaign";
+        long linkExpiresAt = System.currentTimeMillis() - 1_000;
+        String cached = CachedUrl.of("https://example.com", linkExpiresAt, Duration.ofHours(1), 5).encode();
+
+        when(valueOperations.get("url:" + shortCode)).thenReturn(cached);
+
+        // Act & Assert: rejected from the cache entry alone, and dropped from every tier
+        assertThrows(UrlExpiredException.class, () -> urlService.getOriginalUrl(shortCode));
+        verify(urlRepository, never()).findLinkByShortCode(anyString());
+        verify(cacheInvalidationService).invalidate(shortCode);
+        verify(clickCounter, never()).increment(anyString());
+    }
+
+    @Test
+    void testCreateShortUrl_CacheTtlCappedAtLinkExpiry() {
+        // Arrange
+        LocalDateTime expiryDate = LocalDateTime.now().plusMinutes(10);
+        CreateUrlRequest request = CreateUrlRequest.builder()
+                .originalUrl("https://example.com")
+                .expiryDate(expiryDate.toString())
+                .build();
+
+        when(urlRepository.save(any(Url.class))).thenAnswer(invocation -> {
+            Url saved = invocation.getArgument(0);
+            saved.setId(1L);
+            return saved;
+        });
+        when(base62Encoder.encode(1L)).thenReturn("1");
+
+        // Act
+        urlService.createShortUrl(request);
+
+        // Assert
+        verify(valueOperations).set(eq("url:1"),
+                argThat(value -> CachedUrl.decode(value).linkExpiresAt() > System.currentTimeMillis()),
+                longThat(ttl -> ttl > 0 && ttl <= Duration.ofMinutes(10).toMillis()),
+                eq(TimeUnit.MILLISECONDS));
+        verify(localUrlCache).putUntil(eq("1"), eq("https://example.com"), longThat(at -> at > 0));
+    }
+
+    @Test
+    void testCreateShortUrl_DedupReturnsExistingLink() {
+        // Arrange
+        CreateUrlRequest request = CreateUrlRequest.builder()
+                .originalUrl("https://example.com")
+                .build();
+        Url existing = Url.builder()
+                .id(7L)
+                .originalUrl("https://example.com")
+                .shortCode("7")
+                .clickCount(12L)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        when(urlDedupService.applies(null)).thenReturn(true);
+        when(urlDedupService.findExisting("https://example.com", null)).thenReturn(Optional.of(existing));
+
+        // Act
+        UrlResponse response = urlService.createShortUrl(request);
+
+        // Assert: no row, no cache write, no new code
+        assertEquals("7", response.getShortCode());
+        assertEquals(12L, response.getClickCount());
+        verifyNoInteractions(urlJdbcRepository, valueOperations, shortCodeFilter);
+        verify(urlRepository, never()).save(any(Url.class));
+    }
+
+    @Test
+    void testCreateShortUrl_DedupMissStoresUrlHash() {
+        // Arrange
+        idGenerationConfig.setStrategy(IdGenerationConfig.Strategy.SNOWFLAKE);
+        CreateUrlRequest request = CreateUrlRequest.builder()
+                .originalUrl("https://example.com")
+                .build();
+
+        when(urlDedupService.applies(null)).thenReturn(true);
+        when(urlDedupService.findExisting("https://example.com", null)).thenReturn(Optional.empty());
+        when(urlDedupService.hash("https://example.com")).thenReturn("0123456789abcdef0123456789abcdef");
+        when(snowflakeIdGenerator.nextId()).thenReturn(42L);
+        when(base62Encoder.encode(42L)).thenReturn("G");
+        when(urlJdbcRepository.insertIfAbsent(any(Url.class))).thenReturn(true);
+
+        // Act
+        urlService.createShortUrl(request);
+
+        // Assert
+        verify(urlJdbcRepository).insertIfAbsent(argThat(url ->
+                "0123456789abcdef0123456789abcdef".equals(url.getUrlHash())));
+        verify(urlDedupService).remember(argThat(url -> url.getShortCode().equals("G")));
+    }
+
+    @Test
+    void testGetOriginalUrl_LocalCacheHit() {
+        // Arrange
+        String shortCode = "abc123";
+        String originalUrl = "https://example.com";
+
+        when(localUrlCache.get(shortCode)).thenReturn(originalUrl);
+
+        // Act
+        String result = urlService.getOriginalUrl(shortCode);
+
+        // Assert
+        assertEquals(originalUrl, result);
+        verify(valueOperations, never()).get(anyString());
+        verify(urlRepository, never()).findLinkByShortCode(anyString());
+    }
+
+    @Test
+    void testGetOriginalUrl_KafkaClickCountMode() {
+        // Arrange
+        String shortCode = "abc123";
+        clickCountConfig.setMode(ClickCountConfig.Mode.KAFKA);
+        when(localUrlCache.get(shortCode)).thenReturn("https://example.com");
+
+        // Act
+        urlService.getOriginalUrl(shortCode);
+
+        // Assert
+        verify(clickCounter, never()).increment(anyString());
     }
 
     @Test
@@ -150,7 +545,7 @@ class UrlServiceTest {
                 .build();
 
         when(valueOperations.get("url:" + shortCode)).thenReturn(null);
-        when(urlRepository.findByShortCode(shortCode)).thenReturn(Optional.of(url));
+        when(urlRepository.findLinkByShortCode(shortCode)).thenReturn(Optional.of(link(url)));
 
         // Act
         String result = urlService.getOriginalUrl(shortCode);
@@ -158,6 +553,7 @@ class UrlServiceTest {
         // Assert
         assertEquals("https://example.com", result);
         verify(valueOperations).set(anyString(), anyString(), anyLong(), any());
+        verify(readYourWrites).beforeRead(shortCode);
     }
 
     @Test
@@ -166,7 +562,7 @@ class UrlServiceTest {
         String shortCode = "notfound";
 
         when(valueOperations.get(anyString())).thenReturn(null);
-        when(urlRepository.findByShortCode(shortCode)).thenReturn(Optional.empty());
+        when(urlRepository.findLinkByShortCode(shortCode)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(UrlNotFoundException.class, 
@@ -185,10 +581,207 @@ class UrlServiceTest {
                 .build();
 
         when(valueOperations.get(anyString())).thenReturn(null);
-        when(urlRepository.findByShortCode(shortCode)).thenReturn(Optional.of(url));
+        when(urlRepository.findLinkByShortCode(shortCode)).thenReturn(Optional.of(link(url)));
 
         // Act & Assert
         assertThrows(UrlExpiredException.class, 
                 () -> urlService.getOriginalUrl(shortCode));
+        verify(cacheInvalidationService).invalidate(shortCode);
+    }
+
+    @Test
+    void testGetOriginalUrl_ConcurrentMissesShareOneLoad() throws Exception {
+        // Arrange
+        int callers = 16;
+        CountDownLatch allMissed = new CountDownLatch(callers);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        Url url = Url.builder()
+                .id(1L)
+                .originalUrl("https://example.com/viral")
+                .shortCode("viral")
+                .clickCount(0L)
+                .build();
+
+        when(valueOperations.get("url:viral")).thenAnswer(invocation -> {
+            allMissed.countDown();
+            return null;
+        });
+        when(urlRepository.findLinkByShortCode("viral")).thenAnswer(invocation -> {
+            loads.incrementAndGet();
+            releaseLoad.await(5, TimeUnit.SECONDS);
+            return Optional.of(link(url));
+        });
+
+        // Act
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> urlService.getOriginalUrl("viral")));
+            }
+            assertTrue(allMissed.await(5, TimeUnit.SECONDS));
+            // Give the waiters time to join the in-flight load
+            Thread.sleep(200);
+            releaseLoad.countDown();
+
+            // Assert
+            for (Future<String> result : results) {
+                assertEquals("https://example.com/viral", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        verify(valueOperations, times(1)).set(eq("url:viral"),
+                argThat(value -> CachedUrl.decode(value).originalUrl().equals("https://example.com/viral")),
+                anyLong(), any());
+        verify(metricsService, times(callers - 1)).incrementCacheLoadCoalesced();
+        verify(metricsService, times(callers)).incrementRedirect();
+    }
+
+    @Test
+    void testGetOriginalUrl_ConcurrentMissesShareNotFound() throws Exception {
+        // Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        when(urlRepository.findLinkByShortCode("missing")).thenAnswer(invocation -> {
+            loading.countDown();
+            releaseLoad.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+
+        // Act
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> urlService.getOriginalUrl("missing"));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<String> waiter = executor.submit(() -> urlService.getOriginalUrl("missing"));
+            Thread.sleep(200);
+            releaseLoad.countDown();
+
+            // Assert
+            for (Future<String> result : List.of(leader, waiter)) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(UrlNotFoundException.class, e.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(urlRepository, times(1)).findLinkByShortCode("missing");
+    }
+    @Test
+    void testGetOriginalUrl_GeneratedCodeResolvedById() {
+        // Arrange
+        Url url = Url.builder().id(42L).originalUrl("https://example.com").shortCode("G").build();
+        when(shortCodeNamespace.generatedId("G")).thenReturn(Optional.of(42L));
+        when(urlRepository.findLinkById(42L)).thenReturn(Optional.of(link(url)));
+
+        // Act
+        String result = urlService.getOriginalUrl("G");
+
+        // Assert
+        assertEquals("https://example.com", result);
+        verify(metricsService).incrementUrlResolve("id");
+        verifyNoInteractions(urlAliasRepository);
+        verify(urlRepository, never()).findLinkByShortCode(anyString());
+    }
+
+    @Test
+    void testGetOriginalUrl_AliasResolvedByAliasTable() {
+        // Arrange: "promo" decodes to an id owned by another code
+        Url other = Url.builder().id(7L).originalUrl("https://other.example.com").shortCode("7").build();
+        Url aliased = Url.builder().id(9L).originalUrl("https://example.com/promo").shortCode("promo").build();
+        when(shortCodeNamespace.generatedId("promo")).thenReturn(Optional.of(7L));
+        when(urlRepository.findLinkById(7L)).thenReturn(Optional.of(link(other)));
+        when(urlAliasRepository.findLinkByAlias("promo")).thenReturn(Optional.of(link(aliased)));
+
+        // Act
+        String result = urlService.getOriginalUrl("promo");
+
+        // Assert
+        assertEquals("https://example.com/promo", result);
+        verify(metricsService).incrementUrlResolve("alias");
+        verify(urlRepository, never()).findLinkByShortCode(anyString());
+    }
+
+    @Test
+    void testGetOriginalUrl_DecodableCodeFallsBackToShortCode() {
+        // Arrange: an alias created before url_aliases existed
+        Url url = Url.builder().id(3L).originalUrl("https://example.com/legacy").shortCode("legacy").build();
+        when(shortCodeNamespace.generatedId("legacy")).thenReturn(Optional.of(11L));
+        when(urlRepository.findLinkByShortCode("legacy")).thenReturn(Optional.of(link(url)));
+
+        // Act
+        String result = urlService.getOriginalUrl("legacy");
+
+        // Assert
+        assertEquals("https://example.com/legacy", result);
+        verify(urlAliasRepository).findLinkByAlias("legacy");
+        verify(metricsService).incrementUrlResolve("short_code");
+    }
+
+    @Test
+    void testGetOriginalUrl_NonGeneratedCodeStopsAfterAliasTable() {
+        // Arrange: no id encodes to "0promo", so it can only be an alias
+        when(shortCodeNamespace.generatedId("0promo")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(UrlNotFoundException.class, () -> urlService.getOriginalUrl("0promo"));
+        verify(urlAliasRepository).findLinkByAlias("0promo");
+        verify(urlRepository, never()).findLinkById(anyLong());
+        verify(urlRepository, never()).findLinkByShortCode(anyString());
+    }
+
+    @Test
+    void testGetOriginalUrl_NoFallbackWhenDisabled() {
+        // Arrange
+        urlResolutionConfig.setShortCodeFallback(false);
+        when(shortCodeNamespace.generatedId("nope")).thenReturn(Optional.of(5L));
+
+        // Act & Assert
+        assertThrows(UrlNotFoundException.class, () -> urlService.getOriginalUrl("nope"));
+        verify(urlRepository, never()).findLinkByShortCode(anyString());
+    }
+
+    @Test
+    void testGetOriginalUrl_ShortCodeStrategy() {
+        // Arrange
+        urlResolutionConfig.setStrategy(UrlResolutionConfig.Strategy.SHORT_CODE);
+        Url url = Url.builder().id(1L).originalUrl("https://example.com").shortCode("abc").build();
+        when(urlRepository.findLinkByShortCode("abc")).thenReturn(Optional.of(link(url)));
+
+        // Act
+        String result = urlService.getOriginalUrl("abc");
+
+        // Assert
+        assertEquals("https://example.com", result);
+        verifyNoInteractions(shortCodeNamespace, urlAliasRepository);
+    }
+
+    private static CachedLinkView link(Url url) {
+        return new CachedLinkView() {
+            @Override
+            public Long getId() {
+                return url.getId();
+            }
+
+            @Override
+            public String getShortCode() {
+                return url.getShortCode();
+            }
+
+            @Override
+            public String getOriginalUrl() {
+                return url.getOriginalUrl();
+            }
+
+            @Override
+            public LocalDateTime getExpiryDate() {
+                return url.getExpiryDate();
+            }
+        };
     }
 }
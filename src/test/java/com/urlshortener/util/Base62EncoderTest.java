@@ -6,7 +6,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
+// The digit-order expectations below are for the lowercase-first alphabet, an opt-in permutation
+@SpringBootTest(properties = "base62.alphabet=0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ")
 class Base62EncoderTest {
 
     @Autowired
@@ -17,8 +18,9 @@ class Base62EncoderTest {
         assertEquals("1", encoder.encode(1L));
         assertEquals("a", encoder.encode(10L));
         assertEquals("A", encoder.encode(36L));
-        assertEquals("19", encoder.encode(61L));
-        assertEquals("1B", encoder.encode(63L));
+        assertEquals("Z", encoder.encode(61L));
+        assertEquals("10", encoder.encode(62L));
+        assertEquals("11", encoder.encode(63L));
     }
 
     @Test
@@ -26,8 +28,9 @@ class Base62EncoderTest {
         assertEquals(1L, encoder.decode("1"));
         assertEquals(10L, encoder.decode("a"));
         assertEquals(36L, encoder.decode("A"));
-        assertEquals(61L, encoder.decode("19"));
-        assertEquals(63L, encoder.decode("1B"));
+        assertEquals(61L, encoder.decode("Z"));
+        assertEquals(62L, encoder.decode("10"));
+        assertEquals(63L, encoder.decode("11"));
     }
 
     @Test
@@ -43,4 +46,67 @@ class Base62EncoderTest {
     void testInvalidCharacter() {
         assertThrows(IllegalArgumentException.class, () -> encoder.decode("!@#"));
     }
+
+    @Test
+    void testDefaultAlphabetKeepsStoredCodes() {
+        Base62Encoder standard = new Base62Encoder();
+
+        // Codes written before the encoder rewrite must still decode to their own ids
+        assertEquals("A", standard.encode(10L));
+        assertEquals("a", standard.encode(36L));
+        assertEquals("z", standard.encode(61L));
+        assertEquals("8M0kX", standard.encode(123456789L));
+        assertEquals(123456789L, standard.decode("8M0kX"));
+    }
+
+    @Test
+    void testLongBoundaries() {
+        assertEquals("0", encoder.encode(0L));
+        String max = encoder.encode(Long.MAX_VALUE);
+        assertEquals(Base62Encoder.MAX_LENGTH, max.length());
+        assertEquals(Long.MAX_VALUE, encoder.decode(max));
+        assertThrows(IllegalArgumentException.class, () -> encoder.encode(-1L));
+    }
+
+    @Test
+    void testOverflowDetected() {
+        assertThrows(IllegalArgumentException.class, () -> encoder.decode("ZZZZZZZZZZZ"));
+        assertThrows(IllegalArgumentException.class, () -> encoder.decode("100000000000"));
+        assertThrows(IllegalArgumentException.class, () -> encoder.decode("ab\u00e9"));
+    }
+
+    @Test
+    void testFixedWidthScrambled() {
+        Base62Config config = new Base62Config();
+        config.setFixedWidth(8);
+        config.setScramble(true);
+        Base62Encoder scrambled = new Base62Encoder(config);
+
+        String previous = scrambled.encode(1_000_000L);
+        for (long i = 1_000_001L; i <= 1_010_000L; i++) {
+            String encoded = scrambled.encode(i);
+            assertEquals(8, encoded.length());
+            assertEquals(i, scrambled.decode(encoded), "Round trip failed for " + i);
+            for (int c = 0; c < encoded.length(); c++) {
+                assertNotEquals(previous.charAt(c), encoded.charAt(c), "Neighbouring codes share a character");
+            }
+            previous = encoded;
+        }
+        assertThrows(IllegalArgumentException.class, () -> scrambled.encode(218_340_105_584_896L));
+    }
+
+    @Test
+    void testShuffledAlphabet() {
+        Base62Config config = new Base62Config();
+        config.setAlphabet("cKaVPRug0job8tZSlEmMivsHLXGCh1DxWOe7ANIzJfTqr52dwUBn6yQ43Fp9Yk");
+        Base62Encoder shuffled = new Base62Encoder(config);
+
+        assertEquals("K", shuffled.encode(1L));
+        for (long i = 0; i <= 10_000; i++) {
+            assertEquals(i, shuffled.decode(shuffled.encode(i)));
+        }
+
+        config.setAlphabet("0123456789");
+        assertThrows(IllegalArgumentException.class, () -> new Base62Encoder(config));
+    }
 }
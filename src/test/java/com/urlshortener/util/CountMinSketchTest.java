@@ -0,0 +1,65 @@
+package com.urlshortener.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+
+    @Test
+    void testNeverUndercounts() {
+        CountMinSketch sketch = new CountMinSketch(1024, 4);
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add("code" + (i % 500));
+        }
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(sketch.estimate("code" + i) >= 20, "Undercount for code" + i);
+        }
+    }
+
+    @Test
+    void testHeavyHitterStandsOut() {
+        CountMinSketch sketch = new CountMinSketch(2048, 4);
+        for (int i = 0; i < 50_000; i++) {
+            sketch.add("tail" + i);
+            if (i % 5 == 0) {
+                sketch.add("viral");
+            }
+        }
+
+        long viral = sketch.estimate("viral");
+        assertTrue(viral >= 10_000);
+        // Error bound: e / width of 60k total is about 80
+        assertTrue(viral < 10_000 + 200, "Overcount too large: " + viral);
+        assertTrue(sketch.estimate("tail123") < 200);
+    }
+
+    @Test
+    void testAddReturnsEstimate() {
+        CountMinSketch sketch = new CountMinSketch(64, 2);
+
+        assertEquals(1, sketch.add("abc"));
+        assertEquals(2, sketch.add("abc"));
+        assertEquals(2, sketch.estimate("abc"));
+        assertTrue(sketch.estimate("never-added") <= 2);
+    }
+
+    @Test
+    void testHalve() {
+        CountMinSketch sketch = new CountMinSketch(64, 2);
+        for (int i = 0; i < 10; i++) {
+            sketch.add("abc");
+        }
+
+        sketch.halve();
+
+        assertEquals(5, sketch.estimate("abc"));
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(64, 0));
+    }
+}
@@ -0,0 +1,58 @@
+package com.urlshortener.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void testSequentialCallsLoadEachTime() {
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlight<String, Integer> flight = new SingleFlight<>(Duration.ofSeconds(1), () -> {});
+
+        assertEquals(1, flight.execute("a", loads::incrementAndGet));
+        assertEquals(2, flight.execute("a", loads::incrementAndGet));
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    void testWaiterLoadsItselfAfterMaxWait() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofMillis(50), () -> {});
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> flight.execute("slow", () -> {
+            leaderStarted.countDown();
+            try {
+                releaseLeader.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "leader";
+        }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        // Stuck leader: the waiter gives up after 50 ms and loads on its own
+        assertEquals("waiter", flight.execute("slow", () -> "waiter"));
+
+        releaseLeader.countDown();
+        assertEquals("leader", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testLeaderFailureIsNotCached() {
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofSeconds(1), () -> {});
+
+        assertThrows(IllegalStateException.class, () -> flight.execute("k", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("ok", flight.execute("k", () -> "ok"));
+    }
+}
@@ -0,0 +1,106 @@
+package com.urlshortener.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+
+    private final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 2);
+
+    @Test
+    void testIdsAreIncreasing() {
+        long previous = generator.nextId();
+        for (int i = 0; i < 100_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous, "IDs must be strictly increasing");
+            previous = id;
+        }
+    }
+
+    @Test
+    void testMachineBitsEncoded() {
+        long id = generator.nextId();
+
+        assertEquals(1, (id >> 17) & 0x1F);
+        assertEquals(2, (id >> 12) & 0x1F);
+    }
+
+    @Test
+    void testConcurrentIdsAreUnique() throws Exception {
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    ids.add(generator.nextId());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(16 * 20_000, ids.size());
+    }
+
+    @Test
+    void testReserveRangeIsContiguous() {
+        SnowflakeIdGenerator.IdRange range = generator.reserveRange(100);
+        long next = generator.nextId();
+
+        assertEquals(100, range.size());
+        assertEquals(range.firstId() + 99, range.lastId());
+        assertTrue(next > range.lastId());
+    }
+
+    @Test
+    void testNextIdsLargerThanOneMillisecond() {
+        long[] ids = generator.nextIds(10_000);
+
+        assertEquals(10_000, ids.length);
+        for (int i = 1; i < ids.length; i++) {
+            assertTrue(ids[i] > ids[i - 1]);
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> generator.reserveRange(0));
+        assertThrows(IllegalArgumentException.class, () -> generator.reserveRange(4097));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(32, 0));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(0, -1));
+    }
+
+    @Test
+    void testLeasedGeneratorRefusesWithoutLease() {
+        SnowflakeIdGenerator leased = new SnowflakeIdGenerator(0, 0, true);
+
+        assertFalse(leased.hasValidLease());
+        assertThrows(IllegalStateException.class, leased::nextId);
+
+        leased.assignLease(0b10101_00011, System.currentTimeMillis() + 60_000);
+        long id = leased.nextId();
+        assertEquals(21, (id >> 17) & 0x1F);
+        assertEquals(3, (id >> 12) & 0x1F);
+        assertEquals(21, leased.getDatacenterId());
+        assertEquals(3, leased.getWorkerId());
+
+        leased.revokeLease();
+        assertThrows(IllegalStateException.class, leased::nextId);
+
+        leased.extendLease(System.currentTimeMillis() - 1);
+        assertThrows(IllegalStateException.class, leased::nextId);
+    }
+}
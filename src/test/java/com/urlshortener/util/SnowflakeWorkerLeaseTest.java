@@ -0,0 +1,81 @@
+package com.urlshortener.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SnowflakeWorkerLeaseTest {
+
+    private RedisTemplate<String, String> redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private SnowflakeIdGenerator generator;
+    private SnowflakeWorkerLease lease;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        generator = new SnowflakeIdGenerator(0, 0, true);
+        lease = new SnowflakeWorkerLease(redisTemplate, generator, new SnowflakeLeaseConfig());
+    }
+
+    @Test
+    void testClaimsFirstFreeSlot() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenReturn(false, false, true);
+
+        lease.heartbeat();
+
+        assertTrue(generator.hasValidLease());
+        assertTrue(lease.getMachineId() >= 0);
+        verify(valueOperations, times(3)).setIfAbsent(anyString(), anyString(), any(Duration.class));
+        assertDoesNotThrow(generator::nextId);
+    }
+
+    @Test
+    void testNoFreeSlotKeepsGenerationDisabled() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+
+        lease.heartbeat();
+
+        assertEquals(-1, lease.getMachineId());
+        assertThrows(IllegalStateException.class, generator::nextId);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testLostLeaseIsReplaced() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        lease.heartbeat();
+
+        // Key expired and was taken by another node: renewal finds a different owner
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(0L);
+        lease.heartbeat();
+
+        verify(valueOperations, times(2)).setIfAbsent(anyString(), anyString(), any(Duration.class));
+        assertTrue(generator.hasValidLease());
+        assertTrue(lease.getMachineId() >= 0);
+    }
+
+    @Test
+    void testRedisDownLeavesGenerationDisabled() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenThrow(new RuntimeException("Connection refused"));
+
+        lease.heartbeat();
+
+        assertFalse(generator.hasValidLease());
+    }
+}
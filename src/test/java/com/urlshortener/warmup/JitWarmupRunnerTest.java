@@ -0,0 +1,78 @@
+package com.urlshortener.warmup;
+
+import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.security.UrlValidationService;
+import com.urlshortener.service.IdGenerationConfig;
+import com.urlshortener.util.Base62Encoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JitWarmupRunnerTest {
+
+    private JitWarmupConfig config;
+    private SimpleMeterRegistry meterRegistry;
+    private JitWarmupRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        config = new JitWarmupConfig();
+        config.setEnabled(true);
+        config.setStandInLinks(20);
+        config.setMinDuration(Duration.ZERO);
+        config.setMaxDuration(Duration.ofMillis(500));
+        meterRegistry = new SimpleMeterRegistry();
+        runner = new JitWarmupRunner(config, new Base62Encoder(), new UrlValidationService(),
+                new IdGenerationConfig(), new MetricsService(meterRegistry));
+    }
+
+    @Test
+    void testOutOfServiceUntilWarm() {
+        assertEquals(Status.OUT_OF_SERVICE, runner.health().getStatus());
+
+        runner.warm();
+
+        Health health = runner.health();
+        assertEquals(Status.UP, health.getStatus());
+        assertFalse(String.valueOf(health.getDetails().get("outcome")).startsWith("failed"),
+                String.valueOf(health.getDetails().get("outcome")));
+        assertTrue((Long) health.getDetails().get("rounds") > 0);
+    }
+
+    @Test
+    void testReportsDuration() {
+        runner.warm();
+
+        assertTrue(meterRegistry.get("jit.warmup.duration.seconds").gauge().value() > 0);
+    }
+
+    @Test
+    void testSnowflakeStrategyWarmsCreatePath() {
+        IdGenerationConfig idGenerationConfig = new IdGenerationConfig();
+        idGenerationConfig.setStrategy(IdGenerationConfig.Strategy.SNOWFLAKE);
+        runner = new JitWarmupRunner(config, new Base62Encoder(), new UrlValidationService(),
+                idGenerationConfig, new MetricsService(new SimpleMeterRegistry()));
+
+        runner.warm();
+
+        assertFalse(String.valueOf(runner.health().getDetails().get("outcome")).startsWith("failed"));
+    }
+
+    @Test
+    void testDisabledIsReadyImmediately() {
+        config.setEnabled(false);
+
+        runner.start();
+
+        Health health = runner.health();
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals("disabled", health.getDetails().get("outcome"));
+        assertEquals(0L, health.getDetails().get("rounds"));
+    }
+}
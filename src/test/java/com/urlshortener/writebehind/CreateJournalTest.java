@@ -0,0 +1,103 @@
+package com.urlshortener.writebehind;
+
+import com.urlshortener.model.Url;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CreateJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testUnreleasedLinksAreRecovered() throws IOException {
+        CreateJournal journal = new CreateJournal(directory, 1 << 20, true);
+        assertTrue(journal.open().isEmpty());
+        Url hashed = url(1L, "a", LocalDateTime.of(2026, 12, 31, 23, 59));
+        hashed.setUrlHash("0123456789abcdef0123456789abcdef");
+        long segment = journal.append(hashed);
+        journal.append(url(2L, "b", null));
+        journal.release(Map.of(segment, 1));
+        // No close(): as if the process died here
+
+        List<CreateJournal.Entry> recovered = new CreateJournal(directory, 1 << 20, true).open();
+
+        // Release is by count per segment, so both records of the still-open segment come back
+        assertEquals(List.of("a", "b"), recovered.stream().map(entry -> entry.url().getShortCode()).toList());
+        Url first = recovered.get(0).url();
+        assertEquals(1L, first.getId());
+        assertEquals("https://example.com/a", first.getOriginalUrl());
+        assertEquals(LocalDateTime.of(2026, 12, 31, 23, 59), first.getExpiryDate());
+        assertEquals("0123456789abcdef0123456789abcdef", first.getUrlHash());
+        assertNull(recovered.get(1).url().getExpiryDate());
+        assertNull(recovered.get(1).url().getUrlHash());
+    }
+
+    @Test
+    void testTornTailIsDropped() throws IOException {
+        CreateJournal journal = new CreateJournal(directory, 1 << 20, false);
+        journal.open();
+        journal.append(url(1L, "a", null));
+        journal.append(url(2L, "b", null));
+        journal.close();
+
+        // Crash halfway through the second record
+        Path segment = segmentFiles().get(0);
+        long size = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 5);
+        }
+
+        List<CreateJournal.Entry> recovered = new CreateJournal(directory, 1 << 20, false).open();
+
+        assertEquals(1, recovered.size());
+        assertEquals("a", recovered.get(0).url().getShortCode());
+        assertTrue(Files.size(segment) < size - 5);
+    }
+
+    @Test
+    void testReleasedSegmentsAreDeleted() throws IOException {
+        // Every record fills a segment, so each append rolls to a new one
+        CreateJournal journal = new CreateJournal(directory, 1, false);
+        journal.open();
+        long first = journal.append(url(1L, "a", null));
+        long second = journal.append(url(2L, "b", null));
+        assertNotEquals(first, second);
+        assertEquals(3, segmentFiles().size());
+
+        journal.release(Map.of(first, 1, second, 1));
+
+        assertEquals(1, segmentFiles().size());
+        journal.close();
+        assertTrue(new CreateJournal(directory, 1, false).open().isEmpty());
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static Url url(long id, String shortCode, LocalDateTime expiryDate) {
+        return Url.builder()
+                .id(id)
+                .shortCode(shortCode)
+                .originalUrl("https://example.com/" + shortCode)
+                .createdAt(LocalDateTime.of(2026, 2, 22, 10, 30))
+                .expiryDate(expiryDate)
+                .clickCount(0L)
+                .build();
+    }
+}
@@ -0,0 +1,185 @@
+package com.urlshortener.writebehind;
+
+import com.urlshortener.cache.CacheInvalidationService;
+import com.urlshortener.cache.ShortCodeFilter;
+import com.urlshortener.datasource.ReadYourWrites;
+import com.urlshortener.exception.WriteBehindBacklogException;
+import com.urlshortener.model.Url;
+import com.urlshortener.monitoring.MetricsService;
+import com.urlshortener.repository.UrlJdbcRepository;
+import com.urlshortener.service.UrlDedupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class WriteBehindQueueTest {
+
+    @TempDir
+    Path directory;
+
+    private UrlJdbcRepository urlJdbcRepository;
+    private ReadYourWrites readYourWrites;
+    private CacheInvalidationService cacheInvalidationService;
+    private ShortCodeFilter shortCodeFilter;
+    private UrlDedupService urlDedupService;
+    private WriteBehindConfig config;
+    private SimpleMeterRegistry meterRegistry;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        urlJdbcRepository = mock(UrlJdbcRepository.class);
+        readYourWrites = mock(ReadYourWrites.class);
+        cacheInvalidationService = mock(CacheInvalidationService.class);
+        shortCodeFilter = mock(ShortCodeFilter.class);
+        urlDedupService = mock(UrlDedupService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(urlJdbcRepository.insertAllIfAbsent(anyList())).thenAnswer(invocation -> {
+            boolean[] inserted = new boolean[invocation.<List<Url>>getArgument(0).size()];
+            Arrays.fill(inserted, true);
+            return inserted;
+        });
+
+        config = new WriteBehindConfig();
+        config.setEnabled(true);
+        config.setJournalDir(directory.toString());
+        config.setFsync(false);
+    }
+
+    @Test
+    void testFlushWritesBatchesAndReleasesJournal() throws IOException {
+        config.setBatchSize(2);
+        WriteBehindQueue queue = open();
+        for (int i = 0; i < 5; i++) {
+            queue.enqueue(url(i));
+        }
+
+        queue.flush();
+
+        verify(urlJdbcRepository, times(3)).insertAllIfAbsent(anyList());
+        verify(readYourWrites).written("code4");
+        assertEquals(0, queue.pending());
+        assertEquals(5.0, meterRegistry.get("url.write.behind.flushed.total").tag("result", "written").counter().count());
+
+        // Nothing left to replay: the fully released segment is gone
+        queue.shutdown();
+        assertEquals(0, open().pending());
+    }
+
+    @Test
+    void testFailedBatchIsRetriedAndSurvivesRestart() throws IOException {
+        WriteBehindQueue queue = open();
+        queue.enqueue(url(1));
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+                .when(urlJdbcRepository).insertAllIfAbsent(anyList());
+
+        queue.flush();
+        assertEquals(1, queue.pending());
+
+        // Postgres still down at shutdown: the link stays journaled and comes back on the next start
+        queue.shutdown();
+        WriteBehindQueue restarted = open();
+        assertEquals(1, restarted.pending());
+
+        doReturn(new boolean[]{false}).when(urlJdbcRepository).insertAllIfAbsent(anyList());
+        restarted.flush();
+
+        // Peers get the recovered code again
+        verify(shortCodeFilter).add("code1");
+
+        // A recovered link whose row already exists isn't a conflict
+        assertEquals(0, restarted.pending());
+        assertEquals(0.0, meterRegistry.get("url.write.behind.flushed.total").tag("result", "conflict").counter().count());
+        restarted.shutdown();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testLinkWhoseCodeWasTakenIsInvalidatedAndCounted() throws IOException {
+        WriteBehindQueue queue = open();
+        queue.enqueue(url(1));
+        queue.enqueue(url(2));
+        doReturn(new boolean[]{true, false}).when(urlJdbcRepository).insertAllIfAbsent(anyList());
+
+        queue.flush();
+
+        verify(cacheInvalidationService).invalidate("code2");
+        verify(urlDedupService).forget(argThat(url -> "code2".equals(url.getShortCode())));
+        verify(cacheInvalidationService, never()).invalidate("code1");
+        assertEquals(1.0, meterRegistry.get("url.write.behind.lost.total").counter().count());
+        assertEquals(1.0, meterRegistry.get("url.write.behind.flushed.total").tag("result", "conflict").counter().count());
+        assertEquals(0, queue.pending());
+    }
+
+    @Test
+    void testPendingCodesIncludeQueuedAndRetriedLinks() throws IOException {
+        WriteBehindQueue queue = open();
+        verify(shortCodeFilter).registerPendingCodes(any());
+        queue.enqueue(url(1));
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+                .when(urlJdbcRepository).insertAllIfAbsent(anyList());
+        queue.flush();
+        queue.enqueue(url(2));
+
+        assertEquals(Set.of("code1", "code2"), queue.pendingCodes());
+
+        doReturn(new boolean[]{true}).when(urlJdbcRepository).insertAllIfAbsent(anyList());
+        queue.flush();
+        assertEquals(Set.of(), queue.pendingCodes());
+    }
+
+    @Test
+    void testBacklogRejectsPastMaxPending() throws IOException {
+        config.setMaxPending(2);
+        WriteBehindQueue queue = open();
+        queue.enqueue(url(1));
+        queue.enqueue(url(2));
+
+        assertThrows(WriteBehindBacklogException.class, () -> queue.enqueue(url(3)));
+        assertEquals(2, queue.pending());
+        assertEquals(1.0, meterRegistry.get("url.write.behind.rejected.total").counter().count());
+
+        queue.flush();
+        queue.enqueue(url(3));
+        assertEquals(1, queue.pending());
+    }
+
+    private WriteBehindQueue open() throws IOException {
+        WriteBehindQueue queue = new WriteBehindQueue(config, urlJdbcRepository, transactionTemplate, readYourWrites,
+                cacheInvalidationService, shortCodeFilter, urlDedupService, new MetricsService(meterRegistry));
+        queue.open();
+        return queue;
+    }
+
+    private static Url url(long id) {
+        return Url.builder()
+                .id(id)
+                .shortCode("code" + id)
+                .originalUrl("https://example.com/" + id)
+                .createdAt(LocalDateTime.of(2026, 2, 22, 10, 30))
+                .clickCount(0L)
+                .build();
+    }
+}